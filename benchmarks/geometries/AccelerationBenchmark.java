@@ -0,0 +1,126 @@
+package geometries;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import primitives.Point;
+import primitives.Ray;
+import primitives.Vector;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Micro benchmarks of the intersection queries of a collection of random spheres and triangles,
+ * searched by each {@link Geometries.Acceleration}: the scan of the list of shapes (NONE), the culling list,
+ * the tree of nodes (BVH), the flat hierarchy (FLAT_BVH) and the uniform grid (GRID).
+ * The rays start outside the cube of the shapes and pass through random points in it.
+ * Run with the gc profiler (-prof gc) to see the allocation of each query.
+ *
+ * @author Avraham Hassson
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AccelerationBenchmark {
+    /**
+     * The number of rays cycled through
+     */
+    private static final int RAYS = 1024;
+    /**
+     * The edge length of the cube of the shapes
+     */
+    private static final double EXTENT = 100;
+
+    /**
+     * The acceleration of the search
+     */
+    @Param({"NONE", "CULLING", "BVH", "FLAT_BVH", "GRID"})
+    public String acceleration;
+    /**
+     * The number of shapes
+     */
+    @Param({"100", "1000", "10000"})
+    public int shapes;
+
+    /**
+     * The shapes
+     */
+    private Geometries geometries;
+    /**
+     * The rays
+     */
+    private final Ray[] rays = new Ray[RAYS];
+    /**
+     * The index of the next ray
+     */
+    private int next = 0;
+
+    /**
+     * Creates the shapes, builds their acceleration structure, and creates the rays
+     */
+    @Setup
+    public void setup() {
+        Random random = new Random(5890);
+        double size = EXTENT / Math.cbrt(shapes);
+        geometries = new Geometries().setAcceleration(Geometries.Acceleration.valueOf(acceleration));
+        for (int i = 0; i < shapes; ++i) {
+            Point p = randomPoint(random);
+            geometries.add(i % 2 == 0 ? new Sphere(p, size * (0.2 + random.nextDouble() * 0.3))
+                    : new Triangle(p, p.add(new Vector(size * (0.5 + random.nextDouble()), 0, size * 0.2)),
+                    p.add(new Vector(0, size * (0.5 + random.nextDouble()), size * 0.2))));
+        }
+        geometries.prepare();
+        Point p0 = new Point(EXTENT / 2, EXTENT / 2, EXTENT * 3);
+        for (int i = 0; i < RAYS; ++i)
+            rays[i] = new Ray(p0, randomPoint(random).subtract(p0));
+    }
+
+    /**
+     * @param random the random numbers
+     * @return a random point in the cube of the shapes
+     */
+    private static Point randomPoint(Random random) {
+        return new Point(random.nextDouble() * EXTENT, random.nextDouble() * EXTENT, random.nextDouble() * EXTENT);
+    }
+
+    /**
+     * @return the next ray
+     */
+    private Ray nextRay() {
+        next = (next + 1) & (RAYS - 1);
+        return rays[next];
+    }
+
+    /**
+     * Finds all the intersections
+     *
+     * @param blackhole consumes the result
+     */
+    @Benchmark
+    public void findGeoIntersections(Blackhole blackhole) {
+        blackhole.consume(geometries.findGeoIntersections(nextRay()));
+    }
+
+    /**
+     * Finds the closest intersection
+     *
+     * @param blackhole consumes the result
+     */
+    @Benchmark
+    public void findClosestGeoIntersection(Blackhole blackhole) {
+        blackhole.consume(geometries.findClosestGeoIntersection(nextRay()));
+    }
+
+    /**
+     * Checks whether there is an intersection
+     *
+     * @return the result
+     */
+    @Benchmark
+    public boolean hasIntersection() {
+        return geometries.hasIntersection(nextRay(), Double.POSITIVE_INFINITY);
+    }
+}
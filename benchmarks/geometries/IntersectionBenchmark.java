@@ -0,0 +1,140 @@
+package geometries;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import primitives.Point;
+import primitives.Ray;
+import primitives.Vector;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Micro benchmarks of the intersection queries of every geometry type.
+ * The rays start at the origin and pass through random points of a square around the shape,
+ * so some of them hit it and the others miss it.
+ * Run with the gc profiler (-prof gc) to see the allocation of each query.
+ *
+ * @author Avraham Hassson
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class IntersectionBenchmark {
+    /**
+     * The number of rays cycled through
+     */
+    private static final int RAYS = 1024;
+
+    /**
+     * The type of the shape
+     */
+    @Param({"SPHERE", "PLANE", "TRIANGLE", "POLYGON", "TUBE", "CYLINDER", "MESH"})
+    public String shape;
+
+    /**
+     * The shape
+     */
+    private Intersectable geometry;
+    /**
+     * The rays
+     */
+    private final Ray[] rays = new Ray[RAYS];
+    /**
+     * The index of the next ray
+     */
+    private int next = 0;
+
+    /**
+     * Creates the shape and the rays
+     */
+    @Setup
+    public void setup() {
+        geometry = switch (shape) {
+            case "SPHERE" -> new Sphere(new Point(0, 0, 10), 2);
+            case "PLANE" -> new Plane(new Point(0, 0, 10), new Vector(0, 0.5, -1));
+            case "TRIANGLE" -> new Triangle(new Point(-2, -2, 10), new Point(2, -2, 10), new Point(0, 2, 10));
+            case "POLYGON" -> new Polygon(new Point(-2, -2, 10), new Point(2, -2, 10),
+                    new Point(2, 2, 10), new Point(-2, 2, 10));
+            case "TUBE" -> new Tube(new Ray(new Point(0, -4, 10), new Vector(0, 1, 0)), 2);
+            case "CYLINDER" -> new Cylinder(new Ray(new Point(0, -2, 10), new Vector(0, 1, 0)), 2, 4);
+            case "MESH" -> terrain(32);
+            default -> throw new IllegalArgumentException("Unknown shape " + shape);
+        };
+        Random random = new Random(5890);
+        for (int i = 0; i < RAYS; ++i)
+            rays[i] = new Ray(Point.ZERO, new Vector(random.nextDouble() * 8 - 4, random.nextDouble() * 8 - 4, 10));
+    }
+
+    /**
+     * Builds a mesh of a terrain: a grid of vertices with random heights around z = 10, two triangles per cell
+     *
+     * @param size the number of cells along each side of the grid
+     * @return the mesh
+     */
+    private static Mesh terrain(int size) {
+        Random random = new Random(2718);
+        double[] vertices = new double[(size + 1) * (size + 1) * 3];
+        for (int i = 0; i <= size; ++i)
+            for (int j = 0; j <= size; ++j) {
+                int v = (i * (size + 1) + j) * 3;
+                vertices[v] = 4.0 * i / size - 2;
+                vertices[v + 1] = 4.0 * j / size - 2;
+                vertices[v + 2] = 10 + random.nextDouble() * 0.5;
+            }
+        int[] indices = new int[size * size * 6];
+        int k = 0;
+        for (int i = 0; i < size; ++i)
+            for (int j = 0; j < size; ++j) {
+                int v = i * (size + 1) + j;
+                indices[k++] = v;
+                indices[k++] = v + 1;
+                indices[k++] = v + size + 1;
+                indices[k++] = v + 1;
+                indices[k++] = v + size + 2;
+                indices[k++] = v + size + 1;
+            }
+        return new Mesh(vertices, indices);
+    }
+
+    /**
+     * @return the next ray
+     */
+    private Ray nextRay() {
+        next = (next + 1) & (RAYS - 1);
+        return rays[next];
+    }
+
+    /**
+     * Finds all the intersections
+     *
+     * @param blackhole consumes the result
+     */
+    @Benchmark
+    public void findGeoIntersections(Blackhole blackhole) {
+        blackhole.consume(geometry.findGeoIntersections(nextRay()));
+    }
+
+    /**
+     * Finds the closest intersection
+     *
+     * @param blackhole consumes the result
+     */
+    @Benchmark
+    public void findClosestGeoIntersection(Blackhole blackhole) {
+        blackhole.consume(geometry.findClosestGeoIntersection(nextRay()));
+    }
+
+    /**
+     * Checks whether there is an intersection
+     *
+     * @return the result
+     */
+    @Benchmark
+    public boolean hasIntersection() {
+        return geometry.hasIntersection(nextRay(), Double.POSITIVE_INFINITY);
+    }
+}
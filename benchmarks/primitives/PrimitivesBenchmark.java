@@ -0,0 +1,248 @@
+package primitives;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Micro benchmarks of the operations of the primitives, each applied to a batch of
+ * random operands so the results can't be computed ahead. The score of a benchmark
+ * is the time of the whole batch; divide by the batch size for the time of one operation.
+ * The object operations are compared with the batch kernels of {@link PackedVectors}.
+ * Run with the gc profiler (-prof gc) to see the allocation of each operation.
+ *
+ * @author Avraham Hassson
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PrimitivesBenchmark {
+    /**
+     * The number of operands in a batch
+     */
+    @Param({"16", "1024"})
+    public int batch;
+
+    /**
+     * The operands as objects
+     */
+    private Vector[] a, b;
+    /**
+     * The operands as points
+     */
+    private Point[] p;
+    /**
+     * The operands as rays
+     */
+    private Ray[] rays;
+    /**
+     * The distances along the rays
+     */
+    private double[] t;
+    /**
+     * The operands packed
+     */
+    private double[] packedA, packedB, packedP;
+    /**
+     * The results of the batch kernels
+     */
+    private double[] result, resultScalars;
+
+    /**
+     * Creates the operands
+     */
+    @Setup
+    public void setup() {
+        Random random = new Random(5890);
+        a = new Vector[batch];
+        b = new Vector[batch];
+        p = new Point[batch];
+        rays = new Ray[batch];
+        t = new double[batch];
+        for (int i = 0; i < batch; ++i) {
+            a[i] = new Vector(random.nextDouble() + 0.1, random.nextDouble() - 0.5, random.nextDouble() - 0.5);
+            b[i] = new Vector(random.nextDouble() - 0.5, random.nextDouble() + 0.1, random.nextDouble() - 0.5);
+            p[i] = new Point(random.nextDouble() * 10, random.nextDouble() * 10, random.nextDouble() * 10);
+            rays[i] = new Ray(p[i], a[i]);
+            t[i] = random.nextDouble() * 100;
+        }
+        packedA = PackedVectors.pack(a);
+        packedB = PackedVectors.pack(b);
+        packedP = PackedVectors.pack(p);
+        PackedVectors.normalize(packedA, packedA, batch);
+        result = new double[batch * 3];
+        resultScalars = new double[batch];
+    }
+
+    /**
+     * @return the sum of the results, so they are not optimized away
+     */
+    @Benchmark
+    public double vectorAdd() {
+        double sum = 0;
+        for (int i = 0; i < batch; ++i)
+            sum += a[i].add(b[i]).getX();
+        return sum;
+    }
+
+    /**
+     * @return the sum of the results, so they are not optimized away
+     */
+    @Benchmark
+    public double vectorScale() {
+        double sum = 0;
+        for (int i = 0; i < batch; ++i)
+            sum += a[i].scale(t[i]).getX();
+        return sum;
+    }
+
+    /**
+     * @return the sum of the results, so they are not optimized away
+     */
+    @Benchmark
+    public double vectorDotProduct() {
+        double sum = 0;
+        for (int i = 0; i < batch; ++i)
+            sum += a[i].dotProduct(b[i]);
+        return sum;
+    }
+
+    /**
+     * @return the sum of the results, so they are not optimized away
+     */
+    @Benchmark
+    public double vectorCrossProduct() {
+        double sum = 0;
+        for (int i = 0; i < batch; ++i)
+            sum += a[i].crossProduct(b[i]).getX();
+        return sum;
+    }
+
+    /**
+     * @return the sum of the results, so they are not optimized away
+     */
+    @Benchmark
+    public double vectorTryCrossProduct() {
+        double sum = 0;
+        for (int i = 0; i < batch; ++i)
+            sum += a[i].tryCrossProduct(b[i]).getX();
+        return sum;
+    }
+
+    /**
+     * @return the sum of the results, so they are not optimized away
+     */
+    @Benchmark
+    public double vectorLength() {
+        double sum = 0;
+        for (int i = 0; i < batch; ++i)
+            sum += a[i].length();
+        return sum;
+    }
+
+    /**
+     * @return the sum of the results, so they are not optimized away
+     */
+    @Benchmark
+    public double vectorNormalize() {
+        double sum = 0;
+        for (int i = 0; i < batch; ++i)
+            sum += b[i].normalize().getX();
+        return sum;
+    }
+
+    /**
+     * @return the sum of the results, so they are not optimized away
+     */
+    @Benchmark
+    public double pointAdd() {
+        double sum = 0;
+        for (int i = 0; i < batch; ++i)
+            sum += p[i].add(a[i]).getX();
+        return sum;
+    }
+
+    /**
+     * @return the sum of the results, so they are not optimized away
+     */
+    @Benchmark
+    public double pointSubtract() {
+        double sum = 0;
+        for (int i = 0; i < batch; ++i)
+            sum += p[i].subtract(a[i]).getX();
+        return sum;
+    }
+
+    /**
+     * @return the sum of the results, so they are not optimized away
+     */
+    @Benchmark
+    public double pointTrySubtract() {
+        double sum = 0;
+        for (int i = 0; i < batch; ++i)
+            sum += p[i].trySubtract(a[i]).getX();
+        return sum;
+    }
+
+    /**
+     * @return the sum of the results, so they are not optimized away
+     */
+    @Benchmark
+    public double pointDistance() {
+        double sum = 0;
+        for (int i = 0; i < batch; ++i)
+            sum += p[i].distance(a[i]);
+        return sum;
+    }
+
+    /**
+     * @return the sum of the results, so they are not optimized away
+     */
+    @Benchmark
+    public double rayGetPoint() {
+        double sum = 0;
+        for (int i = 0; i < batch; ++i)
+            sum += rays[i].getPoint(t[i]).getX();
+        return sum;
+    }
+
+    /**
+     * @return the results
+     */
+    @Benchmark
+    public double[] packedDot() {
+        PackedVectors.dot(packedA, packedB, resultScalars, batch);
+        return resultScalars;
+    }
+
+    /**
+     * @return the results
+     */
+    @Benchmark
+    public double[] packedCross() {
+        PackedVectors.cross(packedA, packedB, result, batch);
+        return result;
+    }
+
+    /**
+     * @return the results
+     */
+    @Benchmark
+    public double[] packedNormalize() {
+        PackedVectors.normalize(packedB, result, batch);
+        return result;
+    }
+
+    /**
+     * @return the results
+     */
+    @Benchmark
+    public double[] packedPointsAlong() {
+        PackedVectors.pointsAlong(packedP, packedA, t, result, batch);
+        return result;
+    }
+}
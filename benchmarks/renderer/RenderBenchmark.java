@@ -0,0 +1,395 @@
+package renderer;
+
+import geometries.BuildStats;
+import geometries.Geometries;
+import geometries.Geometry;
+import geometries.Plane;
+import geometries.Polygon;
+import geometries.Sphere;
+import geometries.Triangle;
+import lighting.AmbientLight;
+import lighting.PointLight;
+import lighting.SpotLight;
+import primitives.Color;
+import primitives.Material;
+import primitives.Point;
+import primitives.Vector;
+import scene.Scene;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * End-to-end render benchmark. Canonical scenes are generated at several scales
+ * and rendered through {@link Camera#renderImage()} at several resolutions.
+ * Every run records the primary rays per second, the times, the statistics of the acceleration structure
+ * (see {@link BuildStats}), the peak heap and the GC activity into a machine-readable report (JSON, or CSV if the report file ends with .csv).
+ * The scenes are generated from a fixed seed, so the runs of different builds are comparable.
+ * <p>
+ * Options (all optional):
+ * <pre>
+ *   --scene NAME:SIZE,SIZE...  a scene and its scales, may be repeated (default: all the scenes)
+ *                              SPHERES: random spheres, TRIANGLES: a triangle soup,
+ *                              POLYGONS: random convex polygons, LIGHTS: point and spot lights over a fixed scene
+ *   --resolution N,N...        square image sizes in pixels (default: 200,400)
+ *   --threads N                render threads, 0 for sequential (default: the number of processors)
+ *   --acceleration NAME        the Geometries acceleration (default: BVH)
+ *   --build-threads N          threads building the acceleration structure, 0 for sequential
+ *                              (default: the number of processors)
+ *   --warmups N                runs of every configuration left out of the report (default: 1)
+ *   --runs N                   measured runs of every configuration (default: 1)
+ *   --output FILE              the report file (default: render-report.json)
+ * </pre>
+ *
+ * @author Avraham Hassson
+ */
+public class RenderBenchmark {
+    /**
+     * The canonical scenes
+     */
+    enum SceneType {
+        SPHERES, TRIANGLES, POLYGONS, LIGHTS
+    }
+
+    /**
+     * The default scales of the canonical scenes
+     */
+    private static final Map<SceneType, int[]> DEFAULT_SIZES = Map.of(
+            SceneType.SPHERES, new int[]{100, 1000, 10000},
+            SceneType.TRIANGLES, new int[]{1000, 10000, 100000},
+            SceneType.POLYGONS, new int[]{100, 1000, 10000},
+            SceneType.LIGHTS, new int[]{1, 8, 64});
+    /**
+     * The half edge of the cube the shapes are generated in
+     */
+    private static final double EXTENT = 100;
+    /**
+     * The material of all the shapes
+     */
+    private static final Material MATERIAL = new Material().setKD(0.5).setKS(0.5).setNShininess(30);
+
+    /**
+     * The result of a single run
+     *
+     * @param scene        the scene
+     * @param size         the scale of the scene
+     * @param resolution   the image size in pixels
+     * @param threads      the render threads
+     * @param acceleration the acceleration
+     * @param run          the index of the measured run
+     * @param setupMs      the time of building the scene and its acceleration structure
+     * @param buildMs      the time of building the acceleration structure
+     * @param nodes        the nodes of the acceleration structure
+     * @param structureBytes the estimated memory of the acceleration structure
+     * @param sahCost      the surface area heuristic cost of the acceleration structure
+     * @param renderMs     the time of rendering
+     * @param raysPerSecond the primary rays rendered per second
+     * @param peakHeapBytes the peak heap usage during the run (sum of the peaks of the heap pools)
+     * @param gcCount      the garbage collections during the run
+     * @param gcMs         the time of the garbage collections during the run
+     */
+    record Result(SceneType scene, int size, int resolution, int threads, Geometries.Acceleration acceleration,
+                  int run, double setupMs, double buildMs, int nodes, long structureBytes, double sahCost,
+                  double renderMs, double raysPerSecond,
+                  long peakHeapBytes, long gcCount, long gcMs) {
+    }
+
+    /**
+     * Runs the benchmark
+     *
+     * @param args the options
+     * @throws IOException if the report can't be written
+     */
+    public static void main(String[] args) throws IOException {
+        Map<SceneType, int[]> scenes = new LinkedHashMap<>();
+        int[] resolutions = {200, 400};
+        int threads = Runtime.getRuntime().availableProcessors();
+        Geometries.Acceleration acceleration = Geometries.Acceleration.BVH;
+        int buildThreads = Runtime.getRuntime().availableProcessors();
+        int warmups = 1, runs = 1;
+        Path output = Path.of("render-report.json");
+
+        for (int i = 0; i < args.length; i += 2) {
+            if (i + 1 == args.length)
+                throw new IllegalArgumentException("Missing the value of " + args[i]);
+            String value = args[i + 1];
+            switch (args[i]) {
+                case "--scene" -> {
+                    String[] parts = value.split(":");
+                    SceneType type = SceneType.valueOf(parts[0].toUpperCase(Locale.ROOT));
+                    scenes.put(type, parts.length > 1 ? parseInts(parts[1]) : DEFAULT_SIZES.get(type));
+                }
+                case "--resolution" -> resolutions = parseInts(value);
+                case "--threads" -> threads = Integer.parseInt(value);
+                case "--acceleration" -> acceleration = Geometries.Acceleration.valueOf(value.toUpperCase(Locale.ROOT));
+                case "--build-threads" -> buildThreads = Integer.parseInt(value);
+                case "--warmups" -> warmups = Integer.parseInt(value);
+                case "--runs" -> runs = Integer.parseInt(value);
+                case "--output" -> output = Path.of(value);
+                default -> throw new IllegalArgumentException("Unknown option " + args[i]);
+            }
+        }
+        if (scenes.isEmpty())
+            for (SceneType type : SceneType.values())
+                scenes.put(type, DEFAULT_SIZES.get(type));
+
+        List<Result> results = new LinkedList<>();
+        for (Map.Entry<SceneType, int[]> entry : scenes.entrySet())
+            for (int size : entry.getValue())
+                for (int resolution : resolutions)
+                    for (int run = -warmups; run < runs; ++run) {
+                        Result result = run(entry.getKey(), size, resolution, threads, acceleration, buildThreads, run);
+                        if (run < 0) continue;
+                        results.add(result);
+                        System.out.printf(Locale.ROOT, "%-9s %7d %5dpx  setup %9.1f ms  build %9.1f ms  %8d nodes  %6d KB  sah %8.1f  render %9.1f ms  %12.0f rays/s  heap %6d MB  gc %5d ms%n",
+                                result.scene, result.size, result.resolution, result.setupMs, result.buildMs, result.nodes,
+                                result.structureBytes >> 10, result.sahCost, result.renderMs,
+                                result.raysPerSecond, result.peakHeapBytes >> 20, result.gcMs);
+                    }
+        write(results, output);
+        System.out.println("Report written to " + output.toAbsolutePath());
+    }
+
+    /**
+     * Builds and renders a scene once, measuring it
+     *
+     * @param type         the scene
+     * @param size         the scale of the scene
+     * @param resolution   the image size in pixels
+     * @param threads      the render threads
+     * @param acceleration the acceleration
+     * @param buildThreads the threads building the acceleration structure
+     * @param run          the index of the run
+     * @return the measures
+     */
+    private static Result run(SceneType type, int size, int resolution, int threads,
+                              Geometries.Acceleration acceleration, int buildThreads, int run) {
+        System.gc();
+        List<MemoryPoolMXBean> pools = new LinkedList<>();
+        for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans())
+            if (pool.getType() == MemoryType.HEAP) {
+                pool.resetPeakUsage();
+                pools.add(pool);
+            }
+        long gcCount = -gcCount(), gcMs = -gcMs();
+
+        long start = System.nanoTime();
+        Scene scene = scene(type, size);
+        scene.geometries.setAcceleration(acceleration).setBuildThreads(buildThreads);
+        Camera camera = new Camera(new Point(0, 0, 1000), new Vector(0, 0, -1), new Vector(0, 1, 0))
+                .setVPSize(2.4 * EXTENT, 2.4 * EXTENT).setVPDistance(800)
+                .setImageWriter(new ImageWriter(type + "-" + size, resolution, resolution))
+                .setRayTracer(new RayTracerBasic(scene))
+                .setMultithreading(threads);
+        // the acceleration structure is built before the render, so it is measured with the setup
+        scene.geometries.prepare();
+        BuildStats stats = scene.geometries.getBuildStats();
+        long built = System.nanoTime();
+        camera.renderImage();
+        long end = System.nanoTime();
+
+        gcCount += gcCount();
+        gcMs += gcMs();
+        long peak = 0;
+        for (MemoryPoolMXBean pool : pools)
+            peak += pool.getPeakUsage().getUsed();
+        double renderSeconds = (end - built) / 1e9;
+        return new Result(type, size, resolution, threads, acceleration, run, (built - start) / 1e6,
+                stats == null ? 0 : stats.buildNanos() / 1e6, stats == null ? 0 : stats.nodes(),
+                stats == null ? 0 : stats.bytes(), stats == null ? 0 : stats.sahCost(), (end - built) / 1e6, resolution * (double) resolution / renderSeconds, peak, gcCount, gcMs);
+    }
+
+    /**
+     * @return the number of garbage collections so far
+     */
+    private static long gcCount() {
+        long count = 0;
+        for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans())
+            count += Math.max(0, gc.getCollectionCount());
+        return count;
+    }
+
+    /**
+     * @return the time of the garbage collections so far, in milliseconds
+     */
+    private static long gcMs() {
+        long time = 0;
+        for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans())
+            time += Math.max(0, gc.getCollectionTime());
+        return time;
+    }
+
+    /**
+     * Generates a canonical scene
+     *
+     * @param type the scene
+     * @param size the scale of the scene: the number of shapes, or of lights in {@link SceneType#LIGHTS}
+     * @return the scene
+     */
+    static Scene scene(SceneType type, int size) {
+        Random random = new Random(5890);
+        Scene scene = new Scene(type + " " + size)
+                .setBackground(new Color(20, 20, 40))
+                .setAmbientLight(new AmbientLight(new Color(255, 255, 255), 0.1));
+        // the shapes shrink as they multiply, so they cover about the same part of the image
+        double scale = EXTENT / Math.cbrt(Math.max(size, 1));
+        switch (type) {
+            case SPHERES -> {
+                for (int i = 0; i < size; ++i)
+                    scene.geometries.add(shape(new Sphere(randomPoint(random), scale * (0.3 + random.nextDouble() * 0.4)), random));
+            }
+            case TRIANGLES -> {
+                for (int i = 0; i < size; ++i) {
+                    Point p = randomPoint(random);
+                    scene.geometries.add(shape(new Triangle(p, p.add(randomVector(random).scale(scale)),
+                            p.add(randomVector(random).scale(scale))), random));
+                }
+            }
+            case POLYGONS -> {
+                for (int i = 0; i < size; ++i)
+                    scene.geometries.add(shape(polygon(randomPoint(random), scale * 0.6, 5, random), random));
+            }
+            case LIGHTS -> {
+                scene.geometries.add(new Plane(new Point(0, 0, -EXTENT), new Vector(0, 0, 1)).setMaterial(MATERIAL));
+                for (int i = 0; i < 10; ++i)
+                    scene.geometries.add(shape(new Sphere(randomPoint(random), EXTENT / 8), random));
+                for (int i = 0; i < size; ++i) {
+                    Color intensity = new Color(500, 400, 300).reduce(size);
+                    Point position = new Point(random.nextDouble() * 4 * EXTENT - 2 * EXTENT,
+                            random.nextDouble() * 4 * EXTENT - 2 * EXTENT, 2 * EXTENT);
+                    scene.lights.add(i % 2 == 0
+                            ? new PointLight(intensity, position).setKL(1e-5).setKQ(1e-7)
+                            : new SpotLight(intensity, position, new Vector(0, 0, -1)).setKL(1e-5).setKQ(1e-7));
+                }
+                return scene;
+            }
+        }
+        scene.lights.add(new PointLight(new Color(400, 300, 300), new Point(-2 * EXTENT, 2 * EXTENT, 3 * EXTENT))
+                .setKL(1e-5).setKQ(1e-7));
+        scene.lights.add(new SpotLight(new Color(300, 300, 400), new Point(2 * EXTENT, 0, 3 * EXTENT), new Vector(-1, 0, -1.5))
+                .setKL(1e-5).setKQ(1e-7));
+        return scene;
+    }
+
+    /**
+     * Gives a shape a random color and the common material
+     *
+     * @param geometry the shape
+     * @param random   the random numbers generator
+     * @return the shape
+     */
+    private static Geometry shape(Geometry geometry, Random random) {
+        return geometry.setEmission(new Color(random.nextInt(200), random.nextInt(200), random.nextInt(200)))
+                .setMaterial(MATERIAL);
+    }
+
+    /**
+     * @param random the random numbers generator
+     * @return a random point in the cube of the shapes
+     */
+    private static Point randomPoint(Random random) {
+        return new Point((random.nextDouble() * 2 - 1) * EXTENT, (random.nextDouble() * 2 - 1) * EXTENT,
+                (random.nextDouble() * 2 - 1) * EXTENT);
+    }
+
+    /**
+     * @param random the random numbers generator
+     * @return a random unit vector
+     */
+    private static Vector randomVector(Random random) {
+        while (true) {
+            double x = random.nextDouble() * 2 - 1, y = random.nextDouble() * 2 - 1, z = random.nextDouble() * 2 - 1;
+            double lengthSquared = x * x + y * y + z * z;
+            if (lengthSquared > 0.01 && lengthSquared <= 1)
+                return new Vector(x, y, z).normalize();
+        }
+    }
+
+    /**
+     * Creates a regular convex polygon in a random plane
+     *
+     * @param center  the center of the polygon
+     * @param radius  the distance of the vertices from the center
+     * @param count   the number of vertices
+     * @param random  the random numbers generator
+     * @return the polygon
+     */
+    private static Polygon polygon(Point center, double radius, int count, Random random) {
+        Vector normal = randomVector(random);
+        Vector u = normal.crossProduct(Math.abs(normal.getX()) < 0.9 ? new Vector(1, 0, 0) : new Vector(0, 1, 0)).normalize();
+        Vector v = normal.crossProduct(u);
+        Point[] vertices = new Point[count];
+        for (int i = 0; i < count; ++i) {
+            double a = radius * Math.cos(2 * Math.PI * i / count), b = radius * Math.sin(2 * Math.PI * i / count);
+            vertices[i] = new Point(center.getX() + u.getX() * a + v.getX() * b,
+                    center.getY() + u.getY() * a + v.getY() * b, center.getZ() + u.getZ() * a + v.getZ() * b);
+        }
+        return new Polygon(vertices);
+    }
+
+    /**
+     * Parses a comma separated list of numbers
+     *
+     * @param text the list
+     * @return the numbers
+     */
+    private static int[] parseInts(String text) {
+        String[] parts = text.split(",");
+        int[] numbers = new int[parts.length];
+        for (int i = 0; i < parts.length; ++i)
+            numbers[i] = Integer.parseInt(parts[i].trim());
+        return numbers;
+    }
+
+    /**
+     * Writes the report, as CSV if the file name ends with .csv and as JSON otherwise
+     *
+     * @param results the results
+     * @param output  the report file
+     * @throws IOException if the report can't be written
+     */
+    private static void write(List<Result> results, Path output) throws IOException {
+        Path parent = output.toAbsolutePath().getParent();
+        if (parent != null) Files.createDirectories(parent);
+        boolean csv = output.getFileName().toString().toLowerCase(Locale.ROOT).endsWith(".csv");
+        try (PrintWriter out = new PrintWriter(Files.newBufferedWriter(output, StandardCharsets.UTF_8))) {
+            if (csv)
+                out.println("scene,size,resolution,threads,acceleration,run,setupMs,buildMs,nodes,structureBytes,sahCost,"
+                        + "renderMs,raysPerSecond,peakHeapBytes,gcCount,gcMs");
+            else
+                out.println("{\n  \"java\": \"" + System.getProperty("java.version") + "\",\n  \"processors\": "
+                        + Runtime.getRuntime().availableProcessors() + ",\n  \"results\": [");
+            int i = 0;
+            for (Result r : results) {
+                if (csv)
+                    out.printf(Locale.ROOT, "%s,%d,%d,%d,%s,%d,%.3f,%.3f,%d,%d,%.3f,%.3f,%.1f,%d,%d,%d%n", r.scene, r.size,
+                            r.resolution, r.threads, r.acceleration, r.run, r.setupMs, r.buildMs, r.nodes, r.structureBytes,
+                            r.sahCost, r.renderMs, r.raysPerSecond, r.peakHeapBytes,
+                            r.gcCount, r.gcMs);
+                else
+                    out.printf(Locale.ROOT, "    {\"scene\": \"%s\", \"size\": %d, \"resolution\": %d, \"threads\": %d, "
+                                    + "\"acceleration\": \"%s\", \"run\": %d, \"setupMs\": %.3f, \"buildMs\": %.3f, "
+                                    + "\"nodes\": %d, \"structureBytes\": %d, \"sahCost\": %.3f, \"renderMs\": %.3f, "
+                                    + "\"raysPerSecond\": %.1f, \"peakHeapBytes\": %d, \"gcCount\": %d, \"gcMs\": %d}%s%n",
+                            r.scene, r.size, r.resolution, r.threads, r.acceleration, r.run, r.setupMs, r.buildMs, r.nodes,
+                            r.structureBytes, r.sahCost, r.renderMs,
+                            r.raysPerSecond, r.peakHeapBytes, r.gcCount, r.gcMs, ++i < results.size() ? "," : "");
+            }
+            if (!csv)
+                out.println("  ]\n}");
+        }
+    }
+}
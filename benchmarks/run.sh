@@ -0,0 +1,73 @@
+#!/usr/bin/env bash
+# Builds the ray tracer and its JMH benchmarks, and runs the benchmarks with the gc profiler,
+# so every benchmark reports its time (ns/op) and its allocation (gc.alloc.rate.norm, B/op).
+#
+# Usage: benchmarks/run.sh [JMH options]
+#   benchmarks/run.sh                                      all the benchmarks
+#   benchmarks/run.sh IntersectionBenchmark -p shape=MESH  one benchmark class with one parameter value
+#   benchmarks/run.sh -h                                   the JMH options
+#
+#        benchmarks/run.sh render [RenderBenchmark options]
+#   runs the end-to-end render benchmark instead, see renderer/RenderBenchmark.java for its options, e.g.
+#   benchmarks/run.sh render --scene SPHERES:1000,10000 --resolution 400 --output results.csv
+#
+# The JMH jars are taken from the local Maven repository ($MAVEN_REPOSITORY, ~/.m2/repository by default),
+# as in the IntelliJ module, and are downloaded from Maven Central when missing. Every jar is checked against
+# its pinned SHA-256 sum before it is used.
+set -euo pipefail
+
+ROOT=$(cd "$(dirname "$0")/.." && pwd)
+REPOSITORY=${MAVEN_REPOSITORY:-$HOME/.m2/repository}
+# the jars and their SHA-256 sums
+JARS=(
+  "org/openjdk/jmh/jmh-core/1.37/jmh-core-1.37.jar dc0eaf2bbf0036a70b60798c785d6e03a9daf06b68b8edb0f1ba9eb3421baeb3"
+  "org/openjdk/jmh/jmh-generator-annprocess/1.37/jmh-generator-annprocess-1.37.jar 6a5604b5b804e0daca1145df1077609321687734a8b49387e49f10557c186c77"
+  "net/sf/jopt-simple/jopt-simple/5.0.4/jopt-simple-5.0.4.jar df26cc58f235f477db07f753ba5a3ab243ebe5789d9f89ecf68dd62ea9a66c28"
+  "org/apache/commons/commons-math3/3.6.1/commons-math3-3.6.1.jar 1e56d7b058d28b65abd256b8458e3885b674c1d588fa43cd7d1cbb9c7ef2b308"
+)
+
+# prints the SHA-256 sum of a file
+sha256() {
+  if command -v sha256sum > /dev/null; then
+    sha256sum "$1" | cut -d ' ' -f 1
+  else
+    shasum -a 256 "$1" | cut -d ' ' -f 1
+  fi
+}
+
+CLASSPATH_JMH=""
+for entry in "${JARS[@]}"; do
+  jar=${entry% *}
+  sum=${entry#* }
+  if [ ! -f "$REPOSITORY/$jar" ]; then
+    mkdir -p "$(dirname "$REPOSITORY/$jar")"
+    # download beside the jar and move it into place once it is verified, so a bad download is never used
+    curl -sSfL -o "$REPOSITORY/$jar.part" "https://repo1.maven.org/maven2/$jar"
+    if [ "$(sha256 "$REPOSITORY/$jar.part")" != "$sum" ]; then
+      rm -f "$REPOSITORY/$jar.part"
+      echo "Checksum mismatch for the download of $jar" >&2
+      exit 1
+    fi
+    mv "$REPOSITORY/$jar.part" "$REPOSITORY/$jar"
+  fi
+  if [ "$(sha256 "$REPOSITORY/$jar")" != "$sum" ]; then
+    echo "Checksum mismatch for $REPOSITORY/$jar" >&2
+    exit 1
+  fi
+  CLASSPATH_JMH="$CLASSPATH_JMH:$REPOSITORY/$jar"
+done
+CLASSPATH_JMH=${CLASSPATH_JMH#:}
+
+OUT=$(mktemp -d)
+trap 'rm -rf "$OUT"' EXIT
+find "$ROOT/src" -name '*.java' > "$OUT/main.txt"
+find "$ROOT/benchmarks" -name '*.java' > "$OUT/benchmarks.txt"
+javac -encoding UTF-8 -Xlint:all -d "$OUT/main" @"$OUT/main.txt"
+javac -encoding UTF-8 -Xlint:all -cp "$OUT/main:$CLASSPATH_JMH" -processorpath "$CLASSPATH_JMH" \
+  -d "$OUT/benchmarks" @"$OUT/benchmarks.txt"
+if [ "${1:-}" = render ]; then
+  shift
+  java -cp "$OUT/main:$OUT/benchmarks" renderer.RenderBenchmark "$@"
+else
+  java -cp "$OUT/main:$OUT/benchmarks:$CLASSPATH_JMH" org.openjdk.jmh.Main -prof gc "$@"
+fi
@@ -0,0 +1,246 @@
+package geometries;
+
+import primitives.Point;
+import primitives.Ray;
+import primitives.Vector;
+
+import java.io.Serializable;
+
+/**
+ * class BoundingBox is a class representing an axis-aligned box
+ * in Cartesian 3-Dimensional coordinate system, used for bounding geometries.
+ *
+ * @author Avraham Hassson
+ */
+public class BoundingBox implements Serializable {
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * Relative tolerance of the slab test, so rays grazing a flat box are not lost to rounding errors
+     */
+    static final double SLAB_TOLERANCE = 1 + 1e-15;
+
+    /**
+     * The box of the whole space, bounding unbounded geometries (e.g. planes)
+     */
+    public static final BoundingBox INFINITE = new BoundingBox(
+            Double.NEGATIVE_INFINITY, Double.NEGATIVE_INFINITY, Double.NEGATIVE_INFINITY,
+            Double.POSITIVE_INFINITY, Double.POSITIVE_INFINITY, Double.POSITIVE_INFINITY);
+    /**
+     * The box containing nothing, bounding an empty collection of geometries
+     */
+    public static final BoundingBox EMPTY = new BoundingBox();
+
+    /**
+     * The minimal coordinates of the box
+     */
+    final double minX, minY, minZ;
+    /**
+     * The maximal coordinates of the box
+     */
+    final double maxX, maxY, maxZ;
+
+    /**
+     * Constructor to initialize BoundingBox based on its minimal and maximal corners
+     *
+     * @param min the corner with the minimal coordinates
+     * @param max the corner with the maximal coordinates
+     * @throws IllegalArgumentException if a coordinate of min is greater than the one of max
+     */
+    public BoundingBox(Point min, Point max) {
+        this(min.getX(), min.getY(), min.getZ(), max.getX(), max.getY(), max.getZ());
+    }
+
+    /**
+     * Constructor to initialize BoundingBox based on its minimal and maximal coordinates
+     *
+     * @param minX minimal x coordinate
+     * @param minY minimal y coordinate
+     * @param minZ minimal z coordinate
+     * @param maxX maximal x coordinate
+     * @param maxY maximal y coordinate
+     * @param maxZ maximal z coordinate
+     * @throws IllegalArgumentException if a minimal coordinate is greater than the maximal one
+     */
+    BoundingBox(double minX, double minY, double minZ, double maxX, double maxY, double maxZ) {
+        if (minX > maxX || minY > maxY || minZ > maxZ)
+            throw new IllegalArgumentException("The minimal corner of a box cannot be above its maximal corner");
+        this.minX = minX;
+        this.minY = minY;
+        this.minZ = minZ;
+        this.maxX = maxX;
+        this.maxY = maxY;
+        this.maxZ = maxZ;
+    }
+
+    /**
+     * Constructor of the empty box, whose minimal corner is at positive infinity and
+     * maximal corner at negative infinity, so its union with any box is that box
+     */
+    private BoundingBox() {
+        minX = minY = minZ = Double.POSITIVE_INFINITY;
+        maxX = maxY = maxZ = Double.NEGATIVE_INFINITY;
+    }
+
+    /**
+     * Creates the smallest box containing all the given points
+     *
+     * @param points the points to bound
+     * @return the bounding box of the points
+     */
+    public static BoundingBox of(Point... points) {
+        double minX = Double.POSITIVE_INFINITY, minY = Double.POSITIVE_INFINITY, minZ = Double.POSITIVE_INFINITY;
+        double maxX = Double.NEGATIVE_INFINITY, maxY = Double.NEGATIVE_INFINITY, maxZ = Double.NEGATIVE_INFINITY;
+        for (Point p : points) {
+            minX = Math.min(minX, p.getX());
+            minY = Math.min(minY, p.getY());
+            minZ = Math.min(minZ, p.getZ());
+            maxX = Math.max(maxX, p.getX());
+            maxY = Math.max(maxY, p.getY());
+            maxZ = Math.max(maxZ, p.getZ());
+        }
+        return points.length == 0 ? EMPTY : new BoundingBox(minX, minY, minZ, maxX, maxY, maxZ);
+    }
+
+    /**
+     * Checks whether the box extends to infinity along any of the axes
+     *
+     * @return true if the box is unbounded
+     */
+    public boolean isInfinite() {
+        return this != EMPTY && (Double.isInfinite(minX) || Double.isInfinite(minY) || Double.isInfinite(minZ)
+                || Double.isInfinite(maxX) || Double.isInfinite(maxY) || Double.isInfinite(maxZ));
+    }
+
+    /**
+     * Checks whether the box contains nothing
+     *
+     * @return true if the box is empty
+     */
+    public boolean isEmpty() {
+        return this == EMPTY;
+    }
+
+    /**
+     * getter for the corner with the minimal coordinates
+     *
+     * @return the minimal corner
+     */
+    public Point getMin() {
+        return new Point(minX, minY, minZ);
+    }
+
+    /**
+     * getter for the corner with the maximal coordinates
+     *
+     * @return the maximal corner
+     */
+    public Point getMax() {
+        return new Point(maxX, maxY, maxZ);
+    }
+
+    /**
+     * Creates the smallest box containing both this box and another one
+     *
+     * @param other the other box
+     * @return the union of the boxes
+     */
+    public BoundingBox union(BoundingBox other) {
+        if (this == EMPTY) return other;
+        if (other == EMPTY) return this;
+        return new BoundingBox(Math.min(minX, other.minX), Math.min(minY, other.minY), Math.min(minZ, other.minZ),
+                Math.max(maxX, other.maxX), Math.max(maxY, other.maxY), Math.max(maxZ, other.maxZ));
+    }
+
+    /**
+     * calculates the surface area of the box
+     *
+     * @return the surface area
+     */
+    public double surfaceArea() {
+        if (this == EMPTY) return 0;
+        double dx = maxX - minX, dy = maxY - minY, dz = maxZ - minZ;
+        return 2 * (dx * dy + dy * dz + dz * dx);
+    }
+
+    /**
+     * calculates the center coordinate of the box along one of the axes
+     *
+     * @param axis 0 for x, 1 for y and 2 for z
+     * @return the center coordinate along the axis
+     */
+    double center(int axis) {
+        return switch (axis) {
+            case 0 -> (minX + maxX) / 2;
+            case 1 -> (minY + maxY) / 2;
+            default -> (minZ + maxZ) / 2;
+        };
+    }
+
+    /**
+     * Checks whether a ray enters the box before a given distance from its starting point (slab test)
+     *
+     * @param ray         the ray
+     * @param maxDistance the distance along the ray beyond which the box is ignored
+     * @return true if the ray passes through the box within the distance
+     */
+    public boolean intersects(Ray ray, double maxDistance) {
+        return entryDistance(ray, maxDistance) != Double.POSITIVE_INFINITY;
+    }
+
+    /**
+     * calculates the distance along a ray at which it enters the box (slab test).
+     * A ray starting inside the box enters it at distance 0.
+     *
+     * @param ray         the ray
+     * @param maxDistance the distance along the ray beyond which the box is ignored
+     * @return the entry distance, or positive infinity if the ray misses the box within the distance
+     */
+    double entryDistance(Ray ray, double maxDistance) {
+        if (this == EMPTY) return Double.POSITIVE_INFINITY;
+        Point p0 = ray.getP0();
+        Vector dir = ray.getDir();
+        double tNear = 0;
+        double tFar = maxDistance;
+
+        // x slab
+        double origin = p0.getX(), d = dir.getX();
+        if (d == 0) {
+            // the ray is parallel to the slab, so it must start between its planes
+            if (origin < minX || origin > maxX) return Double.POSITIVE_INFINITY;
+        } else {
+            double t1 = (minX - origin) / d, t2 = (maxX - origin) / d;
+            tNear = Math.max(tNear, Math.min(t1, t2));
+            tFar = Math.min(tFar, Math.max(t1, t2) * SLAB_TOLERANCE);
+            if (tNear > tFar) return Double.POSITIVE_INFINITY;
+        }
+        // y slab
+        origin = p0.getY();
+        d = dir.getY();
+        if (d == 0) {
+            if (origin < minY || origin > maxY) return Double.POSITIVE_INFINITY;
+        } else {
+            double t1 = (minY - origin) / d, t2 = (maxY - origin) / d;
+            tNear = Math.max(tNear, Math.min(t1, t2));
+            tFar = Math.min(tFar, Math.max(t1, t2) * SLAB_TOLERANCE);
+            if (tNear > tFar) return Double.POSITIVE_INFINITY;
+        }
+        // z slab
+        origin = p0.getZ();
+        d = dir.getZ();
+        if (d == 0) {
+            if (origin < minZ || origin > maxZ) return Double.POSITIVE_INFINITY;
+        } else {
+            double t1 = (minZ - origin) / d, t2 = (maxZ - origin) / d;
+            tNear = Math.max(tNear, Math.min(t1, t2));
+            tFar = Math.min(tFar, Math.max(t1, t2) * SLAB_TOLERANCE);
+            if (tNear > tFar) return Double.POSITIVE_INFINITY;
+        }
+        return tNear;
+    }
+
+    @Override
+    public String toString() {
+        return "BoundingBox: min = (" + minX + "," + minY + "," + minZ + "), max = (" + maxX + "," + maxY + "," + maxZ + ")";
+    }
+}
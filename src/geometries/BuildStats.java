@@ -0,0 +1,37 @@
+package geometries;
+
+/**
+ * The statistics of building the acceleration structure of a {@link Geometries}, for tuning the cost of
+ * the build against the quality of the structure.
+ *
+ * @param buildNanos the time of building the structure, in nanoseconds
+ * @param nodes      the number of nodes of the hierarchy (a culling list is a single leaf)
+ * @param leaves     the number of leaves
+ * @param depth      the depth of the deepest leaf, 0 if the root is a leaf
+ * @param bytes      the estimated memory of the structure (assuming compressed references), without the shapes
+ * @param sahCost    the surface area heuristic cost of the hierarchy: the expected number of nodes visited and
+ *                   shapes tested by a ray through the root's box, with a node costing as much as a shape -
+ *                   the lower, the faster the traversal
+ * @author Avraham Hassson
+ */
+public record BuildStats(long buildNanos, int nodes, int leaves, int depth, long bytes, double sahCost) {
+    /**
+     * The estimated size of an array header
+     */
+    static final int ARRAY_HEADER_BYTES = 16;
+    /**
+     * The estimated size of a reference, compressed
+     */
+    static final int REFERENCE_BYTES = 4;
+
+    /**
+     * Estimates the memory of an array, aligned to 8 bytes
+     *
+     * @param length      the length of the array
+     * @param elementSize the size of an element
+     * @return the estimated size
+     */
+    static long arrayBytes(long length, int elementSize) {
+        return (ARRAY_HEADER_BYTES + length * elementSize + 7) & ~7L;
+    }
+}
@@ -0,0 +1,354 @@
+package geometries;
+
+import primitives.Ray;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+
+/**
+ * class BvhNode is a node of a bounding volume hierarchy over bounded geometries.
+ * An inner node holds two child nodes, a leaf holds a few geometries, and a ray
+ * visits a node only if it passes through the node's bounding box.
+ * The tree is built top-down using the surface area heuristic (SAH), optionally in parallel.
+ *
+ * @author Avraham Hassson
+ */
+class BvhNode extends Intersectable {
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * The maximal number of geometries a leaf may hold
+     */
+    private static final int MAX_LEAF_SIZE = 4;
+    /**
+     * The cost of visiting a node relative to the cost of intersecting a geometry
+     */
+    private static final double TRAVERSAL_COST = 1;
+    /**
+     * The number of geometries below which a sub-tree is built by a single thread
+     */
+    static final int PARALLEL_THRESHOLD = 4096;
+
+    /**
+     * bounding box of all the geometries below the node
+     */
+    private final BoundingBox box;
+    /**
+     * children of an inner node, null in a leaf
+     */
+    private final BvhNode left, right;
+    /**
+     * geometries of a leaf, null in an inner node
+     */
+    private final Intersectable[] items;
+
+    /**
+     * A geometry together with its bounding box, used while building the tree
+     */
+    private static class Primitive {
+        final Intersectable geometry;
+        final BoundingBox box;
+        final double[] center;
+
+        Primitive(Intersectable geometry) {
+            this.geometry = geometry;
+            this.box = geometry.getBoundingBox();
+            this.center = new double[]{box.center(0), box.center(1), box.center(2)};
+        }
+    }
+
+    /**
+     * Constructor of a leaf
+     *
+     * @param box   bounding box of the geometries
+     * @param items geometries of the leaf
+     */
+    private BvhNode(BoundingBox box, Intersectable[] items) {
+        this.box = box;
+        this.items = items;
+        this.left = null;
+        this.right = null;
+    }
+
+    /**
+     * Constructor of an inner node
+     *
+     * @param box   bounding box of both children
+     * @param left  first child
+     * @param right second child
+     */
+    private BvhNode(BoundingBox box, BvhNode left, BvhNode right) {
+        this.box = box;
+        this.items = null;
+        this.left = left;
+        this.right = right;
+    }
+
+    /**
+     * Builds a bounding volume hierarchy over geometries
+     *
+     * @param geometries the geometries, all of them must have a bounding box
+     * @return the root of the hierarchy
+     * @throws IllegalArgumentException if there are no geometries or one of them is unbounded or empty
+     */
+    static BvhNode build(List<Intersectable> geometries) {
+        return build(geometries, null);
+    }
+
+    /**
+     * Builds a bounding volume hierarchy over geometries. With a pool, the two sub-trees of a node of more than
+     * {@link #PARALLEL_THRESHOLD} geometries are built in parallel by the threads of the pool (fork/join).
+     * The hierarchy is the same as the one built on the calling thread.
+     *
+     * @param geometries the geometries, all of them must have a bounding box
+     * @param pool       the pool of the build threads, or null for building on the calling thread
+     * @return the root of the hierarchy
+     * @throws IllegalArgumentException if there are no geometries or one of them is unbounded or empty
+     */
+    static BvhNode build(List<Intersectable> geometries, ForkJoinPool pool) {
+        if (geometries.isEmpty())
+            throw new IllegalArgumentException("Cannot build a hierarchy without geometries");
+        Primitive[] primitives = new Primitive[geometries.size()];
+        int i = 0;
+        for (Intersectable geometry : geometries) {
+            BoundingBox box = geometry.getBoundingBox();
+            if (box.isInfinite() || box.isEmpty())
+                throw new IllegalArgumentException("Cannot build a hierarchy over an unbounded or empty geometry");
+            primitives[i++] = new Primitive(geometry);
+        }
+        if (pool == null || primitives.length <= PARALLEL_THRESHOLD)
+            return build(primitives, 0, primitives.length, false);
+        return pool.invoke(ForkJoinTask.adapt(() -> build(primitives, 0, primitives.length, true)));
+    }
+
+    /**
+     * Builds the sub-tree of a range of primitives, choosing the split with the lowest
+     * surface area heuristic cost among all the splits along the three axes
+     *
+     * @param primitives the primitives, reordered in place
+     * @param from       start of the range (included)
+     * @param to         end of the range (excluded)
+     * @param parallel   whether the sub-trees of large ranges are built in parallel, on a thread of a pool
+     * @return the root of the sub-tree
+     */
+    private static BvhNode build(Primitive[] primitives, int from, int to, boolean parallel) {
+        int n = to - from;
+        BoundingBox box = primitives[from].box;
+        for (int i = from + 1; i < to; ++i)
+            box = box.union(primitives[i].box);
+        if (n == 1)
+            return leaf(box, primitives, from, to);
+
+        double area = box.surfaceArea();
+        double bestCost = Double.POSITIVE_INFINITY;
+        int bestAxis = -1, bestSplit = -1;
+        double[] rightAreas = new double[n];
+        for (int axis = 0; axis < 3; ++axis) {
+            sort(primitives, from, to, axis);
+            // sweep from the right to find the area of every suffix
+            BoundingBox right = primitives[to - 1].box;
+            for (int i = to - 1; i > from; --i) {
+                right = right.union(primitives[i].box);
+                rightAreas[i - from] = right.surfaceArea();
+            }
+            // sweep from the left, evaluating the cost of splitting before each primitive
+            BoundingBox left = primitives[from].box;
+            for (int i = from + 1; i < to; ++i) {
+                double cost = TRAVERSAL_COST + (left.surfaceArea() * (i - from) + rightAreas[i - from] * (to - i)) / area;
+                if (cost < bestCost) {
+                    bestCost = cost;
+                    bestAxis = axis;
+                    bestSplit = i;
+                }
+                left = left.union(primitives[i].box);
+            }
+        }
+
+        // all boxes are degenerate (e.g. all the geometries are in the same point)
+        if (area == 0 || Double.isNaN(bestCost)) {
+            if (n <= MAX_LEAF_SIZE) return leaf(box, primitives, from, to);
+            bestAxis = 0;
+            bestSplit = (from + to) >>> 1;
+        } else if (n <= MAX_LEAF_SIZE && n <= bestCost)
+            return leaf(box, primitives, from, to);
+
+        sort(primitives, from, to, bestAxis);
+        int split = bestSplit;
+        if (parallel && n > PARALLEL_THRESHOLD) {
+            ForkJoinTask<BvhNode> left = ForkJoinTask.adapt(() -> build(primitives, from, split, true)).fork();
+            BvhNode right = build(primitives, split, to, true);
+            return new BvhNode(box, left.join(), right);
+        }
+        return new BvhNode(box, build(primitives, from, split, false), build(primitives, split, to, false));
+    }
+
+    /**
+     * Sorts a range of primitives by the centers of their boxes along an axis
+     *
+     * @param primitives the primitives
+     * @param from       start of the range (included)
+     * @param to         end of the range (excluded)
+     * @param axis       0 for x, 1 for y and 2 for z
+     */
+    private static void sort(Primitive[] primitives, int from, int to, int axis) {
+        Arrays.sort(primitives, from, to, Comparator.comparingDouble(p -> p.center[axis]));
+    }
+
+    /**
+     * Creates a leaf of a range of primitives
+     *
+     * @param box        bounding box of the primitives
+     * @param primitives the primitives
+     * @param from       start of the range (included)
+     * @param to         end of the range (excluded)
+     * @return the leaf
+     */
+    private static BvhNode leaf(BoundingBox box, Primitive[] primitives, int from, int to) {
+        Intersectable[] items = new Intersectable[to - from];
+        for (int i = from; i < to; ++i)
+            items[i - from] = primitives[i].geometry;
+        return new BvhNode(box, items);
+    }
+
+    /**
+     * Computes the statistics of the hierarchy below the node
+     *
+     * @param buildNanos the time of building it
+     * @return the statistics, whose memory includes the nodes, their boxes and the arrays of the leaves
+     */
+    BuildStats stats(long buildNanos) {
+        Totals totals = new Totals();
+        accumulate(0, box.surfaceArea(), totals);
+        return new BuildStats(buildNanos, totals.nodes, totals.leaves, totals.depth, totals.bytes, totals.cost);
+    }
+
+    /**
+     * The statistics of a hierarchy, summed over its nodes
+     */
+    private static class Totals {
+        int nodes, leaves, depth;
+        long bytes;
+        double cost;
+    }
+
+    /**
+     * Adds the statistics of the sub-tree of the node
+     *
+     * @param depth    the depth of the node
+     * @param rootArea the surface area of the box of the root
+     * @param totals   the statistics
+     */
+    private void accumulate(int depth, double rootArea, Totals totals) {
+        double relativeArea = rootArea == 0 ? 1 : box.surfaceArea() / rootArea;
+        ++totals.nodes;
+        // the node (a header and 4 references) and its box (a header and 6 doubles), aligned to 8 bytes
+        totals.bytes += 32 + 64;
+        if (items != null) {
+            ++totals.leaves;
+            totals.depth = Math.max(totals.depth, depth);
+            totals.bytes += BuildStats.arrayBytes(items.length, BuildStats.REFERENCE_BYTES);
+            totals.cost += relativeArea * items.length;
+            return;
+        }
+        totals.cost += relativeArea * TRAVERSAL_COST;
+        left.accumulate(depth + 1, rootArea, totals);
+        right.accumulate(depth + 1, rootArea, totals);
+    }
+
+    @Override
+    public BoundingBox getBoundingBox() {
+        return box;
+    }
+
+    @Override
+    protected List<GeoPoint> findGeoIntersectionsHelper(Ray ray) {
+        if (!box.intersects(ray, Double.POSITIVE_INFINITY))
+            return null;
+        if (items == null) {
+            List<GeoPoint> l = left.findGeoIntersectionsHelper(ray);
+            List<GeoPoint> r = right.findGeoIntersectionsHelper(ray);
+            if (l == null) return r;
+            if (r == null) return l;
+            List<GeoPoint> lp = new LinkedList<>(l);
+            lp.addAll(r);
+            return lp;
+        }
+        List<GeoPoint> lp = null;
+        for (Intersectable item : items) {
+            var i = item.findGeoIntersectionsHelper(ray);
+            if (i != null) {
+                if (lp == null) lp = new LinkedList<>();
+                lp.addAll(i);
+            }
+        }
+        return lp;
+    }
+
+    @Override
+    protected GeoPoint findClosestGeoIntersectionHelper(Ray ray, double maxDistance) {
+        if (box.entryDistance(ray, maxDistance) == Double.POSITIVE_INFINITY)
+            return null;
+        return findClosestInside(ray, maxDistance);
+    }
+
+    @Override
+    protected boolean hasIntersectionHelper(Ray ray, double maxDistance) {
+        if (!box.intersects(ray, maxDistance))
+            return false;
+        if (items == null)
+            return left.hasIntersectionHelper(ray, maxDistance) || right.hasIntersectionHelper(ray, maxDistance);
+        for (Intersectable item : items)
+            if (item.hasIntersectionHelper(ray, maxDistance))
+                return true;
+        return false;
+    }
+
+    /**
+     * Finds the closest intersection point below a node whose box the ray is known to pass through.
+     * The child the ray enters first is searched first, and the other child is skipped
+     * if the ray enters it only beyond the best hit found in the first one.
+     *
+     * @param ray         The ray that creates the intersection points.
+     * @param maxDistance The distance from the ray's starting point beyond which points are ignored.
+     * @return The closest intersection point within the distance, or null if there is none.
+     */
+    private GeoPoint findClosestInside(Ray ray, double maxDistance) {
+        GeoPoint closest = null;
+        if (items != null) {
+            for (Intersectable item : items) {
+                GeoPoint gp = item.findClosestGeoIntersectionHelper(ray, maxDistance);
+                if (gp != null) {
+                    closest = gp;
+                    maxDistance = distanceAlong(ray, gp.point);
+                }
+            }
+            return closest;
+        }
+
+        BvhNode near = left, far = right;
+        double nearDistance = left.box.entryDistance(ray, maxDistance);
+        double farDistance = right.box.entryDistance(ray, maxDistance);
+        if (farDistance < nearDistance) {
+            near = right;
+            far = left;
+            double d = nearDistance;
+            nearDistance = farDistance;
+            farDistance = d;
+        }
+        if (nearDistance != Double.POSITIVE_INFINITY) {
+            closest = near.findClosestInside(ray, maxDistance);
+            if (closest != null)
+                maxDistance = distanceAlong(ray, closest.point);
+        }
+        if (farDistance < maxDistance) {
+            GeoPoint gp = far.findClosestInside(ray, maxDistance);
+            if (gp != null)
+                closest = gp;
+        }
+        return closest;
+    }
+}
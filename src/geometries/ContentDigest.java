@@ -0,0 +1,67 @@
+package geometries;
+
+import java.io.IOException;
+import java.io.ObjectOutputStream;
+import java.io.OutputStream;
+import java.io.Serializable;
+import java.security.DigestOutputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+
+/**
+ * class ContentDigest calculates the SHA-256 digest of the content of a serializable object, e.g. a scene:
+ * the object is serialized with each shape replaced by the content it was created with (see
+ * {@link Intersectable#content()}), so the settings of the searches for intersections (acceleration,
+ * build threads) and the structures built for them (e.g. the hierarchy of a {@link Mesh}) are not part of
+ * the digest, and the digest is the same on any machine.
+ *
+ * @author Avraham Hassson
+ */
+public final class ContentDigest {
+    /**
+     * Don't let anyone instantiate this class.
+     */
+    private ContentDigest() {
+    }
+
+    /**
+     * Calculates the SHA-256 digest of the content of an object.
+     *
+     * @param content the object
+     * @return the digest
+     * @throws IOException if the object cannot be serialized
+     */
+    public static byte[] sha256(Serializable content) throws IOException {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+        try (ObjectOutputStream out = new ContentOutputStream(new DigestOutputStream(OutputStream.nullOutputStream(), digest))) {
+            out.writeObject(content);
+        }
+        return digest.digest();
+    }
+
+    /**
+     * An object stream which writes the shapes as their content.
+     */
+    private static final class ContentOutputStream extends ObjectOutputStream {
+        /**
+         * Constructor of the stream
+         *
+         * @param out the stream the serialized content is written to
+         * @throws IOException if the stream header cannot be written
+         */
+        private ContentOutputStream(OutputStream out) throws IOException {
+            super(out);
+            enableReplaceObject(true);
+        }
+
+        @Override
+        protected Object replaceObject(Object obj) {
+            return obj instanceof Intersectable shape ? shape.content() : obj;
+        }
+    }
+}
@@ -0,0 +1,91 @@
+package geometries;
+
+import primitives.Ray;
+
+import java.util.LinkedList;
+import java.util.List;
+
+/**
+ * class CullingList is a flat list of geometries, each tested by a ray only after
+ * the ray passes through the geometry's bounding box (slab test culling).
+ * The boxes are taken once when the list is built.
+ *
+ * @author Avraham Hassson
+ */
+class CullingList extends Intersectable {
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * the geometries
+     */
+    private final Intersectable[] items;
+    /**
+     * the bounding boxes of the geometries, null for unbounded geometries which are always tested
+     */
+    private final BoundingBox[] boxes;
+    /**
+     * bounding box of all the geometries
+     */
+    private final BoundingBox box;
+
+    /**
+     * Constructor to initialize CullingList based on geometries
+     *
+     * @param geometries the geometries
+     */
+    CullingList(List<Intersectable> geometries) {
+        items = geometries.toArray(new Intersectable[0]);
+        boxes = new BoundingBox[items.length];
+        BoundingBox union = BoundingBox.EMPTY;
+        for (int i = 0; i < items.length; ++i) {
+            BoundingBox b = items[i].getBoundingBox();
+            union = union.union(b);
+            boxes[i] = b.isInfinite() ? null : b;
+        }
+        box = union;
+    }
+
+    @Override
+    public BoundingBox getBoundingBox() {
+        return box;
+    }
+
+    @Override
+    protected List<GeoPoint> findGeoIntersectionsHelper(Ray ray) {
+        List<GeoPoint> lp = null;
+        for (int j = 0; j < items.length; ++j) {
+            if (boxes[j] != null && !boxes[j].intersects(ray, Double.POSITIVE_INFINITY))
+                continue;
+            var i = items[j].findGeoIntersectionsHelper(ray);
+            if (i != null) {
+                if (lp == null) lp = new LinkedList<>();
+                lp.addAll(i);
+            }
+        }
+        return lp;
+    }
+
+    @Override
+    protected GeoPoint findClosestGeoIntersectionHelper(Ray ray, double maxDistance) {
+        GeoPoint closest = null;
+        for (int j = 0; j < items.length; ++j) {
+            if (boxes[j] != null && !boxes[j].intersects(ray, maxDistance))
+                continue;
+            GeoPoint gp = items[j].findClosestGeoIntersectionHelper(ray, maxDistance);
+            if (gp != null) {
+                closest = gp;
+                maxDistance = distanceAlong(ray, gp.point);
+            }
+        }
+        return closest;
+    }
+
+    @Override
+    protected boolean hasIntersectionHelper(Ray ray, double maxDistance) {
+        for (int j = 0; j < items.length; ++j)
+            if ((boxes[j] == null || boxes[j].intersects(ray, maxDistance))
+                    && items[j].hasIntersectionHelper(ray, maxDistance))
+                return true;
+        return false;
+    }
+}
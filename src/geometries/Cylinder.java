@@ -13,10 +13,16 @@ import static primitives.Util.isZero;
  * @author Avraham Hassson
  */
 public class Cylinder extends Tube {
+    private static final long serialVersionUID = 1L;
+
     /**
      * height of the tube
      */
     final private double height;
+    /**
+     * bounding box of the cylinder
+     */
+    final private BoundingBox box;
 
     /**
      * Constructor to initialize Cylinder based on given axis ray, radius, and height
@@ -28,6 +34,18 @@ public class Cylinder extends Tube {
     public Cylinder(Ray axisRay, double radius, double height) {
         super(axisRay, radius);
         this.height = height;
+
+        // the bases are discs around the ends of the axis, whose extent along each coordinate axis
+        // is the radius times the sine of the angle between that coordinate axis and the cylinder's axis
+        Point p0 = axisRay.getP0();
+        Point p1 = axisRay.getPoint(height);
+        Vector dir = axisRay.getDir();
+        double eX = radius * Math.sqrt(Math.max(0, 1 - dir.getX() * dir.getX()));
+        double eY = radius * Math.sqrt(Math.max(0, 1 - dir.getY() * dir.getY()));
+        double eZ = radius * Math.sqrt(Math.max(0, 1 - dir.getZ() * dir.getZ()));
+        this.box = new BoundingBox(
+                Math.min(p0.getX(), p1.getX()) - eX, Math.min(p0.getY(), p1.getY()) - eY, Math.min(p0.getZ(), p1.getZ()) - eZ,
+                Math.max(p0.getX(), p1.getX()) + eX, Math.max(p0.getY(), p1.getY()) + eY, Math.max(p0.getZ(), p1.getZ()) + eZ);
     }
 
     /**
@@ -40,6 +58,11 @@ public class Cylinder extends Tube {
         return height;
     }
 
+    @Override
+    public BoundingBox getBoundingBox() {
+        return box;
+    }
+
     @Override
     public Vector getNormal(Point point) {
         // if the given point collides with the base point of the axis ray, just return the normal vector (dir)
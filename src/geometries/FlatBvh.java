@@ -0,0 +1,215 @@
+package geometries;
+
+import primitives.Point;
+import primitives.Ray;
+import primitives.Vector;
+
+import java.util.LinkedList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * class FlatBvh is a bounding volume hierarchy over bounded geometries, stored in primitive arrays
+ * ({@link LinearBvh}) rather than in a tree of node objects, so a ray walks contiguous bounds and offsets
+ * instead of chasing pointers. The geometries are kept in the order of the leaves, so a leaf is a
+ * contiguous range of them.
+ * <p>
+ * The traversal keeps the nodes left to visit on an explicit stack, a frame of the per-thread
+ * {@link TraversalStack}, so the traversal allocates nothing.
+ *
+ * @author Avraham Hassson
+ */
+class FlatBvh extends Intersectable {
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * the geometries, in the order of the leaves
+     */
+    private final Intersectable[] items;
+    /**
+     * the hierarchy over the geometries
+     */
+    private final LinearBvh bvh;
+    /**
+     * bounding box of all the geometries
+     */
+    private final BoundingBox box;
+
+    /**
+     * Constructor to initialize FlatBvh based on geometries
+     *
+     * @param geometries the geometries, all of them must have a bounding box
+     * @param pool       the pool of the build threads, or null for building on the calling thread
+     * @throws IllegalArgumentException if there are no geometries or one of them is unbounded or empty
+     */
+    FlatBvh(List<Intersectable> geometries, ForkJoinPool pool) {
+        Intersectable[] all = geometries.toArray(new Intersectable[0]);
+        double[] boxes = new double[all.length * 6];
+        for (int i = 0; i < all.length; ++i) {
+            BoundingBox b = all[i].getBoundingBox();
+            if (b.isInfinite() || b.isEmpty())
+                throw new IllegalArgumentException("Cannot build a hierarchy over an unbounded or empty geometry");
+            boxes[i * 6] = b.minX;
+            boxes[i * 6 + 1] = b.minY;
+            boxes[i * 6 + 2] = b.minZ;
+            boxes[i * 6 + 3] = b.maxX;
+            boxes[i * 6 + 4] = b.maxY;
+            boxes[i * 6 + 5] = b.maxZ;
+        }
+        bvh = LinearBvh.build(boxes, pool);
+        items = new Intersectable[all.length];
+        for (int i = 0; i < all.length; ++i)
+            items[i] = all[bvh.order[i]];
+        box = bvh.getBoundingBox();
+    }
+
+    /**
+     * Computes the statistics of the hierarchy
+     *
+     * @param buildNanos the time of building it
+     * @return the statistics, whose memory includes the arrays of the hierarchy and of the geometries
+     */
+    BuildStats stats(long buildNanos) {
+        BuildStats stats = bvh.stats(buildNanos);
+        return new BuildStats(buildNanos, stats.nodes(), stats.leaves(), stats.depth(),
+                stats.bytes() + BuildStats.arrayBytes(items.length, BuildStats.REFERENCE_BYTES), stats.sahCost());
+    }
+
+    @Override
+    public BoundingBox getBoundingBox() {
+        return box;
+    }
+
+    @Override
+    protected List<GeoPoint> findGeoIntersectionsHelper(Ray ray) {
+        Point p0 = ray.getP0();
+        Vector dir = ray.getDir();
+        double ox = p0.getX(), oy = p0.getY(), oz = p0.getZ();
+        double invX = 1 / dir.getX(), invY = 1 / dir.getY(), invZ = 1 / dir.getZ();
+        if (bvh.entryDistance(0, ox, oy, oz, invX, invY, invZ, Double.POSITIVE_INFINITY) == Double.POSITIVE_INFINITY)
+            return null;
+
+        TraversalStack stack = TraversalStack.get();
+        int[] nodes = stack.push();
+        int base = stack.top - LinearBvh.MAX_DEPTH, top = base;
+        List<GeoPoint> lp = null;
+        int node = 0;
+        try {
+            while (true) {
+                int first = bvh.nodes[node * 2], count = bvh.nodes[node * 2 + 1];
+                if (count > 0) {
+                    for (int i = first; i < first + count; ++i) {
+                        var l = items[i].findGeoIntersectionsHelper(ray);
+                        if (l != null) {
+                            if (lp == null) lp = new LinkedList<>();
+                            lp.addAll(l);
+                        }
+                    }
+                } else {
+                    if (bvh.entryDistance(first, ox, oy, oz, invX, invY, invZ, Double.POSITIVE_INFINITY) != Double.POSITIVE_INFINITY)
+                        nodes[top++] = first;
+                    if (bvh.entryDistance(node + 1, ox, oy, oz, invX, invY, invZ, Double.POSITIVE_INFINITY) != Double.POSITIVE_INFINITY) {
+                        node = node + 1;
+                        continue;
+                    }
+                }
+                if (top == base) return lp;
+                node = nodes[--top];
+            }
+        } finally {
+            stack.pop();
+        }
+    }
+
+    @Override
+    protected GeoPoint findClosestGeoIntersectionHelper(Ray ray, double maxDistance) {
+        Point p0 = ray.getP0();
+        Vector dir = ray.getDir();
+        double ox = p0.getX(), oy = p0.getY(), oz = p0.getZ();
+        double invX = 1 / dir.getX(), invY = 1 / dir.getY(), invZ = 1 / dir.getZ();
+        if (bvh.entryDistance(0, ox, oy, oz, invX, invY, invZ, maxDistance) == Double.POSITIVE_INFINITY)
+            return null;
+
+        // the nodes left to visit, and the distances at which the ray enters them
+        TraversalStack stack = TraversalStack.get();
+        int[] nodes = stack.push();
+        double[] entries = stack.entries;
+        int base = stack.top - LinearBvh.MAX_DEPTH, top = base;
+        GeoPoint closest = null;
+        int node = 0;
+        try {
+            while (true) {
+                int second = bvh.nodes[node * 2], count = bvh.nodes[node * 2 + 1];
+                if (count > 0) {
+                    for (int i = second; i < second + count; ++i) {
+                        GeoPoint gp = items[i].findClosestGeoIntersectionHelper(ray, maxDistance);
+                        if (gp != null) {
+                            closest = gp;
+                            maxDistance = distanceAlong(ray, gp.point);
+                        }
+                    }
+                } else {
+                    // visit the child the ray enters first, and keep the other one for later
+                    int near = node + 1, far = second;
+                    double nearEntry = bvh.entryDistance(near, ox, oy, oz, invX, invY, invZ, maxDistance);
+                    double farEntry = bvh.entryDistance(far, ox, oy, oz, invX, invY, invZ, maxDistance);
+                    if (farEntry < nearEntry) {
+                        near = second;
+                        far = node + 1;
+                        double e = nearEntry;
+                        nearEntry = farEntry;
+                        farEntry = e;
+                    }
+                    if (nearEntry != Double.POSITIVE_INFINITY) {
+                        if (farEntry != Double.POSITIVE_INFINITY) {
+                            nodes[top] = far;
+                            entries[top++] = farEntry;
+                        }
+                        node = near;
+                        continue;
+                    }
+                }
+                // skip the nodes the ray enters beyond the best hit found since they were kept
+                do {
+                    if (top == base)
+                        return closest;
+                    node = nodes[--top];
+                } while (entries[top] >= maxDistance);
+            }
+        } finally {
+            stack.pop();
+        }
+    }
+
+    @Override
+    protected boolean hasIntersectionHelper(Ray ray, double maxDistance) {
+        Point p0 = ray.getP0();
+        Vector dir = ray.getDir();
+        double ox = p0.getX(), oy = p0.getY(), oz = p0.getZ();
+        double invX = 1 / dir.getX(), invY = 1 / dir.getY(), invZ = 1 / dir.getZ();
+
+        TraversalStack stack = TraversalStack.get();
+        int[] nodes = stack.push();
+        int base = stack.top - LinearBvh.MAX_DEPTH, top = base;
+        nodes[top++] = 0;
+        try {
+            while (top > base) {
+                int node = nodes[--top];
+                if (bvh.entryDistance(node, ox, oy, oz, invX, invY, invZ, maxDistance) == Double.POSITIVE_INFINITY)
+                    continue;
+                int first = bvh.nodes[node * 2], count = bvh.nodes[node * 2 + 1];
+                if (count == 0) {
+                    nodes[top++] = first;
+                    nodes[top++] = node + 1;
+                    continue;
+                }
+                for (int i = first; i < first + count; ++i)
+                    if (items[i].hasIntersectionHelper(ray, maxDistance))
+                        return true;
+            }
+            return false;
+        } finally {
+            stack.pop();
+        }
+    }
+}
@@ -4,6 +4,7 @@ import primitives.Ray;
 
 import java.util.LinkedList;
 import java.util.List;
+import java.util.concurrent.ForkJoinPool;
 
 /**
  * class Geometries is a class representing a set of geometric shapes
@@ -12,10 +13,55 @@ import java.util.List;
  * @author Avraham Hassson
  */
 public class Geometries extends Intersectable {
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * The ways Geometries can search its shapes for intersections
+     */
+    public enum Acceleration {
+        /**
+         * Test every ray against every shape
+         */
+        NONE,
+        /**
+         * Test every ray against the bounding box of every shape before the shape itself
+         */
+        CULLING,
+        /**
+         * Test the rays against a bounding volume hierarchy built over the shapes
+         */
+        BVH,
+        /**
+         * Test the rays against a bounding volume hierarchy stored in flat arrays, traversed without allocating
+         */
+        FLAT_BVH,
+        /**
+         * Test the rays against a uniform grid of cells over the shapes, walked front to back
+         * (suits many shapes of similar sizes)
+         */
+        GRID
+    }
+
     /**
      * set of geometric shapes
      */
     private final List<Intersectable> geometries = new LinkedList<>();
+    /**
+     * the way the shapes are searched for intersections
+     */
+    private Acceleration acceleration = Acceleration.NONE;
+    /**
+     * the acceleration structure over the shapes, built lazily on the first search
+     */
+    private transient volatile Intersectable accelerator;
+    /**
+     * the number of threads building the acceleration structure, 0 for building on the searching thread
+     */
+    private int buildThreads = Runtime.getRuntime().availableProcessors();
+    /**
+     * the statistics of the last build of the acceleration structure
+     */
+    private transient volatile BuildStats buildStats;
 
     /**
      * Constructor to initialize Geometries.
@@ -40,12 +86,94 @@ public class Geometries extends Intersectable {
     public void add(Intersectable... geometries) {
         if (geometries != null) {
             this.geometries.addAll(List.of(geometries));
+            this.accelerator = null;
         }
     }
 
+    @Override
+    Object content() {
+        return geometries;
+    }
+
+    /**
+     * Setter for the way the shapes are searched for intersections.
+     * The acceleration structure is built on the first search after the shapes were changed.
+     *
+     * @param acceleration The acceleration of the intersections search.
+     * @return The Geometries.
+     */
+    public Geometries setAcceleration(Acceleration acceleration) {
+        this.acceleration = acceleration;
+        this.accelerator = null;
+        return this;
+    }
+
+    /**
+     * Returns the way the shapes are searched for intersections.
+     *
+     * @return The acceleration of the intersections search.
+     */
+    public Acceleration getAcceleration() {
+        return acceleration;
+    }
+
+    /**
+     * Setter for the number of threads building the bounding volume hierarchy (the number of processors by default).
+     * Only large hierarchies are built in parallel, the result being the same hierarchy.
+     *
+     * @param threads The number of threads, 0 for building on the thread of the first search.
+     * @return The Geometries.
+     */
+    public Geometries setBuildThreads(int threads) {
+        if (threads < 0)
+            throw new IllegalArgumentException("The number of threads cannot be negative");
+        this.buildThreads = threads;
+        return this;
+    }
+
+    /**
+     * Returns the statistics of building the acceleration structure over the shapes (without the shapes of
+     * nested sets, which have structures of their own), building it if needed.
+     * The statistics of a bounding volume hierarchy cover the bounded shapes, the unbounded shapes being
+     * tested by every ray besides it.
+     *
+     * @return The statistics, or null if the shapes are searched without acceleration.
+     */
+    public BuildStats getBuildStats() {
+        if (acceleration == Acceleration.NONE)
+            return null;
+        accelerator();
+        return buildStats;
+    }
+
+    /**
+     * Builds the acceleration structures of the shapes and of the nested sets of shapes now,
+     * rather than on the first search, so renders sharing the shapes don't wait for them.
+     *
+     * @return The Geometries.
+     */
+    public Geometries prepare() {
+        for (Intersectable intersectable : geometries)
+            if (intersectable instanceof Geometries nested)
+                nested.prepare();
+        if (acceleration != Acceleration.NONE)
+            accelerator();
+        return this;
+    }
+
+    @Override
+    public BoundingBox getBoundingBox() {
+        BoundingBox box = BoundingBox.EMPTY;
+        for (Intersectable intersectable : geometries)
+            box = box.union(intersectable.getBoundingBox());
+        return box;
+    }
 
     @Override
     protected List<GeoPoint> findGeoIntersectionsHelper(Ray ray) {
+        if (acceleration != Acceleration.NONE)
+            return accelerator().findGeoIntersectionsHelper(ray);
+
         List<GeoPoint> lp = null;
         for (Intersectable intersectable : geometries) {
             var i = intersectable.findGeoIntersectionsHelper(ray);
@@ -56,4 +184,100 @@ public class Geometries extends Intersectable {
         }
         return lp;
     }
-}
\ No newline at end of file
+
+    @Override
+    protected GeoPoint findClosestGeoIntersectionHelper(Ray ray, double maxDistance) {
+        if (acceleration != Acceleration.NONE)
+            return accelerator().findClosestGeoIntersectionHelper(ray, maxDistance);
+
+        GeoPoint closest = null;
+        for (Intersectable intersectable : geometries) {
+            GeoPoint gp = intersectable.findClosestGeoIntersectionHelper(ray, maxDistance);
+            if (gp != null) {
+                closest = gp;
+                maxDistance = distanceAlong(ray, gp.point);
+            }
+        }
+        return closest;
+    }
+
+    @Override
+    protected boolean hasIntersectionHelper(Ray ray, double maxDistance) {
+        if (acceleration != Acceleration.NONE)
+            return accelerator().hasIntersectionHelper(ray, maxDistance);
+
+        for (Intersectable intersectable : geometries)
+            if (intersectable.hasIntersectionHelper(ray, maxDistance))
+                return true;
+        return false;
+    }
+
+    /**
+     * Returns the acceleration structure over the shapes, building it if needed.
+     * The structure is built once even when several render threads search concurrently.
+     *
+     * @return The acceleration structure.
+     */
+    private Intersectable accelerator() {
+        Intersectable result = accelerator;
+        if (result == null) {
+            synchronized (this) {
+                result = accelerator;
+                if (result == null)
+                    accelerator = result = buildAccelerator();
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Builds the acceleration structure over the shapes.
+     * A bounding volume hierarchy (of nodes or flat) or a grid is built over the bounded shapes only, while the
+     * unbounded shapes (e.g. planes) are kept beside it and tested by every ray.
+     *
+     * @return The acceleration structure.
+     */
+    private Intersectable buildAccelerator() {
+        long start = System.nanoTime();
+        if (acceleration == Acceleration.CULLING) {
+            CullingList list = new CullingList(geometries);
+            // a single leaf testing every shape
+            int n = geometries.size();
+            buildStats = new BuildStats(System.nanoTime() - start, 1, 1, 0,
+                    2 * BuildStats.arrayBytes(n, BuildStats.REFERENCE_BYTES), n);
+            return list;
+        }
+
+        List<Intersectable> bounded = new LinkedList<>();
+        List<Intersectable> unbounded = new LinkedList<>();
+        for (Intersectable intersectable : geometries) {
+            BoundingBox box = intersectable.getBoundingBox();
+            if (box.isInfinite()) unbounded.add(intersectable);
+            else if (!box.isEmpty()) bounded.add(intersectable);
+        }
+        if (bounded.isEmpty()) {
+            buildStats = new BuildStats(System.nanoTime() - start, 0, 0, 0, 0, 0);
+            return new Geometries(unbounded.toArray(new Intersectable[0]));
+        }
+        // a grid is built on the calling thread
+        ForkJoinPool pool = buildThreads == 0 || acceleration == Acceleration.GRID ? null : new ForkJoinPool(buildThreads);
+        Intersectable root;
+        try {
+            root = switch (acceleration) {
+                case FLAT_BVH -> new FlatBvh(bounded, pool);
+                case GRID -> new UniformGrid(bounded);
+                default -> BvhNode.build(bounded, pool);
+            };
+        } finally {
+            if (pool != null)
+                pool.shutdown();
+        }
+        long nanos = System.nanoTime() - start;
+        if (root instanceof FlatBvh flat) buildStats = flat.stats(nanos);
+        else if (root instanceof UniformGrid grid) buildStats = grid.stats(nanos);
+        else buildStats = ((BvhNode) root).stats(nanos);
+        if (unbounded.isEmpty()) return root;
+        unbounded.add(root);
+        return new Geometries(unbounded.toArray(new Intersectable[0]));
+    }
+}
@@ -12,6 +12,8 @@ import primitives.Vector;
  * @author Avraham Hassson
  */
 public  abstract class Geometry extends Intersectable {
+    private static final long serialVersionUID = 1L;
+
     /**
      * Represents the Geometry color.
      */
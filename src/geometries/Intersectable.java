@@ -2,7 +2,9 @@ package geometries;
 
 import primitives.Point;
 import primitives.Ray;
+import primitives.Vector;
 
+import java.io.Serializable;
 import java.util.List;
 
 /**
@@ -12,7 +14,20 @@ import java.util.List;
  * @author Avraham Hassson
  */
 
-public abstract class Intersectable {
+public abstract class Intersectable implements Serializable {
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * Returns the content the shape was created with, which is digested instead of the shape by
+     * {@link ContentDigest}. Shapes holding settings or structures built from their content return
+     * their content without them.
+     *
+     * @return the content of the shape, the shape itself by default
+     */
+    Object content() {
+        return this;
+    }
+
     /**
      * An inner class that represents a geometric body and a point that belongs to it.
      */
@@ -73,6 +88,90 @@ public abstract class Intersectable {
         return this.findGeoIntersectionsHelper(ray);
     }
 
+    /**
+     * Returns the intersection point between the ray and the geometry which is the closest to the
+     * ray's starting point, without collecting all the intersection points.
+     *
+     * @param ray The ray that creates the intersection points.
+     * @return The closest intersection point, or null if there is none.
+     */
+    public final GeoPoint findClosestGeoIntersection(Ray ray) {
+        return findClosestGeoIntersectionHelper(ray, Double.POSITIVE_INFINITY);
+    }
+
+    /**
+     * Helper function for the "findClosestGeoIntersection" function.
+     * Only intersection points closer than maxDistance to the ray's starting point are considered,
+     * so a search over several geometries can shrink it to the distance of the best hit found so far.
+     * The default implementation picks the closest of all the intersection points.
+     *
+     * @param ray         The ray that creates the intersection points.
+     * @param maxDistance The distance from the ray's starting point beyond which points are ignored.
+     * @return The closest intersection point within the distance, or null if there is none.
+     */
+    protected GeoPoint findClosestGeoIntersectionHelper(Ray ray, double maxDistance) {
+        List<GeoPoint> geoPoints = findGeoIntersectionsHelper(ray);
+        if (geoPoints == null)
+            return null;
+        GeoPoint closest = null;
+        for (GeoPoint geoPoint : geoPoints) {
+            double distance = distanceAlong(ray, geoPoint.point);
+            if (distance < maxDistance) {
+                closest = geoPoint;
+                maxDistance = distance;
+            }
+        }
+        return closest;
+    }
+
+    /**
+     * Checks whether the ray intersects the geometry closer than a given distance from its starting point.
+     * The search stops at the first intersection found, so it is much cheaper than collecting them all,
+     * e.g. for checking whether a shadow ray is blocked on its way to the light.
+     *
+     * @param ray         The ray.
+     * @param maxDistance The distance from the ray's starting point beyond which intersections are ignored.
+     * @return true if there is an intersection within the distance.
+     */
+    public final boolean hasIntersection(Ray ray, double maxDistance) {
+        return hasIntersectionHelper(ray, maxDistance);
+    }
+
+    /**
+     * Helper function for the "hasIntersection" function.
+     * The default implementation looks for the closest intersection within the distance.
+     *
+     * @param ray         The ray.
+     * @param maxDistance The distance from the ray's starting point beyond which intersections are ignored.
+     * @return true if there is an intersection within the distance.
+     */
+    protected boolean hasIntersectionHelper(Ray ray, double maxDistance) {
+        return findClosestGeoIntersectionHelper(ray, maxDistance) != null;
+    }
+
+    /**
+     * Calculates the distance of a point on a ray from the ray's starting point,
+     * by projecting it on the (unit) direction of the ray, so no square root is taken.
+     *
+     * @param ray   The ray.
+     * @param point A point on the ray.
+     * @return The distance of the point along the ray.
+     */
+    static double distanceAlong(Ray ray, Point point) {
+        Point p0 = ray.getP0();
+        Vector dir = ray.getDir();
+        return (point.getX() - p0.getX()) * dir.getX()
+                + (point.getY() - p0.getY()) * dir.getY()
+                + (point.getZ() - p0.getZ()) * dir.getZ();
+    }
+
+    /**
+     * Returns the axis-aligned box bounding the geometry, so rays missing the box can skip it.
+     *
+     * @return The bounding box, {@link BoundingBox#INFINITE} if the geometry is unbounded.
+     */
+    public abstract BoundingBox getBoundingBox();
+
     /**
      * Helper function for the " findGeoIntersections" function.
      *
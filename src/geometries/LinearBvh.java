@@ -0,0 +1,579 @@
+package geometries;
+
+import java.io.Serializable;
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * class LinearBvh is a bounding volume hierarchy stored in primitive arrays.
+ * The nodes are kept in depth-first order, so the first child of an inner node always
+ * follows it, and only the index of the second child is stored.
+ * The hierarchy is built over abstract primitives given by their bounding boxes; intersecting
+ * the primitives themselves is left to the owner of the hierarchy (e.g. a mesh).
+ * The tree is built top-down using a binned surface area heuristic (SAH), optionally in parallel.
+ *
+ * @author Avraham Hassson
+ */
+class LinearBvh implements Serializable {
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * The maximal number of primitives a leaf may hold
+     */
+    static final int MAX_LEAF_SIZE = 4;
+    /**
+     * The maximal depth of the tree, so a traversal stack of this size never overflows
+     */
+    static final int MAX_DEPTH = 64;
+    /**
+     * The depth from which the nodes are split at the median, so the tree never exceeds {@link #MAX_DEPTH}
+     */
+    private static final int MEDIAN_SPLIT_DEPTH = MAX_DEPTH / 2;
+    /**
+     * The number of bins the centroids are sorted into when evaluating the SAH
+     */
+    private static final int BINS = 16;
+    /**
+     * The cost of visiting a node relative to the cost of intersecting a primitive
+     */
+    private static final double TRAVERSAL_COST = 1;
+    /**
+     * The number of primitives below which a sub-tree is built by a single thread
+     */
+    static final int PARALLEL_THRESHOLD = 4096;
+
+    /**
+     * The bounds of the nodes, 6 per node: minX, minY, minZ, maxX, maxY, maxZ
+     */
+    final double[] bounds;
+    /**
+     * The layout of the nodes, 2 per node. A leaf holds the offset of its first primitive in
+     * {@link #order} and the number of its primitives. An inner node holds the index of its
+     * second child and 0.
+     */
+    final int[] nodes;
+    /**
+     * The indices of the primitives, ordered so every leaf refers to a contiguous range
+     */
+    final int[] order;
+
+    /**
+     * Constructor of the hierarchy based on its arrays
+     *
+     * @param bounds bounds of the nodes
+     * @param nodes  layout of the nodes
+     * @param order  indices of the primitives in leaf order
+     */
+    private LinearBvh(double[] bounds, int[] nodes, int[] order) {
+        this.bounds = bounds;
+        this.nodes = nodes;
+        this.order = order;
+    }
+
+    /**
+     * getter for the number of nodes
+     *
+     * @return the number of nodes
+     */
+    int size() {
+        return nodes.length / 2;
+    }
+
+    /**
+     * Builds the hierarchy over primitives on the calling thread
+     *
+     * @param boxes the bounding boxes of the primitives, 6 per primitive: minX, minY, minZ, maxX, maxY, maxZ
+     * @return the hierarchy
+     * @throws IllegalArgumentException if there are no primitives
+     */
+    static LinearBvh build(double[] boxes) {
+        return build(boxes, null);
+    }
+
+    /**
+     * Builds the hierarchy over primitives. With a pool, the sub-trees of more than {@link #PARALLEL_THRESHOLD}
+     * primitives are split by the calling thread, and their two halves are built in parallel by the threads of
+     * the pool (fork/join), each into arrays of its own; the arrays are then copied once into depth-first order.
+     * The hierarchy is the same as the one built on the calling thread.
+     *
+     * @param boxes the bounding boxes of the primitives, 6 per primitive: minX, minY, minZ, maxX, maxY, maxZ
+     * @param pool  the pool of the build threads, or null for building on the calling thread
+     * @return the hierarchy
+     * @throws IllegalArgumentException if there are no primitives
+     */
+    static LinearBvh build(double[] boxes, ForkJoinPool pool) {
+        int count = boxes.length / 6;
+        if (count == 0)
+            throw new IllegalArgumentException("Cannot build a hierarchy without primitives");
+        Builder builder = new Builder(boxes, count);
+        if (pool == null || count <= PARALLEL_THRESHOLD) {
+            Nodes nodes = new Nodes(count);
+            builder.build(nodes, 0, count, 0);
+            return new LinearBvh(Arrays.copyOf(nodes.bounds, nodes.size * 6), Arrays.copyOf(nodes.nodes, nodes.size * 2),
+                    builder.order);
+        }
+        Fragment root = pool.invoke(builder.new SubtreeTask(0, count, 0));
+        double[] bounds = new double[root.size * 6];
+        int[] nodes = new int[root.size * 2];
+        root.copyTo(bounds, nodes, 0);
+        return new LinearBvh(bounds, nodes, builder.order);
+    }
+
+    /**
+     * Computes the statistics of the hierarchy
+     *
+     * @param buildNanos the time of building it
+     * @return the statistics, whose memory includes the arrays of the hierarchy only
+     */
+    BuildStats stats(long buildNanos) {
+        int leaves = 0, depth = 0;
+        double cost = 0, rootArea = area(0);
+        int[] depths = new int[size()];
+        for (int node = 0; node < size(); ++node) {
+            int count = nodes[node * 2 + 1];
+            double relativeArea = rootArea == 0 ? 1 : area(node) / rootArea;
+            if (count > 0) {
+                ++leaves;
+                depth = Math.max(depth, depths[node]);
+                cost += relativeArea * count;
+            } else {
+                cost += relativeArea * TRAVERSAL_COST;
+                depths[node + 1] = depths[nodes[node * 2]] = depths[node] + 1;
+            }
+        }
+        long bytes = BuildStats.arrayBytes(bounds.length, Double.BYTES) + BuildStats.arrayBytes(nodes.length, Integer.BYTES)
+                + BuildStats.arrayBytes(order.length, Integer.BYTES);
+        return new BuildStats(buildNanos, size(), leaves, depth, bytes, cost);
+    }
+
+    /**
+     * calculates the surface area of the box of a node
+     *
+     * @param node the index of the node
+     * @return the surface area
+     */
+    private double area(int node) {
+        int b = node * 6;
+        double dx = bounds[b + 3] - bounds[b], dy = bounds[b + 4] - bounds[b + 1], dz = bounds[b + 5] - bounds[b + 2];
+        return 2 * (dx * dy + dy * dz + dz * dx);
+    }
+
+    /**
+     * Growing arrays of nodes in depth-first order, built by a single thread. In a part of a hierarchy built
+     * in parallel, the indices of the second children are relative to the first node of the part.
+     */
+    private static class Nodes {
+        double[] bounds;
+        int[] nodes;
+        int size = 0;
+
+        /**
+         * Constructs the arrays for about as many nodes as primitives
+         *
+         * @param count the number of primitives
+         */
+        Nodes(int count) {
+            bounds = new double[Math.max(6, count * 6)];
+            nodes = new int[Math.max(2, count * 2)];
+        }
+
+        /**
+         * Adds a node
+         *
+         * @param b the bounds of the node
+         * @return the index of the node
+         */
+        int add(double[] b) {
+            if (size * 6 + 6 > bounds.length) {
+                bounds = Arrays.copyOf(bounds, bounds.length * 2);
+                nodes = Arrays.copyOf(nodes, nodes.length * 2);
+            }
+            System.arraycopy(b, 0, bounds, size * 6, 6);
+            return size++;
+        }
+    }
+
+    /**
+     * A part of a hierarchy built in parallel: either nodes built by a single thread, or a node whose two
+     * sub-trees were built in parallel
+     */
+    private static class Fragment {
+        /**
+         * The nodes built by a single thread, null for a node with parts as children
+         */
+        final Nodes nodes;
+        /**
+         * The bounds of the node with parts as children
+         */
+        final double[] bounds;
+        /**
+         * The children of the node with parts as children
+         */
+        final Fragment left, right;
+        /**
+         * The number of nodes of the part
+         */
+        final int size;
+
+        /**
+         * Constructs a part built by a single thread
+         *
+         * @param nodes the nodes
+         */
+        Fragment(Nodes nodes) {
+            this.nodes = nodes;
+            this.bounds = null;
+            this.left = this.right = null;
+            this.size = nodes.size;
+        }
+
+        /**
+         * Constructs a node whose sub-trees were built in parallel
+         *
+         * @param bounds the bounds of the node
+         * @param left   the first sub-tree
+         * @param right  the second sub-tree
+         */
+        Fragment(double[] bounds, Fragment left, Fragment right) {
+            this.nodes = null;
+            this.bounds = bounds;
+            this.left = left;
+            this.right = right;
+            this.size = 1 + left.size + right.size;
+        }
+
+        /**
+         * Copies the part into the arrays of the hierarchy
+         *
+         * @param bounds the bounds of the nodes of the hierarchy
+         * @param layout the layout of the nodes of the hierarchy
+         * @param at     the index of the first node of the part
+         */
+        void copyTo(double[] bounds, int[] layout, int at) {
+            if (nodes == null) {
+                System.arraycopy(this.bounds, 0, bounds, at * 6, 6);
+                layout[at * 2] = at + 1 + left.size;
+                layout[at * 2 + 1] = 0;
+                left.copyTo(bounds, layout, at + 1);
+                right.copyTo(bounds, layout, at + 1 + left.size);
+                return;
+            }
+            System.arraycopy(nodes.bounds, 0, bounds, at * 6, size * 6);
+            for (int i = 0; i < size; ++i) {
+                int first = nodes.nodes[i * 2], count = nodes.nodes[i * 2 + 1];
+                // the offsets of the primitives of the leaves are shared by the whole hierarchy
+                layout[(at + i) * 2] = count == 0 ? first + at : first;
+                layout[(at + i) * 2 + 1] = count;
+            }
+        }
+    }
+
+    /**
+     * The state of building a hierarchy: the primitives' boxes and centroids, and their order, which
+     * the threads building sub-trees in parallel reorder in disjoint ranges
+     */
+    private static class Builder {
+        private final double[] boxes;
+        private final double[] centroids;
+        private final int[] order;
+
+        Builder(double[] boxes, int count) {
+            this.boxes = boxes;
+            this.centroids = new double[count * 3];
+            this.order = new int[count];
+            for (int i = 0; i < count; ++i) {
+                order[i] = i;
+                for (int axis = 0; axis < 3; ++axis)
+                    centroids[i * 3 + axis] = (boxes[i * 6 + axis] + boxes[i * 6 + axis + 3]) / 2;
+            }
+        }
+
+        /**
+         * Adds the nodes of a range of primitives: a node, and recursively its children
+         *
+         * @param out   the nodes
+         * @param from  start of the range (included)
+         * @param to    end of the range (excluded)
+         * @param depth depth of the node
+         */
+        void build(Nodes out, int from, int to, int depth) {
+            double[] b = new double[6];
+            int middle = split(from, to, depth, b);
+            int node = out.add(b);
+            if (middle < 0) {
+                out.nodes[node * 2] = from;
+                out.nodes[node * 2 + 1] = to - from;
+                return;
+            }
+            build(out, from, middle, depth + 1);
+            out.nodes[node * 2] = out.size;
+            out.nodes[node * 2 + 1] = 0;
+            build(out, middle, to, depth + 1);
+        }
+
+        /**
+         * Builds the sub-tree of a range of primitives, splitting it in parallel while it is large
+         */
+        private class SubtreeTask extends RecursiveTask<Fragment> {
+            private static final long serialVersionUID = 1L;
+
+            private final int from, to, depth;
+
+            /**
+             * Constructs the task of the sub-tree of the range [from, to)
+             *
+             * @param from  start of the range (included)
+             * @param to    end of the range (excluded)
+             * @param depth depth of the root of the sub-tree
+             */
+            SubtreeTask(int from, int to, int depth) {
+                this.from = from;
+                this.to = to;
+                this.depth = depth;
+            }
+
+            @Override
+            protected Fragment compute() {
+                if (to - from <= PARALLEL_THRESHOLD)
+                    return sequential(from, to, depth);
+                double[] b = new double[6];
+                int middle = split(from, to, depth, b);
+                if (middle < 0)
+                    return sequential(from, to, depth);
+                SubtreeTask left = new SubtreeTask(from, middle, depth + 1);
+                left.fork();
+                Fragment right = new SubtreeTask(middle, to, depth + 1).compute();
+                return new Fragment(b, left.join(), right);
+            }
+
+            /**
+             * Builds a sub-tree on the current thread
+             *
+             * @param from  start of the range (included)
+             * @param to    end of the range (excluded)
+             * @param depth depth of the root of the sub-tree
+             * @return the nodes of the sub-tree
+             */
+            private Fragment sequential(int from, int to, int depth) {
+                Nodes nodes = new Nodes(to - from);
+                build(nodes, from, to, depth);
+                return new Fragment(nodes);
+            }
+        }
+
+        /**
+         * Computes the bounds of a range of primitives and chooses how to split it
+         *
+         * @param from  start of the range (included)
+         * @param to    end of the range (excluded)
+         * @param depth depth of the node of the range
+         * @param b     receives the bounds of the range
+         * @return the index the range is split at (the primitives are partitioned around it), or -1 for a leaf
+         */
+        private int split(int from, int to, int depth, double[] b) {
+            // bounds of the node and of the centroids in it
+            double[] c = {Double.POSITIVE_INFINITY, Double.POSITIVE_INFINITY, Double.POSITIVE_INFINITY,
+                    Double.NEGATIVE_INFINITY, Double.NEGATIVE_INFINITY, Double.NEGATIVE_INFINITY};
+            System.arraycopy(c, 0, b, 0, 6);
+            for (int i = from; i < to; ++i) {
+                int p = order[i];
+                for (int axis = 0; axis < 3; ++axis) {
+                    b[axis] = Math.min(b[axis], boxes[p * 6 + axis]);
+                    b[axis + 3] = Math.max(b[axis + 3], boxes[p * 6 + axis + 3]);
+                    c[axis] = Math.min(c[axis], centroids[p * 3 + axis]);
+                    c[axis + 3] = Math.max(c[axis + 3], centroids[p * 3 + axis]);
+                }
+            }
+
+            int n = to - from;
+            int axis = 0;
+            for (int a = 1; a < 3; ++a)
+                if (c[a + 3] - c[a] > c[axis + 3] - c[axis]) axis = a;
+            double extent = c[axis + 3] - c[axis];
+            if (n <= 1 || (n <= MAX_LEAF_SIZE && extent == 0))
+                return -1;
+
+            int middle = extent == 0 || depth >= MEDIAN_SPLIT_DEPTH ? -1 : sahSplit(from, to, axis, c[axis], extent, area(b));
+            if (middle == from)
+                return -1;
+            if (middle < 0) {
+                middle = (from + to) >>> 1;
+                partitionMedian(from, to, middle, axis);
+            }
+            return middle;
+        }
+
+        /**
+         * Finds the best split of a range of primitives along an axis, by sorting their centroids
+         * into bins and evaluating the surface area heuristic between every two bins
+         *
+         * @param from   start of the range (included)
+         * @param to     end of the range (excluded)
+         * @param axis   the axis of the largest extent of the centroids
+         * @param min    the minimal centroid coordinate along the axis
+         * @param extent the extent of the centroids along the axis
+         * @param area   the surface area of the node
+         * @return the index the range is split at (the primitives are partitioned around it),
+         * from if a leaf is cheaper than any split, or -1 if no split separates the primitives
+         */
+        private int sahSplit(int from, int to, int axis, double min, double extent, double area) {
+            int[] counts = new int[BINS];
+            double[] binBounds = new double[BINS * 6];
+            for (int i = 0; i < BINS; ++i)
+                empty(binBounds, i);
+            for (int i = from; i < to; ++i) {
+                int p = order[i];
+                int bin = bin(centroids[p * 3 + axis], min, extent);
+                ++counts[bin];
+                grow(binBounds, bin, boxes, p);
+            }
+
+            // areas and counts of all the bins to the right of every split
+            double[] rightAreas = new double[BINS];
+            int[] rightCounts = new int[BINS];
+            double[] acc = new double[6];
+            empty(acc, 0);
+            int count = 0;
+            for (int i = BINS - 1; i > 0; --i) {
+                grow(acc, 0, binBounds, i);
+                count += counts[i];
+                rightAreas[i] = count == 0 ? 0 : area(acc);
+                rightCounts[i] = count;
+            }
+            empty(acc, 0);
+            count = 0;
+            double bestCost = Double.POSITIVE_INFINITY;
+            int bestBin = -1;
+            for (int i = 1; i < BINS; ++i) {
+                grow(acc, 0, binBounds, i - 1);
+                count += counts[i - 1];
+                if (count == 0 || rightCounts[i] == 0) continue;
+                double cost = TRAVERSAL_COST + (area(acc) * count + rightAreas[i] * rightCounts[i]) / area;
+                if (cost < bestCost) {
+                    bestCost = cost;
+                    bestBin = i;
+                }
+            }
+
+            int n = to - from;
+            if (bestBin < 0)
+                return -1;
+            if (n <= MAX_LEAF_SIZE && n <= bestCost)
+                return from;
+            // move the primitives of the bins left of the split to the start of the range
+            int middle = from;
+            for (int i = from; i < to; ++i) {
+                int p = order[i];
+                if (bin(centroids[p * 3 + axis], min, extent) < bestBin) {
+                    order[i] = order[middle];
+                    order[middle++] = p;
+                }
+            }
+            return middle;
+        }
+
+        /**
+         * Partitions a range of primitives around an index by their centroids along an axis
+         *
+         * @param from   start of the range (included)
+         * @param to     end of the range (excluded)
+         * @param middle the index of the split
+         * @param axis   the axis
+         */
+        private void partitionMedian(int from, int to, int middle, int axis) {
+            // quick-select the median, so the primitives left of it have smaller centroids
+            int lo = from, hi = to - 1;
+            while (lo < hi) {
+                double pivot = centroids[order[(lo + hi) >>> 1] * 3 + axis];
+                int i = lo, j = hi;
+                while (i <= j) {
+                    while (centroids[order[i] * 3 + axis] < pivot) ++i;
+                    while (centroids[order[j] * 3 + axis] > pivot) --j;
+                    if (i <= j) {
+                        int t = order[i];
+                        order[i++] = order[j];
+                        order[j--] = t;
+                    }
+                }
+                if (middle <= j) hi = j;
+                else if (middle >= i) lo = i;
+                else break;
+            }
+        }
+
+        private static int bin(double centroid, double min, double extent) {
+            int bin = (int) ((centroid - min) / extent * BINS);
+            return bin >= BINS ? BINS - 1 : bin;
+        }
+
+        private static void empty(double[] b, int i) {
+            b[i * 6] = b[i * 6 + 1] = b[i * 6 + 2] = Double.POSITIVE_INFINITY;
+            b[i * 6 + 3] = b[i * 6 + 4] = b[i * 6 + 5] = Double.NEGATIVE_INFINITY;
+        }
+
+        private static void grow(double[] b, int i, double[] other, int j) {
+            for (int k = 0; k < 3; ++k) {
+                b[i * 6 + k] = Math.min(b[i * 6 + k], other[j * 6 + k]);
+                b[i * 6 + k + 3] = Math.max(b[i * 6 + k + 3], other[j * 6 + k + 3]);
+            }
+        }
+
+        private static double area(double[] b) {
+            double dx = b[3] - b[0], dy = b[4] - b[1], dz = b[5] - b[2];
+            return 2 * (dx * dy + dy * dz + dz * dx);
+        }
+    }
+
+    /**
+     * calculates the distance along a ray at which it enters the box of a node (slab test).
+     * The ray is given by its starting point and the inverse of its direction,
+     * which the caller computes once per ray.
+     *
+     * @param node        the index of the node
+     * @param ox          x coordinate of the ray's starting point
+     * @param oy          y coordinate of the ray's starting point
+     * @param oz          z coordinate of the ray's starting point
+     * @param invX        inverse of the x coordinate of the ray's direction
+     * @param invY        inverse of the y coordinate of the ray's direction
+     * @param invZ        inverse of the z coordinate of the ray's direction
+     * @param maxDistance the distance along the ray beyond which the box is ignored
+     * @return the entry distance, or positive infinity if the ray misses the box within the distance
+     */
+    double entryDistance(int node, double ox, double oy, double oz,
+                         double invX, double invY, double invZ, double maxDistance) {
+        int b = node * 6;
+        double tNear = 0, tFar = maxDistance;
+        if (Double.isInfinite(invX)) {
+            if (ox < bounds[b] || ox > bounds[b + 3]) return Double.POSITIVE_INFINITY;
+        } else {
+            double t1 = (bounds[b] - ox) * invX, t2 = (bounds[b + 3] - ox) * invX;
+            tNear = Math.max(tNear, Math.min(t1, t2));
+            tFar = Math.min(tFar, Math.max(t1, t2) * BoundingBox.SLAB_TOLERANCE);
+        }
+        if (Double.isInfinite(invY)) {
+            if (oy < bounds[b + 1] || oy > bounds[b + 4]) return Double.POSITIVE_INFINITY;
+        } else {
+            double t1 = (bounds[b + 1] - oy) * invY, t2 = (bounds[b + 4] - oy) * invY;
+            tNear = Math.max(tNear, Math.min(t1, t2));
+            tFar = Math.min(tFar, Math.max(t1, t2) * BoundingBox.SLAB_TOLERANCE);
+        }
+        if (Double.isInfinite(invZ)) {
+            if (oz < bounds[b + 2] || oz > bounds[b + 5]) return Double.POSITIVE_INFINITY;
+        } else {
+            double t1 = (bounds[b + 2] - oz) * invZ, t2 = (bounds[b + 5] - oz) * invZ;
+            tNear = Math.max(tNear, Math.min(t1, t2));
+            tFar = Math.min(tFar, Math.max(t1, t2) * BoundingBox.SLAB_TOLERANCE);
+        }
+        return tNear > tFar ? Double.POSITIVE_INFINITY : tNear;
+    }
+
+    /**
+     * getter for the bounding box of the whole hierarchy
+     *
+     * @return the bounding box of the root
+     */
+    BoundingBox getBoundingBox() {
+        return new BoundingBox(bounds[0], bounds[1], bounds[2], bounds[3], bounds[4], bounds[5]);
+    }
+}
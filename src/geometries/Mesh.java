@@ -0,0 +1,469 @@
+package geometries;
+
+import primitives.Color;
+import primitives.Material;
+import primitives.Point;
+import primitives.Ray;
+import primitives.Vector;
+
+import java.util.LinkedList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+import static primitives.Util.alignZero;
+import static primitives.Util.isZero;
+
+/**
+ * class Mesh is a class representing a mesh of triangles
+ * in Cartesian 3-Dimensional coordinate system.
+ * The vertices are kept in a flat array of coordinates and the triangles in an array of
+ * vertex indices, so several meshes may share one vertex array, and a triangle costs
+ * three ints instead of a whole {@link Triangle} object.
+ * All the triangles share the emission and material of the mesh, and are searched
+ * for intersections through a bounding volume hierarchy built with the mesh (in parallel for large meshes
+ * given a pool of build threads),
+ * whose traversal takes its stack from the per-thread {@link TraversalStack}, so it allocates nothing.
+ *
+ * @author Avraham Hassson
+ */
+public class Mesh extends Geometry {
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * coordinates of the vertices, 3 per vertex: x, y, z
+     */
+    private final double[] vertices;
+    /**
+     * indices of the vertices of the triangles, 3 per triangle
+     */
+    private final int[] indices;
+    /**
+     * bounding volume hierarchy over the triangles
+     */
+    private final LinearBvh bvh;
+    /**
+     * bounding box of the mesh
+     */
+    private final BoundingBox box;
+
+    /**
+     * Constructor to initialize Mesh based on a vertex array and an index array,
+     * building the hierarchy of the triangles on the calling thread.
+     * The arrays are not copied, so they may be shared by several meshes but must not be changed.
+     *
+     * @param vertices coordinates of the vertices, 3 per vertex: x, y, z
+     * @param indices  indices of the vertices of the triangles, 3 per triangle
+     * @throws IllegalArgumentException if the arrays aren't made of whole vertices and triangles,
+     *                                  if there are no triangles, or if an index refers to no vertex
+     */
+    public Mesh(double[] vertices, int[] indices) {
+        this(vertices, indices, null);
+    }
+
+    /**
+     * Constructor to initialize Mesh based on a vertex array and an index array,
+     * building the hierarchy of the triangles by the threads of a pool (in parallel for large meshes).
+     * The arrays are not copied, so they may be shared by several meshes but must not be changed.
+     *
+     * @param vertices coordinates of the vertices, 3 per vertex: x, y, z
+     * @param indices  indices of the vertices of the triangles, 3 per triangle
+     * @param pool     the pool of the build threads, or null for building on the calling thread
+     * @throws IllegalArgumentException if the arrays aren't made of whole vertices and triangles,
+     *                                  if there are no triangles, or if an index refers to no vertex
+     */
+    public Mesh(double[] vertices, int[] indices, ForkJoinPool pool) {
+        if (vertices.length % 3 != 0)
+            throw new IllegalArgumentException("The vertex array must hold 3 coordinates per vertex");
+        if (indices.length == 0 || indices.length % 3 != 0)
+            throw new IllegalArgumentException("The index array must hold 3 indices per triangle");
+        int verticesCount = vertices.length / 3;
+        for (int index : indices)
+            if (index < 0 || index >= verticesCount)
+                throw new IllegalArgumentException("A triangle refers to a vertex that doesn't exist");
+        this.vertices = vertices;
+        this.indices = indices;
+
+        int count = indices.length / 3;
+        double[] boxes = new double[count * 6];
+        for (int t = 0; t < count; ++t)
+            for (int axis = 0; axis < 3; ++axis) {
+                double c0 = vertices[indices[t * 3] * 3 + axis];
+                double c1 = vertices[indices[t * 3 + 1] * 3 + axis];
+                double c2 = vertices[indices[t * 3 + 2] * 3 + axis];
+                boxes[t * 6 + axis] = Math.min(c0, Math.min(c1, c2));
+                boxes[t * 6 + axis + 3] = Math.max(c0, Math.max(c1, c2));
+            }
+        this.bvh = LinearBvh.build(boxes, pool);
+        this.box = bvh.getBoundingBox();
+    }
+
+    /**
+     * getter for the number of triangles
+     *
+     * @return the number of triangles
+     */
+    public int getTrianglesCount() {
+        return indices.length / 3;
+    }
+
+    /**
+     * getter for a vertex of a triangle
+     *
+     * @param triangle the index of the triangle
+     * @param corner   0, 1 or 2
+     * @return the vertex
+     */
+    public Point getVertex(int triangle, int corner) {
+        int v = indices[triangle * 3 + corner] * 3;
+        return new Point(vertices[v], vertices[v + 1], vertices[v + 2]);
+    }
+
+    /**
+     * getter for a triangle of the mesh, as a geometry of its own
+     *
+     * @param triangle the index of the triangle
+     * @return the face of the triangle
+     */
+    public Face getFace(int triangle) {
+        if (triangle < 0 || triangle >= getTrianglesCount())
+            throw new IllegalArgumentException("There is no such triangle in the mesh");
+        return new Face(this, triangle);
+    }
+
+    /**
+     * The content of the mesh is its vertices, triangles, emission and material, without the hierarchy
+     * built over them
+     */
+    @Override
+    Object content() {
+        return new Object[]{vertices, indices, getEmission(), getMaterial()};
+    }
+
+    @Override
+    public BoundingBox getBoundingBox() {
+        return box;
+    }
+
+    /**
+     * Returns the normal of the triangle the given point lies on.
+     * The intersection points of a mesh refer to the face they are on, whose normal
+     * is found directly, so prefer {@link Face#getNormal(Point)}.
+     *
+     * @param point the given point for which we return the normal vector
+     * @return the normal vector at the given point
+     * @throws IllegalArgumentException if the point is not on the mesh
+     */
+    @Override
+    public Vector getNormal(Point point) {
+        double px = point.getX(), py = point.getY(), pz = point.getZ();
+        for (int t = 0; t < getTrianglesCount(); ++t) {
+            Vector normal = faceNormal(t);
+            //degenerate triangle, no point is on it
+            if (normal == null)
+                continue;
+            int v0 = indices[t * 3] * 3;
+            // the point must be on the plane of the triangle and inside it
+            if (!isZero((px - vertices[v0]) * normal.getX() + (py - vertices[v0 + 1]) * normal.getY()
+                    + (pz - vertices[v0 + 2]) * normal.getZ()))
+                continue;
+            if (intersect(t, px + normal.getX(), py + normal.getY(), pz + normal.getZ(),
+                    -normal.getX(), -normal.getY(), -normal.getZ()) != 0)
+                return normal;
+        }
+        throw new IllegalArgumentException("The point is not on the mesh");
+    }
+
+    /**
+     * Calculates the unit normal of a triangle
+     *
+     * @param t the index of the triangle
+     * @return the normal, or null if the triangle is degenerate
+     */
+    private Vector faceNormal(int t) {
+        Point v0 = getVertex(t, 0);
+        Vector e1 = getVertex(t, 1).trySubtract(v0);
+        Vector e2 = getVertex(t, 2).trySubtract(v0);
+        Vector normal = e1 == null || e2 == null ? null : e1.tryCrossProduct(e2);
+        return normal == null ? null : normal.normalize();
+    }
+
+    /**
+     * Computes the distance along a ray from its starting point to a triangle (Moller-Trumbore),
+     * working on raw coordinates. Rays hitting the edges of the triangle miss it, as in {@link Triangle}.
+     *
+     * @param t  the index of the triangle
+     * @param ox x coordinate of the ray's starting point
+     * @param oy y coordinate of the ray's starting point
+     * @param oz z coordinate of the ray's starting point
+     * @param dx x coordinate of the ray's direction
+     * @param dy y coordinate of the ray's direction
+     * @param dz z coordinate of the ray's direction
+     * @return the distance of the intersection point, or 0 if the ray doesn't intersect the triangle
+     */
+    private double intersect(int t, double ox, double oy, double oz, double dx, double dy, double dz) {
+        int i0 = indices[t * 3] * 3, i1 = indices[t * 3 + 1] * 3, i2 = indices[t * 3 + 2] * 3;
+        double v0x = vertices[i0], v0y = vertices[i0 + 1], v0z = vertices[i0 + 2];
+        double e1x = vertices[i1] - v0x, e1y = vertices[i1 + 1] - v0y, e1z = vertices[i1 + 2] - v0z;
+        double e2x = vertices[i2] - v0x, e2y = vertices[i2 + 1] - v0y, e2z = vertices[i2 + 2] - v0z;
+        // p = dir x e2
+        double px = dy * e2z - dz * e2y, py = dz * e2x - dx * e2z, pz = dx * e2y - dy * e2x;
+        double det = e1x * px + e1y * py + e1z * pz;
+        //the ray is parallel to the triangle (or the triangle is degenerate)
+        if (isZero(det)) return 0;
+        double inv = 1 / det;
+        double sx = ox - v0x, sy = oy - v0y, sz = oz - v0z;
+        double u = alignZero((sx * px + sy * py + sz * pz) * inv);
+        if (u <= 0 || u >= 1) return 0;
+        // q = s x e1
+        double qx = sy * e1z - sz * e1y, qy = sz * e1x - sx * e1z, qz = sx * e1y - sy * e1x;
+        double v = alignZero((dx * qx + dy * qy + dz * qz) * inv);
+        if (v <= 0 || alignZero(u + v - 1) >= 0) return 0;
+        double distance = alignZero((e2x * qx + e2y * qy + e2z * qz) * inv);
+        return distance > 0 ? distance : 0;
+    }
+
+    @Override
+    protected List<GeoPoint> findGeoIntersectionsHelper(Ray ray) {
+        Point p0 = ray.getP0();
+        Vector dir = ray.getDir();
+        double ox = p0.getX(), oy = p0.getY(), oz = p0.getZ();
+        double dx = dir.getX(), dy = dir.getY(), dz = dir.getZ();
+        double invX = 1 / dx, invY = 1 / dy, invZ = 1 / dz;
+        if (bvh.entryDistance(0, ox, oy, oz, invX, invY, invZ, Double.POSITIVE_INFINITY) == Double.POSITIVE_INFINITY)
+            return null;
+
+        TraversalStack stack = TraversalStack.get();
+        int[] nodes = stack.push();
+        int base = stack.top - LinearBvh.MAX_DEPTH, top = base;
+        List<GeoPoint> lp = null;
+        int node = 0;
+        try {
+            while (true) {
+                int first = bvh.nodes[node * 2], count = bvh.nodes[node * 2 + 1];
+                if (count > 0) {
+                    for (int i = first; i < first + count; ++i) {
+                        int t = bvh.order[i];
+                        double distance = intersect(t, ox, oy, oz, dx, dy, dz);
+                        if (distance > 0) {
+                            if (lp == null) lp = new LinkedList<>();
+                            lp.add(new GeoPoint(new Face(this, t), ray.getPoint(distance)));
+                        }
+                    }
+                } else {
+                    if (bvh.entryDistance(first, ox, oy, oz, invX, invY, invZ, Double.POSITIVE_INFINITY) != Double.POSITIVE_INFINITY)
+                        nodes[top++] = first;
+                    if (bvh.entryDistance(node + 1, ox, oy, oz, invX, invY, invZ, Double.POSITIVE_INFINITY) != Double.POSITIVE_INFINITY) {
+                        node = node + 1;
+                        continue;
+                    }
+                }
+                if (top == base) return lp;
+                node = nodes[--top];
+            }
+        } finally {
+            stack.pop();
+        }
+    }
+
+    @Override
+    protected GeoPoint findClosestGeoIntersectionHelper(Ray ray, double maxDistance) {
+        Point p0 = ray.getP0();
+        Vector dir = ray.getDir();
+        double ox = p0.getX(), oy = p0.getY(), oz = p0.getZ();
+        double dx = dir.getX(), dy = dir.getY(), dz = dir.getZ();
+        double invX = 1 / dx, invY = 1 / dy, invZ = 1 / dz;
+        if (bvh.entryDistance(0, ox, oy, oz, invX, invY, invZ, maxDistance) == Double.POSITIVE_INFINITY)
+            return null;
+
+        // the nodes left to visit, and the distances at which the ray enters them
+        TraversalStack stack = TraversalStack.get();
+        int[] nodes = stack.push();
+        double[] entries = stack.entries;
+        int base = stack.top - LinearBvh.MAX_DEPTH, top = base;
+        int hit = -1;
+        int node = 0;
+        try {
+            while (true) {
+                int second = bvh.nodes[node * 2], count = bvh.nodes[node * 2 + 1];
+                if (count > 0) {
+                    for (int i = second; i < second + count; ++i) {
+                        int t = bvh.order[i];
+                        double distance = intersect(t, ox, oy, oz, dx, dy, dz);
+                        if (distance > 0 && distance < maxDistance) {
+                            maxDistance = distance;
+                            hit = t;
+                        }
+                    }
+                } else {
+                    // visit the child the ray enters first, and keep the other one for later
+                    int near = node + 1, far = second;
+                    double nearEntry = bvh.entryDistance(near, ox, oy, oz, invX, invY, invZ, maxDistance);
+                    double farEntry = bvh.entryDistance(far, ox, oy, oz, invX, invY, invZ, maxDistance);
+                    if (farEntry < nearEntry) {
+                        near = second;
+                        far = node + 1;
+                        double e = nearEntry;
+                        nearEntry = farEntry;
+                        farEntry = e;
+                    }
+                    if (nearEntry != Double.POSITIVE_INFINITY) {
+                        if (farEntry != Double.POSITIVE_INFINITY) {
+                            nodes[top] = far;
+                            entries[top++] = farEntry;
+                        }
+                        node = near;
+                        continue;
+                    }
+                }
+                // skip the nodes the ray enters beyond the best hit found since they were kept
+                do {
+                    if (top == base)
+                        return hit < 0 ? null : new GeoPoint(new Face(this, hit), ray.getPoint(maxDistance));
+                    node = nodes[--top];
+                } while (entries[top] >= maxDistance);
+            }
+        } finally {
+            stack.pop();
+        }
+    }
+
+    @Override
+    protected boolean hasIntersectionHelper(Ray ray, double maxDistance) {
+        Point p0 = ray.getP0();
+        Vector dir = ray.getDir();
+        double ox = p0.getX(), oy = p0.getY(), oz = p0.getZ();
+        double dx = dir.getX(), dy = dir.getY(), dz = dir.getZ();
+        double invX = 1 / dx, invY = 1 / dy, invZ = 1 / dz;
+
+        TraversalStack stack = TraversalStack.get();
+        int[] nodes = stack.push();
+        int base = stack.top - LinearBvh.MAX_DEPTH, top = base;
+        nodes[top++] = 0;
+        try {
+            while (top > base) {
+                int node = nodes[--top];
+                if (bvh.entryDistance(node, ox, oy, oz, invX, invY, invZ, maxDistance) == Double.POSITIVE_INFINITY)
+                    continue;
+                int first = bvh.nodes[node * 2], count = bvh.nodes[node * 2 + 1];
+                if (count == 0) {
+                    nodes[top++] = first;
+                    nodes[top++] = node + 1;
+                    continue;
+                }
+                for (int i = first; i < first + count; ++i) {
+                    double distance = intersect(bvh.order[i], ox, oy, oz, dx, dy, dz);
+                    if (distance > 0 && distance < maxDistance)
+                        return true;
+                }
+            }
+            return false;
+        } finally {
+            stack.pop();
+        }
+    }
+
+    /**
+     * class Face is a single triangle of a mesh, seen as a geometry of its own.
+     * Faces are light views created for the intersection points of the mesh, so the mesh
+     * doesn't have to hold an object per triangle. A face shares the emission and material
+     * of its mesh.
+     */
+    public static class Face extends Geometry {
+        private static final long serialVersionUID = 1L;
+
+        /**
+         * the mesh of the face
+         */
+        private final Mesh mesh;
+        /**
+         * the index of the triangle in the mesh
+         */
+        private final int index;
+
+        /**
+         * Constructor to initialize Face based on its mesh and the index of its triangle
+         *
+         * @param mesh  the mesh
+         * @param index the index of the triangle
+         */
+        private Face(Mesh mesh, int index) {
+            this.mesh = mesh;
+            this.index = index;
+        }
+
+        /**
+         * getter for the mesh of the face
+         *
+         * @return the mesh
+         */
+        public Mesh getMesh() {
+            return mesh;
+        }
+
+        /**
+         * getter for the index of the triangle in the mesh
+         *
+         * @return the index of the triangle
+         */
+        public int getIndex() {
+            return index;
+        }
+
+        @Override
+        public Color getEmission() {
+            return mesh.getEmission();
+        }
+
+        @Override
+        public Geometry setEmission(Color emission) {
+            throw new UnsupportedOperationException("A face shares the emission of its mesh");
+        }
+
+        @Override
+        public Material getMaterial() {
+            return mesh.getMaterial();
+        }
+
+        @Override
+        public Geometry setMaterial(Material material) {
+            throw new UnsupportedOperationException("A face shares the material of its mesh");
+        }
+
+        @Override
+        public Vector getNormal(Point point) {
+            return mesh.faceNormal(index);
+        }
+
+        @Override
+        public BoundingBox getBoundingBox() {
+            return BoundingBox.of(mesh.getVertex(index, 0), mesh.getVertex(index, 1), mesh.getVertex(index, 2));
+        }
+
+        @Override
+        protected List<GeoPoint> findGeoIntersectionsHelper(Ray ray) {
+            Point p0 = ray.getP0();
+            Vector dir = ray.getDir();
+            double distance = mesh.intersect(index, p0.getX(), p0.getY(), p0.getZ(), dir.getX(), dir.getY(), dir.getZ());
+            return distance == 0 ? null : List.of(new GeoPoint(this, ray.getPoint(distance)));
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (this == obj)
+                return true;
+            if (obj instanceof Face other)
+                return mesh == other.mesh && index == other.index;
+            return false;
+        }
+
+        @Override
+        public int hashCode() {
+            return System.identityHashCode(mesh) * 31 + index;
+        }
+
+        @Override
+        public String toString() {
+            return "Face " + index + " of " + mesh;
+        }
+    }
+}
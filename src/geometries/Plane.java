@@ -13,6 +13,8 @@ import java.util.List;
  * @author Avraham Hassson
  */
 public class Plane extends Geometry {
+    private static final long serialVersionUID = 1L;
+
     /**
      * point in plane
      */
@@ -71,23 +73,43 @@ public class Plane extends Geometry {
         return normal;
     }
 
+    @Override
+    public BoundingBox getBoundingBox() {
+        return BoundingBox.INFINITE;
+    }
+
     /**
      * Computes the intersection point(s) between the current plane and a given ray.
      */
     @Override
     protected List<GeoPoint> findGeoIntersectionsHelper(Ray ray){
+        double t = intersectionDistance(ray);
+        return t == 0 ? null : List.of(new GeoPoint(this,ray.getPoint(t)));
+    }
+
+    @Override
+    protected GeoPoint findClosestGeoIntersectionHelper(Ray ray, double maxDistance) {
+        double t = intersectionDistance(ray);
+        return t == 0 || t >= maxDistance ? null : new GeoPoint(this, ray.getPoint(t));
+    }
+
+    /**
+     * Computes the distance along a given ray from its starting point to the plane.
+     *
+     * @param ray the ray
+     * @return the distance t of the intersection point, or 0 if the ray doesn't intersect the plane
+     */
+    double intersectionDistance(Ray ray) {
         //if the direction is orthogonal to the normal so the ray is parallel to the plane or included
-        if(normal.dotProduct(ray.getDir()) == 0)
-            return null;
-        //if the ray begins at the reference point of the plane it will create a vector zero
-        try {
-            double t = normal.dotProduct(q0.subtract(ray.getP0())) / normal.dotProduct(ray.getDir());
-            //if the ray begins at the plane or after the distance t<=0
-            if (t <= 0)
-                return null;
-            return List.of(new GeoPoint(this,ray.getPoint(t)));
-        }catch (IllegalArgumentException e){
-            return null;
-        }
+        double nv = normal.dotProduct(ray.getDir());
+        if(nv == 0)
+            return 0;
+        //if the ray begins at the reference point of the plane there is no vector between them
+        Vector u = q0.trySubtract(ray.getP0());
+        if (u == null)
+            return 0;
+        double t = normal.dotProduct(u) / nv;
+        //if the ray begins at the plane or after the distance t<=0
+        return t <= 0 ? 0 : t;
     }
 }
@@ -16,6 +16,8 @@ import static primitives.Util.isZero;
  * @author Dan
  */
 public class Polygon extends Geometry {
+    private static final long serialVersionUID = 1L;
+
     /**
      * List of polygon's vertices
      */
@@ -24,6 +26,10 @@ public class Polygon extends Geometry {
      * Associated plane in which the polygon lays
      */
     protected final Plane plane;
+    /**
+     * Bounding box of the polygon's vertices
+     */
+    private final BoundingBox box;
     private final int size;
 
     /**
@@ -62,6 +68,7 @@ public class Polygon extends Geometry {
             throw new IllegalArgumentException("A polygon can't have less than 3 vertices");
         this.vertices = List.of(vertices);
         size = vertices.length;
+        box = BoundingBox.of(vertices);
 
         // Generate the plane according to the first three vertices and associate the
         // polygon with this plane.
@@ -102,23 +109,34 @@ public class Polygon extends Geometry {
         return plane.getNormal();
     }
 
+    @Override
+    public BoundingBox getBoundingBox() {
+        return box;
+    }
+
     @Override
     protected List<GeoPoint> findGeoIntersectionsHelper(Ray ray) {
+        GeoPoint gp = findClosestGeoIntersectionHelper(ray, Double.POSITIVE_INFINITY);
+        return gp == null ? null : List.of(gp);
+    }
+
+    @Override
+    protected GeoPoint findClosestGeoIntersectionHelper(Ray ray, double maxDistance) {
         //checks if the ray intersects the plane and if it doesn't, it doesn't intersect the polygon
-        List<GeoPoint> lp = plane.findGeoIntersectionsHelper(ray);
-        if(lp == null)
+        double t = plane.intersectionDistance(ray);
+        if(t == 0 || t >= maxDistance)
             return null;
+        Point p = ray.getPoint(t);
         List<Vector> lv = new LinkedList<>();
         //now that we know that the point is in the plane we check if it's in the polygon according the formula in the moodle
-        try {
-            for(int i =0;i<vertices.size();++i) {
-                if (i == vertices.size() - 1)
-                    lv.add((vertices.get(0).subtract(vertices.get(i))).crossProduct(vertices.get(i).subtract(lp.get(0).point)));
-                else
-                    lv.add(vertices.get(i+1).subtract(vertices.get(i)).crossProduct(vertices.get(i).subtract(lp.get(0).point)));
-            }
-        }catch (IllegalArgumentException e) {//if one of the vectors is vector 0 => there's no intersections and return null.
-            return null;
+        for(int i =0;i<vertices.size();++i) {
+            Vector edge = vertices.get(i == vertices.size() - 1 ? 0 : i + 1).subtract(vertices.get(i));
+            Vector toPoint = vertices.get(i).trySubtract(p);
+            Vector v = toPoint == null ? null : edge.tryCrossProduct(toPoint);
+            //if one of the vectors is vector 0 => the point is on an edge, there's no intersections and return null.
+            if (v == null)
+                return null;
+            lv.add(v);
         }
         //if all the vectors are in the same direction it means that the point is inside the polygon
         //so, we check it with dot product.
@@ -128,7 +146,6 @@ public class Polygon extends Geometry {
                     return null;
             }
         }
-        lp = List.of(new GeoPoint(this,lp.get(0).point));
-        return lp;
+        return new GeoPoint(this,p);
     }
 }
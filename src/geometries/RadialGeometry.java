@@ -9,6 +9,8 @@ import static primitives.Util.alignZero;
  * @author Avraham Hassson
  */
 public abstract class RadialGeometry extends Geometry {
+    private static final long serialVersionUID = 1L;
+
     /**
      * radius of the geometry
      */
@@ -12,10 +12,20 @@ import java.util.List;
  * @author Avraham Hassson
  */
 public class Sphere extends RadialGeometry {
+    private static final long serialVersionUID = 1L;
+
     /**
      * center point of the sphere
      */
     final private Point center;
+    /**
+     * coordinates of the center point, for the intersection calculations
+     */
+    final private double cx, cy, cz;
+    /**
+     * bounding box of the sphere
+     */
+    final private BoundingBox box;
 
     /**
      * Constructor to initialize Sphere based on a center point and a radius of the sphere
@@ -26,6 +36,10 @@ public class Sphere extends RadialGeometry {
     public Sphere(Point center, double radius) {
         super(radius);
         this.center = center;
+        this.cx = center.getX();
+        this.cy = center.getY();
+        this.cz = center.getZ();
+        this.box = new BoundingBox(cx - radius, cy - radius, cz - radius, cx + radius, cy + radius, cz + radius);
     }
 
     /**
@@ -43,40 +57,71 @@ public class Sphere extends RadialGeometry {
         return point.subtract(this.center).normalize();
     }
 
+    @Override
+    public BoundingBox getBoundingBox() {
+        return box;
+    }
+
     /**
      * Computes the intersection point(s) between the current sphere and a given ray.
+     * The distances are computed on raw coordinates, and objects are created only for the points found.
      */
     @Override
     protected List<GeoPoint> findGeoIntersectionsHelper(Ray ray) {
         Point p0 = ray.getP0();
         Vector v = ray.getDir();
-        Vector u;
-        //if the vector from P0 to the center is the zero vector, return one intersection.
-        try {
-            u = center.subtract(p0);
-        } catch (IllegalArgumentException e) {
-            //Move radius units in the ray direction:
-            return List.of(new GeoPoint(this,ray.getPoint(radius)));
-        }
+        //u=the vector from P0 to the center, it is the zero vector when the ray starts at the center
+        double ux = cx - p0.getX(), uy = cy - p0.getY(), uz = cz - p0.getZ();
         //tm=the projection of u in the direction of v
-        double tm = v.dotProduct(u);
-        double dSquared = isZero(tm) ? u.lengthSquared() : u.lengthSquared() - tm * tm;
-        double thSquared = alignZero(radius * radius - dSquared);
+        double tm = v.getX() * ux + v.getY() * uy + v.getZ() * uz;
+        double thSquared = alignZero(radiusSquared - (ux * ux + uy * uy + uz * uz - tm * tm));
         //if r<d <=> thSquared<=0, this means that the ray is outside the sphere.
-        if (thSquared <= 0) {
+        if (thSquared <= 0)
             return null;
-        }
         double th = Math.sqrt(thSquared);
         double t1 = alignZero(tm - th);
         double t2 = alignZero(tm + th);
         //if: t1>=0 && t2>=0   <=>   the case when the ray starts before the sphere and intersects it twice.
-        if (t1 > 0 && t2 > 0)
-            return List.of(new GeoPoint(this,ray.getPoint(t1)), new GeoPoint(this,ray.getPoint(t2)));
+        if (t1 > 0)
+            return List.of(new GeoPoint(this, ray.getPoint(t1)), new GeoPoint(this, ray.getPoint(t2)));
         //if t2>0 and t1<=0 then return only the point that obtained from t2.
-        if (t2 > 0) {
-            return List.of(new GeoPoint(this,ray.getPoint(t2)));
-        }
+        if (t2 > 0)
+            return List.of(new GeoPoint(this, ray.getPoint(t2)));
         return null;
         //the case when t2<=0 and t1>0 cannot happen.
     }
+
+    @Override
+    protected GeoPoint findClosestGeoIntersectionHelper(Ray ray, double maxDistance) {
+        double t = nearestDistance(ray, maxDistance);
+        return t == 0 ? null : new GeoPoint(this, ray.getPoint(t));
+    }
+
+    @Override
+    protected boolean hasIntersectionHelper(Ray ray, double maxDistance) {
+        return nearestDistance(ray, maxDistance) != 0;
+    }
+
+    /**
+     * Computes the distance from the ray's starting point to the nearest intersection point, on raw coordinates
+     *
+     * @param ray         The ray that creates the intersection points.
+     * @param maxDistance The distance from the ray's starting point beyond which points are ignored.
+     * @return the distance, or 0 if there is no intersection point within the distance
+     */
+    private double nearestDistance(Ray ray, double maxDistance) {
+        Point p0 = ray.getP0();
+        Vector v = ray.getDir();
+        double ux = cx - p0.getX(), uy = cy - p0.getY(), uz = cz - p0.getZ();
+        double tm = v.getX() * ux + v.getY() * uy + v.getZ() * uz;
+        double thSquared = alignZero(radiusSquared - (ux * ux + uy * uy + uz * uz - tm * tm));
+        if (thSquared <= 0)
+            return 0;
+        double th = Math.sqrt(thSquared);
+        //the nearer intersection is t1 when the ray starts before the sphere, otherwise it is t2
+        double t = alignZero(tm - th);
+        if (t <= 0)
+            t = alignZero(tm + th);
+        return t <= 0 || t >= maxDistance ? 0 : t;
+    }
 }
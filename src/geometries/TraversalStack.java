@@ -0,0 +1,69 @@
+package geometries;
+
+import java.util.Arrays;
+
+/**
+ * class TraversalStack holds the stacks of the traversals of the {@link LinearBvh} hierarchies of a thread:
+ * a frame of {@link LinearBvh#MAX_DEPTH} nodes (and the distances at which the ray enters them) per traversal
+ * in progress. The stacks are taken from a per-thread pool, so a traversal allocates nothing, and a geometry
+ * which is itself searched through a hierarchy (e.g. a {@link Mesh} in a {@link FlatBvh}) takes the next frame
+ * of the same stacks.
+ * <p>
+ * The arrays grow when traversals are nested deeper than ever before; a traversal keeps the arrays it
+ * started with, which still hold its frame.
+ *
+ * @author Avraham Hassson
+ */
+final class TraversalStack {
+    /**
+     * The stacks of the traversals of each thread
+     */
+    private static final ThreadLocal<TraversalStack> STACKS = ThreadLocal.withInitial(TraversalStack::new);
+
+    /**
+     * The nodes left to visit
+     */
+    int[] nodes = new int[LinearBvh.MAX_DEPTH * 4];
+    /**
+     * The distances at which the ray enters the nodes left to visit
+     */
+    double[] entries = new double[LinearBvh.MAX_DEPTH * 4];
+    /**
+     * The end of the frame of the innermost traversal
+     */
+    int top = 0;
+
+    /**
+     * Constructor of the stacks of a thread, see {@link #get()}
+     */
+    private TraversalStack() {
+    }
+
+    /**
+     * @return the stacks of the current thread
+     */
+    static TraversalStack get() {
+        return STACKS.get();
+    }
+
+    /**
+     * Takes a frame for a traversal, which is the top {@link LinearBvh#MAX_DEPTH} entries after the call
+     *
+     * @return the nodes array holding the frame
+     */
+    int[] push() {
+        top += LinearBvh.MAX_DEPTH;
+        if (top > nodes.length) {
+            nodes = Arrays.copyOf(nodes, nodes.length * 2);
+            entries = Arrays.copyOf(entries, entries.length * 2);
+        }
+        return nodes;
+    }
+
+    /**
+     * Releases the frame of the innermost traversal
+     */
+    void pop() {
+        top -= LinearBvh.MAX_DEPTH;
+    }
+}
@@ -3,7 +3,6 @@ package geometries;
 import primitives.Point;
 import primitives.Ray;
 import primitives.Vector;
-import java.util.List;
 
 import static primitives.Util.alignZero;
 
@@ -14,6 +13,8 @@ import static primitives.Util.alignZero;
  * @author Avraham Hassson
  */
 public class Triangle extends Polygon {
+    private static final long serialVersionUID = 1L;
+
     /**
      * Constructor to initialize Triangle based on a normal vector and 3 points of the plane
      *
@@ -26,12 +27,12 @@ public class Triangle extends Polygon {
     }
 
     /**
-     * Computes the intersection point(s) between the current triangle and a given ray.
+     * Computes the closest intersection point between the current triangle and a given ray.
      */
     @Override
-    protected List<GeoPoint> findGeoIntersectionsHelper(Ray ray) {
-        var intersection = plane.findGeoIntersectionsHelper(ray);
-        if (intersection == null) //at first find if thar is intersection with the plane of the triangle
+    protected GeoPoint findClosestGeoIntersectionHelper(Ray ray, double maxDistance) {
+        double t = plane.intersectionDistance(ray);
+        if (t == 0 || t >= maxDistance) //at first find if thar is intersection with the plane of the triangle
             return null;
 
         //calculate according to the calculation in the course's book
@@ -51,7 +52,6 @@ public class Triangle extends Polygon {
         Vector n3 = v3.crossProduct(v1).normalize();
         double s3 = alignZero(dir.dotProduct(n3));
         if (s1 * s3 <= 0) return null;
-        intersection = List.of(new GeoPoint(this,intersection.get(0).point));
-        return intersection;
+        return new GeoPoint(this, ray.getPoint(t));
     }
 }
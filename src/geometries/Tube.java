@@ -13,6 +13,8 @@ import java.util.List;
  * @author Avraham Hassson
  */
 public class Tube extends RadialGeometry {
+    private static final long serialVersionUID = 1L;
+
     /**
      * axis ray of the tube
      */
@@ -45,6 +47,11 @@ public class Tube extends RadialGeometry {
         return point.subtract(this.axisRay.getPoint(t)).normalize();
     }
 
+    @Override
+    public BoundingBox getBoundingBox() {
+        return BoundingBox.INFINITE;
+    }
+
     @Override
     protected List<GeoPoint> findGeoIntersectionsHelper(Ray ray) {
         return null;
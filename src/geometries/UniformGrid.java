@@ -0,0 +1,451 @@
+package geometries;
+
+import primitives.Point;
+import primitives.Ray;
+import primitives.Vector;
+
+import java.util.Arrays;
+import java.util.LinkedList;
+import java.util.List;
+
+/**
+ * class UniformGrid is a uniform grid of cells over bounded geometries, each cell listing the geometries whose
+ * bounding boxes overlap it. It suits many geometries of similar sizes (e.g. particles), which a grid sorts
+ * into cells without the depth of a hierarchy.
+ * <p>
+ * The resolution is chosen from the number of geometries and the shape of their bounding box, so a cell holds
+ * about {@link #CELLS_PER_GEOMETRY} cells per geometry and is about cubic. The cells are kept in compressed
+ * arrays: the geometries of cell c are {@code items[cellItems[cellStart[c]]]} to
+ * {@code items[cellItems[cellStart[c + 1] - 1]]}.
+ * <p>
+ * A ray walks the cells it passes through front to back (3D-DDA, Amanatides and Woo), and a search for the
+ * closest point stops at the first cell the best point found is not beyond the exit of. A search for all the
+ * points tests a geometry overlapping several cells once, marking the geometries it tested in a per-thread
+ * {@link Mailbox}.
+ *
+ * @author Avraham Hassson
+ */
+class UniformGrid extends Intersectable {
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * The number of cells per geometry the resolution aims at
+     */
+    static final double CELLS_PER_GEOMETRY = 2;
+    /**
+     * The maximal number of cells
+     */
+    static final int MAX_CELLS = 1 << 24;
+
+    /**
+     * the geometries
+     */
+    private final Intersectable[] items;
+    /**
+     * bounding box of all the geometries, which is the box of the grid
+     */
+    private final BoundingBox box;
+    /**
+     * the number of cells along each axis
+     */
+    private final int nx, ny, nz;
+    /**
+     * the size of a cell along each axis
+     */
+    private final double cellX, cellY, cellZ;
+    /**
+     * the start of the geometries of each cell in {@link #cellItems}, and the end of the last one
+     */
+    private final int[] cellStart;
+    /**
+     * the indices of the geometries of the cells, cell after cell
+     */
+    private final int[] cellItems;
+
+    /**
+     * Constructor to initialize UniformGrid based on geometries
+     *
+     * @param geometries the geometries, all of them must have a bounding box
+     * @throws IllegalArgumentException if there are no geometries or one of them is unbounded or empty
+     */
+    UniformGrid(List<Intersectable> geometries) {
+        if (geometries.isEmpty())
+            throw new IllegalArgumentException("Cannot build a grid without geometries");
+        items = geometries.toArray(new Intersectable[0]);
+        BoundingBox[] boxes = new BoundingBox[items.length];
+        BoundingBox union = BoundingBox.EMPTY;
+        for (int i = 0; i < items.length; ++i) {
+            boxes[i] = items[i].getBoundingBox();
+            if (boxes[i].isInfinite() || boxes[i].isEmpty())
+                throw new IllegalArgumentException("Cannot build a grid over an unbounded or empty geometry");
+            union = union.union(boxes[i]);
+        }
+        box = union;
+
+        // cubic cells of the volume (or area, or length, for a flat box) per geometry the resolution aims at
+        double ex = box.maxX - box.minX, ey = box.maxY - box.minY, ez = box.maxZ - box.minZ;
+        double measure = 1;
+        int dimensions = 0;
+        for (double e : new double[]{ex, ey, ez})
+            if (e > 0) {
+                measure *= e;
+                ++dimensions;
+            }
+        double perLength = dimensions == 0 ? 0 : Math.pow(CELLS_PER_GEOMETRY * items.length / measure, 1.0 / dimensions);
+        int[] n = {resolution(ex, perLength), resolution(ey, perLength), resolution(ez, perLength)};
+        while ((long) n[0] * n[1] * n[2] > MAX_CELLS)
+            for (int axis = 0; axis < 3; ++axis)
+                n[axis] = Math.max(1, n[axis] * 3 / 4);
+        nx = n[0];
+        ny = n[1];
+        nz = n[2];
+        cellX = ex > 0 ? ex / nx : 1;
+        cellY = ey > 0 ? ey / ny : 1;
+        cellZ = ez > 0 ? ez / nz : 1;
+
+        // count the geometries of each cell, and then list them
+        cellStart = new int[nx * ny * nz + 1];
+        int[][] ranges = new int[items.length][];
+        for (int i = 0; i < items.length; ++i) {
+            int[] r = ranges[i] = cellRange(boxes[i]);
+            for (int z = r[2]; z <= r[5]; ++z)
+                for (int y = r[1]; y <= r[4]; ++y)
+                    for (int x = r[0]; x <= r[3]; ++x)
+                        ++cellStart[cell(x, y, z) + 1];
+        }
+        for (int c = 0; c < nx * ny * nz; ++c)
+            cellStart[c + 1] += cellStart[c];
+        cellItems = new int[cellStart[nx * ny * nz]];
+        int[] next = new int[nx * ny * nz];
+        for (int i = 0; i < items.length; ++i) {
+            int[] r = ranges[i];
+            for (int z = r[2]; z <= r[5]; ++z)
+                for (int y = r[1]; y <= r[4]; ++y)
+                    for (int x = r[0]; x <= r[3]; ++x) {
+                        int c = cell(x, y, z);
+                        cellItems[cellStart[c] + next[c]++] = i;
+                    }
+        }
+    }
+
+    /**
+     * Chooses the number of cells along an axis
+     *
+     * @param extent    the extent of the grid along the axis
+     * @param perLength the number of cells per unit of length
+     * @return the number of cells
+     */
+    private static int resolution(double extent, double perLength) {
+        return (int) Math.max(1, Math.min(MAX_CELLS, Math.round(extent * perLength)));
+    }
+
+    /**
+     * Finds the cells a bounding box overlaps
+     *
+     * @param b the bounding box
+     * @return the first and the last cell along each axis: x0, y0, z0, x1, y1, z1
+     */
+    private int[] cellRange(BoundingBox b) {
+        return new int[]{
+                clamp((b.minX - box.minX) / cellX, nx), clamp((b.minY - box.minY) / cellY, ny),
+                clamp((b.minZ - box.minZ) / cellZ, nz), clamp((b.maxX - box.minX) / cellX, nx),
+                clamp((b.maxY - box.minY) / cellY, ny), clamp((b.maxZ - box.minZ) / cellZ, nz)};
+    }
+
+    /**
+     * @param position a position in cells along an axis
+     * @param n        the number of cells along the axis
+     * @return the index of the cell of the position, inside the grid
+     */
+    private static int clamp(double position, int n) {
+        int index = (int) Math.floor(position);
+        return index < 0 ? 0 : Math.min(index, n - 1);
+    }
+
+    /**
+     * @param x the index of the cell along the x axis
+     * @param y the index of the cell along the y axis
+     * @param z the index of the cell along the z axis
+     * @return the index of the cell in the arrays of the cells
+     */
+    private int cell(int x, int y, int z) {
+        return (z * ny + y) * nx + x;
+    }
+
+    /**
+     * Computes the statistics of the grid
+     *
+     * @param buildNanos the time of building it
+     * @return the statistics: a cell counts as a node, and a cell of geometries as a leaf
+     */
+    BuildStats stats(long buildNanos) {
+        int cells = nx * ny * nz, leaves = 0;
+        for (int c = 0; c < cells; ++c)
+            if (cellStart[c + 1] > cellStart[c])
+                ++leaves;
+        // the expected cells walked and geometries tested by a ray through the grid: each cell is walked by the
+        // part of the rays through its surface, as are the nodes of a hierarchy
+        double rootArea = box.surfaceArea();
+        double cellArea = 2 * (cellX * cellY + cellY * cellZ + cellZ * cellX);
+        double relativeArea = rootArea == 0 ? 1 : cellArea / rootArea;
+        double cost = relativeArea * (cells + cellItems.length);
+        long bytes = BuildStats.arrayBytes(cellStart.length, Integer.BYTES)
+                + BuildStats.arrayBytes(cellItems.length, Integer.BYTES)
+                + BuildStats.arrayBytes(items.length, BuildStats.REFERENCE_BYTES);
+        return new BuildStats(buildNanos, cells, leaves, 0, bytes, cost);
+    }
+
+    @Override
+    public BoundingBox getBoundingBox() {
+        return box;
+    }
+
+    /**
+     * The walk of a ray through the cells of the grid (3D-DDA): the current cell, and the distances along the ray
+     * at which it enters the current cell and leaves it
+     */
+    private class Walk {
+        /**
+         * the index of the current cell along each axis
+         */
+        int x, y, z;
+        /**
+         * the direction of the steps along each axis
+         */
+        final int stepX, stepY, stepZ;
+        /**
+         * the distance along the ray of the next boundary of the cells along each axis
+         */
+        double nextX, nextY, nextZ;
+        /**
+         * the distance along the ray between two boundaries along each axis
+         */
+        final double deltaX, deltaY, deltaZ;
+        /**
+         * the distance at which the ray leaves the grid
+         */
+        final double exit;
+        /**
+         * the distance at which the ray enters the current cell
+         */
+        double enter;
+
+        /**
+         * Starts the walk at the cell the ray enters the grid at
+         *
+         * @param ray   the ray
+         * @param enter the distance at which the ray enters the grid
+         * @param exit  the distance at which the ray leaves the grid
+         */
+        Walk(Ray ray, double enter, double exit) {
+            Point p0 = ray.getP0();
+            Vector dir = ray.getDir();
+            double ox = p0.getX(), oy = p0.getY(), oz = p0.getZ();
+            double dx = dir.getX(), dy = dir.getY(), dz = dir.getZ();
+            this.enter = enter;
+            this.exit = exit;
+            x = clamp((ox + dx * enter - box.minX) / cellX, nx);
+            y = clamp((oy + dy * enter - box.minY) / cellY, ny);
+            z = clamp((oz + dz * enter - box.minZ) / cellZ, nz);
+            stepX = dx > 0 ? 1 : -1;
+            stepY = dy > 0 ? 1 : -1;
+            stepZ = dz > 0 ? 1 : -1;
+            deltaX = dx == 0 ? Double.POSITIVE_INFINITY : cellX / Math.abs(dx);
+            deltaY = dy == 0 ? Double.POSITIVE_INFINITY : cellY / Math.abs(dy);
+            deltaZ = dz == 0 ? Double.POSITIVE_INFINITY : cellZ / Math.abs(dz);
+            nextX = dx == 0 ? Double.POSITIVE_INFINITY : (box.minX + (x + (dx > 0 ? 1 : 0)) * cellX - ox) / dx;
+            nextY = dy == 0 ? Double.POSITIVE_INFINITY : (box.minY + (y + (dy > 0 ? 1 : 0)) * cellY - oy) / dy;
+            nextZ = dz == 0 ? Double.POSITIVE_INFINITY : (box.minZ + (z + (dz > 0 ? 1 : 0)) * cellZ - oz) / dz;
+        }
+
+        /**
+         * @return the index of the current cell in the arrays of the cells
+         */
+        int cell() {
+            return UniformGrid.this.cell(x, y, z);
+        }
+
+        /**
+         * @return the distance at which the ray leaves the current cell
+         */
+        double leave() {
+            return Math.min(nextX, Math.min(nextY, nextZ));
+        }
+
+        /**
+         * Moves to the next cell along the ray
+         *
+         * @return false if the ray leaves the grid
+         */
+        boolean advance() {
+            if (nextX <= nextY && nextX <= nextZ) {
+                enter = nextX;
+                x += stepX;
+                nextX += deltaX;
+                if (x < 0 || x >= nx) return false;
+            } else if (nextY <= nextZ) {
+                enter = nextY;
+                y += stepY;
+                nextY += deltaY;
+                if (y < 0 || y >= ny) return false;
+            } else {
+                enter = nextZ;
+                z += stepZ;
+                nextZ += deltaZ;
+                if (z < 0 || z >= nz) return false;
+            }
+            return enter <= exit;
+        }
+    }
+
+    /**
+     * Starts the walk of a ray through the grid
+     *
+     * @param ray         the ray
+     * @param maxDistance the distance along the ray beyond which the grid is ignored
+     * @return the walk, or null if the ray misses the grid within the distance
+     */
+    private Walk walk(Ray ray, double maxDistance) {
+        double enter = box.entryDistance(ray, maxDistance);
+        if (enter == Double.POSITIVE_INFINITY)
+            return null;
+        // the distance at which the ray leaves the box, which a flat grid's cells extend beyond
+        Point p0 = ray.getP0();
+        Vector dir = ray.getDir();
+        double exit = Math.min(maxDistance, Math.min(exitDistance(p0.getX(), dir.getX(), box.minX, box.maxX),
+                Math.min(exitDistance(p0.getY(), dir.getY(), box.minY, box.maxY),
+                        exitDistance(p0.getZ(), dir.getZ(), box.minZ, box.maxZ))));
+        return new Walk(ray, enter, exit);
+    }
+
+    /**
+     * @param origin the coordinate of the head of the ray along an axis
+     * @param d      the coordinate of the direction of the ray along the axis
+     * @param min    the lower plane of the slab of the box along the axis
+     * @param max    the upper plane of the slab
+     * @return the distance along the ray at which it leaves the slab, with the tolerance of the slab test
+     */
+    private static double exitDistance(double origin, double d, double min, double max) {
+        if (d == 0) return Double.POSITIVE_INFINITY;
+        return Math.max((min - origin) / d, (max - origin) / d) * BoundingBox.SLAB_TOLERANCE;
+    }
+
+    /**
+     * The marks of the geometries tested by the searches of a thread: a frame of a mark per geometry for each
+     * search in progress, so a grid searched inside another grid takes the next frame. A search stamps the
+     * geometries it tests with a number of its own, so the marks of earlier searches need not be cleared.
+     */
+    private static final class Mailbox {
+        /**
+         * The marks of each thread
+         */
+        private static final ThreadLocal<Mailbox> MAILBOXES = ThreadLocal.withInitial(Mailbox::new);
+
+        /**
+         * The stamp of the search which last tested each geometry, frame after frame
+         */
+        int[] stamps = new int[64];
+        /**
+         * The end of the frame of the innermost search
+         */
+        int top = 0;
+        /**
+         * The stamp of the last search
+         */
+        int stamp = 0;
+
+        /**
+         * Takes a frame and a stamp for a search
+         *
+         * @param size the number of geometries of the search
+         * @return the start of the frame
+         */
+        int push(int size) {
+            int base = top;
+            top += size;
+            if (top > stamps.length)
+                stamps = Arrays.copyOf(stamps, Math.max(top, stamps.length * 2));
+            // the stamps wrapped around, the marks of the searches in progress are lost with the old ones
+            if (++stamp == 0) {
+                Arrays.fill(stamps, 0);
+                stamp = 1;
+            }
+            return base;
+        }
+
+        /**
+         * Releases the frame of the innermost search
+         *
+         * @param size the number of geometries of the search
+         */
+        void pop(int size) {
+            top -= size;
+        }
+    }
+
+    @Override
+    protected List<GeoPoint> findGeoIntersectionsHelper(Ray ray) {
+        Walk walk = walk(ray, Double.POSITIVE_INFINITY);
+        if (walk == null)
+            return null;
+        // a geometry overlapping several cells is tested once
+        Mailbox mailbox = Mailbox.MAILBOXES.get();
+        int base = mailbox.push(items.length), stamp = mailbox.stamp;
+        List<GeoPoint> lp = null;
+        try {
+            do {
+                int c = walk.cell();
+                for (int i = cellStart[c]; i < cellStart[c + 1]; ++i) {
+                    int slot = base + cellItems[i];
+                    if (mailbox.stamps[slot] == stamp)
+                        continue;
+                    mailbox.stamps[slot] = stamp;
+                    var l = items[cellItems[i]].findGeoIntersectionsHelper(ray);
+                    if (l != null) {
+                        if (lp == null) lp = new LinkedList<>();
+                        lp.addAll(l);
+                    }
+                }
+            } while (walk.advance());
+        } finally {
+            mailbox.pop(items.length);
+        }
+        return lp;
+    }
+
+    @Override
+    protected GeoPoint findClosestGeoIntersectionHelper(Ray ray, double maxDistance) {
+        Walk walk = walk(ray, maxDistance);
+        if (walk == null)
+            return null;
+        GeoPoint closest = null;
+        do {
+            int c = walk.cell();
+            for (int i = cellStart[c]; i < cellStart[c + 1]; ++i) {
+                GeoPoint gp = items[cellItems[i]].findClosestGeoIntersectionHelper(ray, maxDistance);
+                if (gp != null) {
+                    closest = gp;
+                    maxDistance = distanceAlong(ray, gp.point);
+                }
+            }
+            // the cells beyond are entered beyond the best point
+            if (maxDistance <= walk.leave())
+                return closest;
+        } while (walk.advance());
+        return closest;
+    }
+
+    @Override
+    protected boolean hasIntersectionHelper(Ray ray, double maxDistance) {
+        Walk walk = walk(ray, maxDistance);
+        if (walk == null)
+            return false;
+        do {
+            int c = walk.cell();
+            for (int i = cellStart[c]; i < cellStart[c + 1]; ++i)
+                if (items[cellItems[i]].hasIntersectionHelper(ray, maxDistance))
+                    return true;
+        } while (walk.advance());
+        return false;
+    }
+}
@@ -8,6 +8,8 @@ import primitives.Double3;
  * @author Avraham Hassson
  */
 public class AmbientLight extends Light {
+    private static final long serialVersionUID = 1L;
+
     /**
      * Represents a constant representing no ambient light.
      */
@@ -9,6 +9,8 @@ import primitives.Vector;
  * @author Avraham Hassson
  */
 public class DirectionalLight extends Light implements LightSource {
+    private static final long serialVersionUID = 1L;
+
     /**
      * The light direction.
      */
@@ -33,5 +35,10 @@ public class DirectionalLight extends Light implements LightSource {
     public Vector getL(Point p) {
         return direction;
     }
+
+    @Override
+    public double getDistance(Point p) {
+        return Double.POSITIVE_INFINITY;
+    }
 }
 
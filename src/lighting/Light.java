@@ -2,12 +2,16 @@ package lighting;
 
 import primitives.Color;
 
+import java.io.Serializable;
+
 /**
  * An abstract class Representing a light source
  *
  * @author Avraham Hassson
  */
-public abstract class Light {
+public abstract class Light implements Serializable {
+    private static final long serialVersionUID = 1L;
+
     /**
      * Represents The intensity of the light.
      */
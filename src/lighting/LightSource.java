@@ -24,4 +24,13 @@ public interface LightSource {
      * @return the direction vector from the light source to the given point
      */
     Vector getL(Point p);
+
+    /**
+     * Retrieves the distance from the light source to the given point.
+     *
+     * @param p the point at which to calculate the distance
+     * @return the distance from the light source to the given point, infinity for a light source
+     * which has no position
+     */
+    double getDistance(Point p);
 }
@@ -11,6 +11,8 @@ import primitives.Vector;
  * @author Avraham Hassson
  */
 public class PointLight extends Light implements LightSource{
+    private static final long serialVersionUID = 1L;
+
     /**
      * The light position.
      */
@@ -65,4 +67,9 @@ public class PointLight extends Light implements LightSource{
     public Vector getL(Point p) {
         return (p.subtract(position)).normalize();
     }
+
+    @Override
+    public double getDistance(Point p) {
+        return position.distance(p);
+    }
 }
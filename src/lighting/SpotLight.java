@@ -12,6 +12,7 @@ import primitives.Vector;
  * @author Avraham Hassson
  */
 public class SpotLight extends PointLight{
+    private static final long serialVersionUID = 1L;
 
     /**
      * affects the beam width
@@ -1,10 +1,15 @@
 package primitives;
+
+import java.io.Serializable;
+
 /**
  * The Material class represents the material properties of an object.
  *
  * @author Avraham Hassson
  */
-public class Material {
+public class Material implements Serializable {
+    private static final long serialVersionUID = 1L;
+
     /**
      * The diffuse reflection coefficient of the material
      */
@@ -0,0 +1,161 @@
+package primitives;
+
+import static primitives.Util.isZero;
+
+/**
+ * PackedVectors class holds batch vector operations on packed buffers of 3-dimensional
+ * points and vectors. A buffer is a double array holding the coordinates x, y, z of each
+ * point (or vector) one after the other, so point i is at indices 3i, 3i+1 and 3i+2.
+ * The operations work on whole buffers without creating objects, for code that processes
+ * many rays or vertices at once; {@link Point} and {@link Vector} stay the API for building scenes.
+ * The result buffer of an operation may be one of its operands.
+ *
+ * @author Avraham Hassson
+ */
+public abstract class PackedVectors {
+    /**
+     * Empty private constructor to hide the public one
+     */
+    private PackedVectors() {}
+
+    /**
+     * Packs points (or vectors) into a new buffer
+     *
+     * @param points the points
+     * @return the buffer
+     */
+    public static double[] pack(Point... points) {
+        double[] buffer = new double[points.length * 3];
+        for (int i = 0; i < points.length; ++i) {
+            buffer[i * 3] = points[i].xyz.d1;
+            buffer[i * 3 + 1] = points[i].xyz.d2;
+            buffer[i * 3 + 2] = points[i].xyz.d3;
+        }
+        return buffer;
+    }
+
+    /**
+     * Unpacks a point from a buffer
+     *
+     * @param buffer the buffer
+     * @param i      the index of the point
+     * @return the point
+     */
+    public static Point point(double[] buffer, int i) {
+        return new Point(buffer[i * 3], buffer[i * 3 + 1], buffer[i * 3 + 2]);
+    }
+
+    /**
+     * Unpacks a vector from a buffer
+     *
+     * @param buffer the buffer
+     * @param i      the index of the vector
+     * @return the vector
+     * @throws IllegalArgumentException if it is the zero vector
+     */
+    public static Vector vector(double[] buffer, int i) {
+        return new Vector(buffer[i * 3], buffer[i * 3 + 1], buffer[i * 3 + 2]);
+    }
+
+    /**
+     * Calculates the dot products of pairs of vectors
+     *
+     * @param a      the left handle side vectors
+     * @param b      the right handle side vectors
+     * @param result the buffer to fill with the dot products, one number per pair
+     * @param count  the number of pairs
+     * @throws IllegalArgumentException if one of the buffers is too short
+     */
+    public static void dot(double[] a, double[] b, double[] result, int count) {
+        checkLength(a, count * 3);
+        checkLength(b, count * 3);
+        checkLength(result, count);
+        for (int i = 0, j = 0; i < count; ++i, j += 3)
+            result[i] = a[j] * b[j] + a[j + 1] * b[j + 1] + a[j + 2] * b[j + 2];
+    }
+
+    /**
+     * Calculates the cross products of pairs of vectors
+     *
+     * @param a      the left handle side vectors
+     * @param b      the right handle side vectors
+     * @param result the buffer to fill with the cross products
+     * @param count  the number of pairs
+     * @throws IllegalArgumentException if one of the buffers is too short
+     */
+    public static void cross(double[] a, double[] b, double[] result, int count) {
+        checkLength(a, count * 3);
+        checkLength(b, count * 3);
+        checkLength(result, count * 3);
+        for (int j = 0; j < count * 3; j += 3) {
+            double x = a[j + 1] * b[j + 2] - a[j + 2] * b[j + 1];
+            double y = a[j + 2] * b[j] - a[j] * b[j + 2];
+            double z = a[j] * b[j + 1] - a[j + 1] * b[j];
+            result[j] = x;
+            result[j + 1] = y;
+            result[j + 2] = z;
+        }
+    }
+
+    /**
+     * Normalizes vectors. Vectors of zero length (up to the accuracy of {@link Util#isZero(double)})
+     * are set to the zero vector instead of failing.
+     *
+     * @param v      the vectors
+     * @param result the buffer to fill with the normalized vectors
+     * @param count  the number of vectors
+     * @return the number of vectors of zero length
+     * @throws IllegalArgumentException if one of the buffers is too short
+     */
+    public static int normalize(double[] v, double[] result, int count) {
+        checkLength(v, count * 3);
+        checkLength(result, count * 3);
+        int zeros = 0;
+        for (int j = 0; j < count * 3; j += 3) {
+            double length = Math.sqrt(v[j] * v[j] + v[j + 1] * v[j + 1] + v[j + 2] * v[j + 2]);
+            if (isZero(length)) {
+                result[j] = result[j + 1] = result[j + 2] = 0;
+                ++zeros;
+                continue;
+            }
+            result[j] = v[j] / length;
+            result[j + 1] = v[j + 1] / length;
+            result[j + 2] = v[j + 2] / length;
+        }
+        return zeros;
+    }
+
+    /**
+     * Calculates the points at given distances along rays: origin + t * direction
+     *
+     * @param origins    the starting points of the rays
+     * @param directions the directions of the rays
+     * @param t          the distances along the rays, one number per ray
+     * @param result     the buffer to fill with the points
+     * @param count      the number of rays
+     * @throws IllegalArgumentException if one of the buffers is too short
+     */
+    public static void pointsAlong(double[] origins, double[] directions, double[] t, double[] result, int count) {
+        checkLength(origins, count * 3);
+        checkLength(directions, count * 3);
+        checkLength(t, count);
+        checkLength(result, count * 3);
+        for (int i = 0, j = 0; i < count; ++i, j += 3) {
+            result[j] = origins[j] + directions[j] * t[i];
+            result[j + 1] = origins[j + 1] + directions[j + 1] * t[i];
+            result[j + 2] = origins[j + 2] + directions[j + 2] * t[i];
+        }
+    }
+
+    /**
+     * Checks that a buffer holds enough numbers
+     *
+     * @param buffer the buffer
+     * @param length the needed number of numbers
+     * @throws IllegalArgumentException if the buffer is too short
+     */
+    private static void checkLength(double[] buffer, int length) {
+        if (buffer.length < length)
+            throw new IllegalArgumentException("The buffer is too short for the number of vectors");
+    }
+}
@@ -1,12 +1,16 @@
 package primitives;
 
+import java.io.Serializable;
+
 /**
  * Class Point is the basic class representing a point of Euclidean geometry in Cartesian
  * 3-Dimensional coordinate system.
  *
  * @author Avraham Hassson
  */
-public class Point {
+public class Point implements Serializable {
+    private static final long serialVersionUID = 1L;
+
     /**
      * Represents a constant representing the zero point.
      */
@@ -49,7 +53,6 @@ public class Point {
      *
      * @return the second coordinate.
      */
-    @SuppressWarnings("unused")
     public double getY() {
         return xyz.d2;
     }
@@ -92,6 +95,19 @@ public class Point {
         return new Vector(xyz.subtract(point.xyz));
     }
 
+    /**
+     * subtracts two points into a new vector from the second
+     * point (right handle side) to the first one, without throwing when the points are equal.
+     * Meant for calculations done per ray, where equal points are a normal case.
+     *
+     * @param point right handle side operand for subtraction
+     * @return vector from first to second (right hand side) point, or null if the points are equal
+     */
+    public Vector trySubtract(Point point) {
+        Double3 result = xyz.subtract(point.xyz);
+        return result.equals(Double3.ZERO) ? null : new Vector(result);
+    }
+
     /**
      * Sums a point and a vector into a new point where each coordinate
      * is summarized
@@ -2,6 +2,7 @@ package primitives;
 
 import geometries.Intersectable.GeoPoint;
 
+import java.io.Serializable;
 import java.util.List;
 
 import static primitives.Util.isZero;
@@ -12,7 +13,9 @@ import static primitives.Util.isZero;
  *
  * @author Avraham Hassson
  */
-public class Ray {
+public class Ray implements Serializable {
+    private static final long serialVersionUID = 1L;
+
     /**
      * starting point of the ray
      */
@@ -33,6 +36,24 @@ public class Ray {
         this.dir = dir.normalize();
     }
 
+    /**
+     * Constructor to initialize Ray based on point and the coordinates of a direction vector,
+     * normalizing the direction without intermediate objects
+     *
+     * @param p0 starting point of the ray
+     * @param dx x coordinate of the direction vector of the ray
+     * @param dy y coordinate of the direction vector of the ray
+     * @param dz z coordinate of the direction vector of the ray
+     * @throws IllegalArgumentException if the direction is the zero vector
+     */
+    public Ray(Point p0, double dx, double dy, double dz) {
+        double length = Math.sqrt(dx * dx + dy * dy + dz * dz);
+        if (isZero(length))
+            throw new IllegalArgumentException("cannot create a zero vector");
+        this.p0 = p0;
+        this.dir = new Vector(dx / length, dy / length, dz / length);
+    }
+
     /**
      * getter for starting point of the ray p0
      *
@@ -77,7 +98,8 @@ public class Ray {
      * @return The point on the line corresponding to the parameter value.
      */
     public Point getPoint(double t) {
-        return isZero(t) ? p0 : p0.add(dir.scale(t));
+        //same as p0.add(dir.scale(t)), without the intermediate vector
+        return isZero(t) ? p0 : new Point(p0.xyz.d1 + dir.xyz.d1 * t, p0.xyz.d2 + dir.xyz.d2 * t, p0.xyz.d3 + dir.xyz.d3 * t);
     }
 
     /**
@@ -101,9 +123,10 @@ public class Ray {
             return null;
 
         GeoPoint closestGeoPoint = null;
+        //comparing the squared distances gives the same order without taking square roots
         double closestDistance = Double.POSITIVE_INFINITY;
         for (var currentGeoPoint : geoPoints) {
-            double currentDistance = currentGeoPoint.point.distance(this.p0);
+            double currentDistance = currentGeoPoint.point.distanceSquared(this.p0);
             if (currentDistance < closestDistance) {
                 closestGeoPoint = currentGeoPoint;
                 closestDistance = currentDistance;
@@ -7,6 +7,8 @@ package primitives;
  * @author Avraham Hassson
  */
 public class Vector extends Point {
+    private static final long serialVersionUID = 1L;
+
     /**
      * Constructor to initialize Vector based on 3 double numbers (Double3) value
      *
@@ -99,6 +101,21 @@ public class Vector extends Point {
                 this.xyz.d1 * vector.xyz.d2 - this.xyz.d2 * vector.xyz.d1);
     }
 
+    /**
+     * calculates the cross product of two vectors, without throwing when the vectors are parallel.
+     * Meant for calculations done per ray, where parallel vectors are a normal case.
+     *
+     * @param vector right handle side operand for cross product calculation
+     * @return result of cross product, or null if it is the zero vector
+     */
+    public Vector tryCrossProduct(Vector vector) {
+        Double3 result = new Double3(
+                this.xyz.d2 * vector.xyz.d3 - this.xyz.d3 * vector.xyz.d2,
+                this.xyz.d3 * vector.xyz.d1 - this.xyz.d1 * vector.xyz.d3,
+                this.xyz.d1 * vector.xyz.d2 - this.xyz.d2 * vector.xyz.d1);
+        return result.equals(Double3.ZERO) ? null : new Vector(result);
+    }
+
     /**
      * calculates length of the vector squared
      *
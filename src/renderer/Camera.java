@@ -1,10 +1,28 @@
 package renderer;
 
+import geometries.ContentDigest;
 import primitives.Color;
 import primitives.Point;
 import primitives.Ray;
 import primitives.Vector;
 
+import java.io.IOException;
+import java.io.Serializable;
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.function.IntConsumer;
+
 import static primitives.Util.alignZero;
 import static primitives.Util.isZero;
 
@@ -15,7 +33,9 @@ import static primitives.Util.isZero;
  *
  * @author Avraham Hassson
  */
-public class Camera {
+public class Camera implements Serializable {
+    private static final long serialVersionUID = 1L;
+
     /**
      * The point where the Camera is located.
      */
@@ -29,13 +49,47 @@ public class Camera {
      */
     double viewPlaneH, viewPlaneW, viewPlaneD;
     /**
-     * Intended for creating the image file
+     * Intended for creating the image file, not serialized with the camera
      */
-    private ImageWriter imageWriter;
+    private transient ImageWriter imageWriter;
     /**
      * Intended for dyeing the rays.
      */
     private RayTracerBase rayTracerBase;
+    /**
+     * The number of render threads, 0 for rendering sequentially on the calling thread.
+     */
+    private int threadsCount = 0;
+    /**
+     * The edge length in pixels of the tiles handed to the render threads.
+     */
+    private int tileSize = 16;
+    /**
+     * The maximal number of times a pixel is subdivided by adaptive super sampling, 0 for a single ray per pixel.
+     */
+    private int antiAliasingDepth = 0;
+    /**
+     * The largest difference of a color component between the corners of a square of a pixel
+     * which is not subdivided.
+     */
+    private double antiAliasingThreshold = 10;
+    /**
+     * The checkpoint file of the render, null for rendering without a checkpoint. Not serialized with the camera.
+     */
+    private transient Path checkpointFile = null;
+    /**
+     * The ray generator of the last resolution rays were constructed for, reset when the view plane changes.
+     * Not serialized with the camera.
+     */
+    private transient volatile RayGenerator rayGenerator = null;
+    /**
+     * The largest number of rays traced by the first pass of a progressive render.
+     */
+    private static final int FIRST_PASS_RAYS = 4096;
+    /**
+     * The depth of the adaptive super sampling of a render with a time budget, if it is not set.
+     */
+    private static final int BUDGET_ANTI_ALIASING_DEPTH = 2;
 
     /**
      * Constructor to initialize Camera based on the location point of the Camera,
@@ -124,6 +178,7 @@ public class Camera {
             throw new IllegalArgumentException("The height and width must be greater than zero");
         this.viewPlaneH = height;
         this.viewPlaneW = width;
+        this.rayGenerator = null;
         return this;
     }
 
@@ -137,6 +192,7 @@ public class Camera {
         if (alignZero(distance) <= 0)
             throw new IllegalArgumentException("The distance must be greater than zero");
         this.viewPlaneD = distance;
+        this.rayGenerator = null;
         return this;
     }
 
@@ -162,9 +218,86 @@ public class Camera {
         return this;
     }
 
+    /**
+     * Setter for the number of render threads.
+     * With 0 threads (the default) the image is rendered sequentially on the calling thread,
+     * otherwise the view plane is split into tiles rendered by a work-stealing pool of the given size.
+     *
+     * @param threads The number of render threads.
+     * @return The Camera.
+     */
+    public Camera setMultithreading(int threads) {
+        if (threads < 0)
+            throw new IllegalArgumentException("The number of threads cannot be negative");
+        this.threadsCount = threads;
+        return this;
+    }
+
+    /**
+     * Setter for the edge length of the tiles rendered in parallel.
+     *
+     * @param tileSize The edge length of a tile in pixels.
+     * @return The Camera.
+     */
+    public Camera setTileSize(int tileSize) {
+        if (tileSize <= 0)
+            throw new IllegalArgumentException("The tile size must be greater than zero");
+        this.tileSize = tileSize;
+        return this;
+    }
+
+    /**
+     * Setter for adaptive super sampling (anti-aliasing).
+     * With depth 0 (the default) a single ray passes through the center of each pixel.
+     * Otherwise rays pass through the corners of the pixels, which are shared by adjacent pixels, and
+     * a square whose corners differ by more than the threshold is split into 4 squares, at most depth times.
+     * The color of a square is the average of its parts, or of its corners if it is not split.
+     *
+     * @param depth The maximal number of times a pixel is subdivided.
+     * @return The Camera.
+     */
+    public Camera setAntiAliasing(int depth) {
+        if (depth < 0)
+            throw new IllegalArgumentException("The depth of the anti-aliasing cannot be negative");
+        this.antiAliasingDepth = depth;
+        return this;
+    }
+
+    /**
+     * Setter for the threshold of adaptive super sampling: the largest difference of a color component
+     * between the corners of a square of a pixel which is not subdivided (10 by default).
+     *
+     * @param threshold The threshold, in the units of the color components (255 is full intensity).
+     * @return The Camera.
+     */
+    public Camera setAntiAliasingThreshold(double threshold) {
+        if (threshold < 0)
+            throw new IllegalArgumentException("The threshold of the anti-aliasing cannot be negative");
+        this.antiAliasingThreshold = threshold;
+        return this;
+    }
+
+    /**
+     * Setter for the checkpoint file of {@link #renderImage()}. The finished tiles are saved to the file
+     * as they are rendered, and a render of the same scene and camera started with the same file
+     * loads the tiles saved in it instead of rendering them again, so a render interrupted by the death
+     * of the JVM is resumed. The file is kept after the render, and a file of another render is overwritten.
+     * The scene is identified by a digest of its content, so any change to its geometries, materials,
+     * lights or background starts the render over, and changing only the acceleration of its intersections
+     * or the threads building it does not.
+     *
+     * @param file The checkpoint file, or null for rendering without a checkpoint.
+     * @return The Camera.
+     */
+    public Camera setCheckpoint(Path file) {
+        this.checkpointFile = file;
+        return this;
+    }
+
     /**
      * receives a specific slot, with a selected resolution of the view plane,
      * and returns the ray coming out of the Camera to the view plane.
+     * The {@link RayGenerator} of the resolution is kept for the next rays of the same resolution.
      *
      * @param nX The number of pixels in a row in the view plane.
      * @param nY The number of pixels in a column in the view plane.
@@ -173,59 +306,600 @@ public class Camera {
      * @return ray coming out of the Camera to the view plane.
      */
     public Ray constructRay(int nX, int nY, int j, int i) {
-        Point pc = this.p0.add(this.vTo.scale(viewPlaneD));
-        double rY = viewPlaneH / (double) nY;
-        double rX = viewPlaneW / (double) nX;
-        double yI = -(i - (((double) nY - 1) / 2)) * rY;
-        double xJ = (j - ((double) nX - 1) / 2) * rX;
-
-        Point pIJ = pc;
-        if (xJ != 0)
-            pIJ = pIJ.add(vRight.scale(xJ));
-        if (yI != 0)
-            pIJ = pIJ.add(vUp.scale(yI));
-
-        Vector vIJ = pIJ.subtract(p0);
-        return new Ray(p0, vIJ);
+        return rayGenerator(nX, nY).constructRay(j, i);
     }
 
     /**
-     * Calculates a color for a specific pixel in an image.
+     * Returns the ray generator of a resolution, the one kept from the last call if it has the same resolution.
      *
      * @param nX The number of pixels in a row in the view plane.
      * @param nY The number of pixels in a column in the view plane.
-     * @param j  The row number of the pixel.
-     * @param i  The column number of the pixel.
+     * @return the ray generator.
      */
-    private void castRay(int nX, int nY, int j, int i) {
-        this.imageWriter.writePixel(j, i, this.rayTracerBase.traceRay(this.constructRay(nX, nY, j, i)));
+    private RayGenerator rayGenerator(int nX, int nY) {
+        RayGenerator generator = rayGenerator;
+        if (generator == null || generator.getNx() != nX || generator.getNy() != nY)
+            rayGenerator = generator = new RayGenerator(this, nX, nY);
+        return generator;
     }
 
     /**
      * Renders the image by casting rays from the camera through each pixel of the image and writing the resulting color to the imageWriter.
+     * A streaming imageWriter is rendered band by band, and each band is written to the file once it is rendered.
+     * With a checkpoint file (see {@link #setCheckpoint(Path)}) the tiles saved in it are loaded instead of rendered.
      * Throws UnsupportedOperationException if any of the required resources are missing (rayTracerBase, imageWriter, width, height, distance).
      */
     public Camera renderImage() {
-        if (this.rayTracerBase == null || this.imageWriter == null || this.viewPlaneW == 0 || this.viewPlaneH == 0 || this.viewPlaneD == 0)
-            throw new UnsupportedOperationException("MissingResourcesException");
+        requireResources();
+        if (checkpointFile != null)
+            return renderCheckpointed();
+        ForkJoinPool pool = threadsCount == 0 ? null : new ForkJoinPool(threadsCount);
+        try {
+            renderFrame(pool);
+        } finally {
+            shutdown(pool);
+        }
+        return this;
+    }
 
+    /**
+     * Renders the image by the threads of a given pool, which may render other frames at the same time
+     * (see {@link SequenceRenderer}). The number of render threads of the camera and its checkpoint file are ignored.
+     *
+     * @param pool The pool of the render threads, or null for rendering on the calling thread.
+     */
+    void renderFrame(ForkJoinPool pool) {
+        requireResources();
         int nX = imageWriter.getNx();
         int nY = imageWriter.getNy();
-        for (int i = 0; i < nY; i++)
-            for (int j = 0; j < nX; j++)
-                this.castRay(nX, nY, j, i);
+        int bandHeight = imageWriter.getBandHeight();
+        RayGenerator generator = rayGenerator(nX, nY);
+        for (int y0 = 0; y0 < nY; y0 += bandHeight) {
+            forEachTile(pool, nX, y0, Math.min(y0 + bandHeight, nY), tile -> renderTile(tile, generator));
+            if (imageWriter.isStreaming())
+                imageWriter.writeBand();
+        }
+    }
+
+    /**
+     * Renders the rows [y0, y1) of the image, a task of a distributed render (see {@link RenderCoordinator}).
+     * The image writer may hold only these rows.
+     *
+     * @param y0 The first row.
+     * @param y1 The row after the last row.
+     */
+    void renderRows(int y0, int y1) {
+        requireResources();
+        RayGenerator generator = rayGenerator(imageWriter.getNx(), imageWriter.getNy());
+        ForkJoinPool pool = threadsCount == 0 ? null : new ForkJoinPool(threadsCount);
+        try {
+            forEachTile(pool, imageWriter.getNx(), y0, y1, tile -> renderTile(tile, generator));
+        } finally {
+            shutdown(pool);
+        }
+    }
+
+    /**
+     * getter for the image writer.
+     *
+     * @return the image writer.
+     */
+    ImageWriter getImageWriter() {
+        return imageWriter;
+    }
+
+    /**
+     * getter for the ray tracer.
+     *
+     * @return the ray tracer.
+     */
+    RayTracerBase getRayTracer() {
+        return rayTracerBase;
+    }
+
+    /**
+     * Renders the image tile by tile, saving each tile to the checkpoint file,
+     * and skipping the tiles already saved there by an earlier render.
+     * Throws UnsupportedOperationException if the image writer is streaming,
+     * and IllegalStateException if the checkpoint file cannot be opened.
+     *
+     * @return The Camera.
+     */
+    private Camera renderCheckpointed() {
+        if (imageWriter.isStreaming())
+            throw new UnsupportedOperationException("A streaming image cannot be checkpointed");
+        int nX = imageWriter.getNx();
+        int nY = imageWriter.getNy();
+        RayGenerator generator = rayGenerator(nX, nY);
+        FrameBuffer frameBuffer = imageWriter.getFrameBuffer();
+        Checkpoint checkpoint;
+        try {
+            checkpoint = new Checkpoint(checkpointFile, nX, nY, tileSize, fingerprint());
+        } catch (IOException e) {
+            throw new IllegalStateException("I/O error - cannot open the checkpoint file " + checkpointFile, e);
+        }
+        try (checkpoint) {
+            List<Tile> pending = new ArrayList<>();
+            for (Tile tile : Tile.split(nX, nY, tileSize))
+                if (checkpoint.isResumed() && checkpoint.isDone(tile))
+                    checkpoint.load(tile, frameBuffer);
+                else
+                    pending.add(tile);
+            // the render threads are finished before the checkpoint is closed
+            ForkJoinPool pool = threadsCount == 0 ? null : new ForkJoinPool(threadsCount);
+            try {
+                forEachTile(pool, pending, tile -> {
+                    renderTile(tile, generator);
+                    checkpoint.save(tile, frameBuffer);
+                });
+            } finally {
+                shutdown(pool);
+            }
+        }
+        return this;
+    }
+
+    /**
+     * Calculates a fingerprint of the render: the camera, its rendering settings and the scene,
+     * which is identified by the SHA-256 digest of its content (see {@link ContentDigest}), so changing
+     * how the scene is searched for intersections does not start the render over.
+     * Throws IllegalStateException if the scene cannot be serialized.
+     *
+     * @return the fingerprint
+     */
+    private long fingerprint() {
+        byte[] digest;
+        try {
+            digest = ContentDigest.sha256(rayTracerBase.scene);
+        } catch (IOException e) {
+            throw new IllegalStateException("The scene cannot be serialized for the checkpoint", e);
+        }
+        long hash = ByteBuffer.wrap(digest).getLong();
+        double[] values = {p0.getX(), p0.getY(), p0.getZ(), vTo.getX(), vTo.getY(), vTo.getZ(),
+                vUp.getX(), vUp.getY(), vUp.getZ(), viewPlaneW, viewPlaneH, viewPlaneD,
+                antiAliasingDepth, antiAliasingThreshold};
+        for (double value : values)
+            hash = hash * 31 + Double.doubleToLongBits(value);
+        return hash;
+    }
+
+    /**
+     * Renders the image progressively: a coarse pass traces a sparse grid of pixels, each filling
+     * the block of pixels around it, and each following pass traces the pixels halfway between those
+     * already traced, until every pixel is traced once. The first pass traces at most a few thousand rays,
+     * so a preview is ready at once, and no pixel is traced twice.
+     * With adaptive super sampling (see {@link #setAntiAliasing(int)}), a last pass super samples the tiles
+     * with edges (pixels differing from their neighbours by more than the threshold), and the other tiles
+     * keep the colors of the passes, so the flat parts of the image are not traced again.
+     * The listener is called with the complete preview after each pass, and may stop the render.
+     * Throws UnsupportedOperationException if any of the required resources are missing, or the image writer is streaming.
+     *
+     * @param listener The listener called after each pass.
+     * @return The Camera.
+     */
+    public Camera renderProgressive(PassListener listener) {
+        requireResources();
+        if (imageWriter.isStreaming())
+            throw new UnsupportedOperationException("A streaming image cannot be rendered progressively");
+        int nX = imageWriter.getNx();
+        int nY = imageWriter.getNy();
+        RayGenerator generator = rayGenerator(nX, nY);
+        int firstStep = firstStep(nX, nY);
+        ForkJoinPool pool = threadsCount == 0 ? null : new ForkJoinPool(threadsCount);
+        try {
+            int pass = 0;
+            for (int step = firstStep; step >= 1; step >>= 1, ++pass) {
+                int passStep = step;
+                boolean first = step == firstStep;
+                forEachTile(pool, nX, 0, nY, tile -> renderPass(tile, generator, passStep, first));
+                boolean last = step == 1 && antiAliasingDepth == 0;
+                if (!listener.passFinished(pass, last, imageWriter) || last)
+                    return this;
+            }
+            List<Tile> edged = new ArrayList<>();
+            for (Tile tile : Tile.split(nX, nY, tileSize))
+                if (countEdges(tile) > 0)
+                    edged.add(tile);
+            forEachTile(pool, edged, tile ->
+                    renderSuperSampled(generator, tile.x0, tile.y0, tile.width, tile.height, antiAliasingDepth));
+            listener.passFinished(pass, true, imageWriter);
+        } finally {
+            shutdown(pool);
+        }
+        return this;
+    }
+
+    /**
+     * Renders the image within a time budget. The image is rendered progressively
+     * (see {@link #renderProgressive(PassListener)}), one tile at a time, so the image is complete once
+     * the first pass - of a few thousand rays - is done. The time left after every pixel is traced is spent
+     * on adaptive super sampling of the tiles with the most edges for their cost: the cost of a tile is
+     * estimated from the time it took to trace its pixels, scaled by the ratio measured on the tiles
+     * super sampled so far, and a tile which isn't expected to finish in time is skipped.
+     * When the time is up, the tiles which were not refined keep their colors from the previous pass,
+     * so the image is never partially black. The render may overrun the budget by about one tile per thread.
+     * The depth of the super sampling is set by {@link #setAntiAliasing(int)}, or 2 if it is not set.
+     * Throws UnsupportedOperationException if any of the required resources are missing, or the image writer is streaming.
+     *
+     * @param budget The wall-clock time for the render.
+     * @return The Camera.
+     */
+    public Camera renderImage(Duration budget) {
+        requireResources();
+        if (imageWriter.isStreaming())
+            throw new UnsupportedOperationException("A streaming image cannot be rendered with a time budget");
+        long deadline = System.nanoTime() + budget.toNanos();
+        int nX = imageWriter.getNx();
+        int nY = imageWriter.getNy();
+        RayGenerator generator = rayGenerator(nX, nY);
+        int firstStep = firstStep(nX, nY);
+        List<Tile> tiles = Tile.split(nX, nY, tileSize);
+        // the time of tracing the pixels of each tile
+        long[] traceNanos = new long[tiles.size()];
+        ForkJoinPool pool = threadsCount == 0 ? null : new ForkJoinPool(threadsCount);
+        try {
+            forEachTile(pool, nX, 0, nY, tile -> renderPass(tile, generator, firstStep, true));
+            for (int step = firstStep >> 1; step >= 1; step >>= 1) {
+                int passStep = step;
+                forEachTileUntil(pool, tiles.size(), deadline, t -> {
+                    long start = System.nanoTime();
+                    renderPass(tiles.get(t), generator, passStep, false);
+                    traceNanos[t] += System.nanoTime() - start;
+                });
+                if (deadline - System.nanoTime() <= 0)
+                    return this;
+            }
+
+            // the tiles with edges, the most edges for the time first
+            int depth = antiAliasingDepth > 0 ? antiAliasingDepth : BUDGET_ANTI_ALIASING_DEPTH;
+            List<Integer> order = new ArrayList<>();
+            double[] priority = new double[tiles.size()];
+            for (int t = 0; t < tiles.size(); t++) {
+                int edges = countEdges(tiles.get(t));
+                if (edges > 0) {
+                    order.add(t);
+                    priority[t] = edges / (traceNanos[t] + 1.0);
+                }
+            }
+            order.sort(Comparator.comparingDouble(t -> -priority[t]));
+
+            // the time of super sampling the tiles done so far, and of tracing their pixels
+            AtomicLong superSampledNanos = new AtomicLong(), tracedNanos = new AtomicLong();
+            forEachTileUntil(pool, order.size(), deadline, k -> {
+                int t = order.get(k);
+                long traced = tracedNanos.get();
+                double ratio = traced == 0 ? 1 << depth : (double) superSampledNanos.get() / traced;
+                long start = System.nanoTime();
+                if (deadline - start - (long) (traceNanos[t] * ratio) <= 0)
+                    return;
+                Tile tile = tiles.get(t);
+                renderSuperSampled(generator, tile.x0, tile.y0, tile.width, tile.height, depth);
+                superSampledNanos.addAndGet(System.nanoTime() - start);
+                tracedNanos.addAndGet(traceNanos[t]);
+            });
+        } finally {
+            shutdown(pool);
+        }
         return this;
     }
 
+    /**
+     * Finds the step of the first pass of a progressive render: the smallest power of 2
+     * for which the pass traces at most {@link #FIRST_PASS_RAYS} rays.
+     *
+     * @param nX The number of pixels in a row.
+     * @param nY The number of pixels in a column.
+     * @return the step of the first pass.
+     */
+    private static int firstStep(int nX, int nY) {
+        int step = 1;
+        while ((long) ((nX + step - 1) / step) * ((nY + step - 1) / step) > FIRST_PASS_RAYS)
+            step <<= 1;
+        return step;
+    }
+
+    /**
+     * Counts the pixels of a tile whose color differs from the pixel to their right or below them
+     * by more than the threshold of the anti-aliasing in a component.
+     *
+     * @param tile The tile.
+     * @return the number of pixels on edges.
+     */
+    private int countEdges(Tile tile) {
+        int nX = imageWriter.getNx(), nY = imageWriter.getNy();
+        int edges = 0;
+        for (int y = tile.y0; y < tile.y0 + tile.height; y++)
+            for (int x = tile.x0; x < tile.x0 + tile.width; x++) {
+                int rgb = imageWriter.getPixel(x, y);
+                if (x + 1 < nX && differ(rgb, imageWriter.getPixel(x + 1, y))
+                        || y + 1 < nY && differ(rgb, imageWriter.getPixel(x, y + 1)))
+                    edges++;
+            }
+        return edges;
+    }
+
+    /**
+     * Checks whether two packed RGB colors differ by more than the threshold of the anti-aliasing in a component
+     *
+     * @param rgb1 The first color.
+     * @param rgb2 The second color.
+     * @return true if the colors differ.
+     */
+    private boolean differ(int rgb1, int rgb2) {
+        for (int shift = 0; shift <= 16; shift += 8)
+            if (Math.abs((rgb1 >> shift & 0xFF) - (rgb2 >> shift & 0xFF)) > antiAliasingThreshold)
+                return true;
+        return false;
+    }
+
+    /**
+     * Runs an action on the indices 0 to count - 1 in order, on the calling thread if there are no render threads,
+     * otherwise on the render threads taking the next index whenever they are free. No index is started
+     * after the deadline.
+     *
+     * @param pool     The pool of the render threads, or null.
+     * @param count    The number of indices.
+     * @param deadline The deadline, as in {@link System#nanoTime()}.
+     * @param action   The action to run on each index.
+     */
+    private void forEachTileUntil(ForkJoinPool pool, int count, long deadline, IntConsumer action) {
+        AtomicInteger next = new AtomicInteger();
+        Runnable worker = () -> {
+            for (int k; deadline - System.nanoTime() > 0 && (k = next.getAndIncrement()) < count; )
+                action.accept(k);
+        };
+        if (pool == null) {
+            worker.run();
+            return;
+        }
+        List<ForkJoinTask<?>> workers = new ArrayList<>();
+        for (int t = 0; t < threadsCount; t++)
+            workers.add(pool.submit(worker));
+        for (ForkJoinTask<?> task : workers)
+            task.join();
+    }
+
+    /**
+     * Shuts down the pool of the render threads of a render, and waits for its threads to finish.
+     * When the render fails, tiles may still be rendered by other threads: they are cancelled, or finished
+     * before the render returns, so no thread writes to the image or to the checkpoint file after it.
+     *
+     * @param pool The pool of the render threads, or null.
+     */
+    private static void shutdown(ForkJoinPool pool) {
+        if (pool == null)
+            return;
+        pool.shutdownNow();
+        boolean interrupted = false;
+        while (true) {
+            try {
+                if (pool.awaitTermination(1, TimeUnit.MINUTES))
+                    break;
+            } catch (InterruptedException e) {
+                interrupted = true;
+            }
+        }
+        if (interrupted)
+            Thread.currentThread().interrupt();
+    }
+
+    /**
+     * Throws UnsupportedOperationException if any of the required resources are missing (rayTracerBase, imageWriter, width, height, distance).
+     */
+    void requireResources() {
+        if (this.rayTracerBase == null || this.imageWriter == null || this.viewPlaneW == 0 || this.viewPlaneH == 0 || this.viewPlaneD == 0)
+            throw new UnsupportedOperationException("MissingResourcesException");
+    }
+
+    /**
+     * Runs an action on the rows [y0, y1) of the image: on the calling thread as a single tile
+     * if there are no render threads, otherwise on tiles rendered by the render threads.
+     *
+     * @param pool   The pool of the render threads, or null.
+     * @param nX     The number of pixels in a row.
+     * @param y0     The first row.
+     * @param y1     The row after the last row.
+     * @param action The action to run on each tile.
+     */
+    private void forEachTile(ForkJoinPool pool, int nX, int y0, int y1, Consumer<Tile> action) {
+        if (pool == null) {
+            action.accept(new Tile(0, y0, nX, y1 - y0));
+            return;
+        }
+        forEachTile(pool, Tile.splitRows(nX, y0, y1, tileSize), action);
+    }
+
+    /**
+     * Runs an action on tiles: on the calling thread one after the other if there are no render threads,
+     * otherwise on the render threads.
+     *
+     * @param pool   The pool of the render threads, or null.
+     * @param tiles  The tiles.
+     * @param action The action to run on each tile.
+     */
+    private void forEachTile(ForkJoinPool pool, List<Tile> tiles, Consumer<Tile> action) {
+        if (pool == null)
+            tiles.forEach(action);
+        else if (!tiles.isEmpty())
+            pool.invoke(new TileTask(tiles, 0, tiles.size(), action));
+    }
+
+    /**
+     * Renders the pixels of a tile traced by a pass of a progressive render: the pixels whose row and column are
+     * multiples of the step, except those already traced by the previous pass (multiples of twice the step).
+     * Each pixel fills the step * step block of pixels from it, so the image is complete after each pass.
+     * The blocks of a pass are disjoint, so the tiles may fill blocks crossing into each other in parallel.
+     *
+     * @param tile      The tile of the traced pixels.
+     * @param generator The generator of the rays of the frame.
+     * @param step      The distance between the pixels traced by the pass.
+     * @param first     Whether it is the first pass, which has no previous pass.
+     */
+    private void renderPass(Tile tile, RayGenerator generator, int step, boolean first) {
+        int nX = imageWriter.getNx(), nY = imageWriter.getNy();
+        int iFrom = (tile.y0 + step - 1) / step * step, jFrom = (tile.x0 + step - 1) / step * step;
+        for (int i = iFrom; i < tile.y0 + tile.height; i += step)
+            for (int j = jFrom; j < tile.x0 + tile.width; j += step) {
+                if (!first && i % (2 * step) == 0 && j % (2 * step) == 0)
+                    continue;
+                Color color = rayTracerBase.traceRay(generator.constructRay(j, i));
+                for (int y = i; y < Math.min(i + step, nY); y++)
+                    for (int x = j; x < Math.min(j + step, nX); x++)
+                        imageWriter.writePixel(x, y, color);
+            }
+    }
+
+    /**
+     * Renders a single tile. The render threads write their tiles to the image writer in parallel,
+     * as its frame buffer needs no locking for distinct pixels.
+     *
+     * @param tile      The tile to render.
+     * @param generator The generator of the rays of the frame.
+     */
+    private void renderTile(Tile tile, RayGenerator generator) {
+        if (antiAliasingDepth > 0) {
+            renderSuperSampled(generator, tile.x0, tile.y0, tile.width, tile.height, antiAliasingDepth);
+            return;
+        }
+        Ray[] rays = new Ray[tile.width];
+        for (int i = 0; i < tile.height; i++) {
+            generator.constructRays(tile.y0 + i, tile.x0, tile.width, rays);
+            for (int j = 0; j < tile.width; j++)
+                imageWriter.writePixel(tile.x0 + j, tile.y0 + i, rayTracerBase.traceRay(rays[j]));
+        }
+    }
+
+    /**
+     * Renders a block of pixels by adaptive super sampling. The corners are traced row by row,
+     * and each row of corners is shared by the pixels above it and below it.
+     *
+     * @param generator The generator of the rays of the frame.
+     * @param x0        The column of the top-left pixel of the block.
+     * @param y0        The row of the top-left pixel of the block.
+     * @param width     The width of the block in pixels.
+     * @param height    The height of the block in pixels.
+     * @param depth     The maximal number of times a pixel is subdivided.
+     */
+    private void renderSuperSampled(RayGenerator generator, int x0, int y0, int width, int height, int depth) {
+        Color[] top = new Color[width + 1], bottom = new Color[width + 1];
+        for (int j = 0; j <= width; j++)
+            top[j] = rayTracerBase.traceRay(generator.constructRay(x0 + j - 0.5, y0 - 0.5));
+        for (int i = 0; i < height; i++) {
+            double y = y0 + i - 0.5;
+            for (int j = 0; j <= width; j++)
+                bottom[j] = rayTracerBase.traceRay(generator.constructRay(x0 + j - 0.5, y + 1));
+            for (int j = 0; j < width; j++)
+                imageWriter.writePixel(x0 + j, y0 + i, superSample(generator, x0 + j - 0.5, y, 1,
+                        top[j], top[j + 1], bottom[j], bottom[j + 1], depth));
+            Color[] swap = top;
+            top = bottom;
+            bottom = swap;
+        }
+    }
+
+    /**
+     * Calculates the color of a square of the view plane from the colors at its corners,
+     * splitting it into 4 squares if the corners differ by more than the threshold.
+     * The 5 new corners of the parts are traced once and shared by them.
+     *
+     * @param generator   The generator of the rays of the frame.
+     * @param x           The position of the left side of the square, in pixels.
+     * @param y           The position of the top side of the square, in pixels.
+     * @param size        The edge length of the square, in pixels.
+     * @param topLeft     The color at the top-left corner.
+     * @param topRight    The color at the top-right corner.
+     * @param bottomLeft  The color at the bottom-left corner.
+     * @param bottomRight The color at the bottom-right corner.
+     * @param depth       The number of times the square may still be split.
+     * @return the color of the square.
+     */
+    private Color superSample(RayGenerator generator, double x, double y, double size,
+                              Color topLeft, Color topRight, Color bottomLeft, Color bottomRight, int depth) {
+        if (depth == 0 || !differ(topLeft, topRight, bottomLeft, bottomRight))
+            return topLeft.add(topRight, bottomLeft, bottomRight).reduce(4);
+        double half = size / 2;
+        Color top = rayTracerBase.traceRay(generator.constructRay(x + half, y));
+        Color left = rayTracerBase.traceRay(generator.constructRay(x, y + half));
+        Color center = rayTracerBase.traceRay(generator.constructRay(x + half, y + half));
+        Color right = rayTracerBase.traceRay(generator.constructRay(x + size, y + half));
+        Color bottom = rayTracerBase.traceRay(generator.constructRay(x + half, y + size));
+        return superSample(generator, x, y, half, topLeft, top, left, center, depth - 1)
+                .add(superSample(generator, x + half, y, half, top, topRight, center, right, depth - 1),
+                        superSample(generator, x, y + half, half, left, center, bottomLeft, bottom, depth - 1),
+                        superSample(generator, x + half, y + half, half, center, right, bottom, bottomRight, depth - 1))
+                .reduce(4);
+    }
+
+    /**
+     * Checks whether the colors at the corners of a square differ by more than the threshold in any component
+     *
+     * @param colors The colors at the corners.
+     * @return true if the square should be split.
+     */
+    private boolean differ(Color... colors) {
+        double minR = colors[0].getRed(), maxR = minR;
+        double minG = colors[0].getGreen(), maxG = minG;
+        double minB = colors[0].getBlue(), maxB = minB;
+        for (Color color : colors) {
+            minR = Math.min(minR, color.getRed());
+            maxR = Math.max(maxR, color.getRed());
+            minG = Math.min(minG, color.getGreen());
+            maxG = Math.max(maxG, color.getGreen());
+            minB = Math.min(minB, color.getBlue());
+            maxB = Math.max(maxB, color.getBlue());
+        }
+        return maxR - minR > antiAliasingThreshold || maxG - minG > antiAliasingThreshold
+                || maxB - minB > antiAliasingThreshold;
+    }
+
+    /**
+     * A fork/join task rendering a range of tiles. The range is split in halves until a single
+     * tile is left, so idle threads steal the pending halves of the busy ones.
+     */
+    private static class TileTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final List<Tile> tiles;
+        private final int from, to;
+        private final Consumer<Tile> action;
+
+        /**
+         * Constructs a task rendering the tiles in the range [from, to).
+         *
+         * @param tiles  The tiles of the view plane.
+         * @param from   The index of the first tile of the range.
+         * @param to     The index after the last tile of the range.
+         * @param action The rendering of a tile.
+         */
+        TileTask(List<Tile> tiles, int from, int to, Consumer<Tile> action) {
+            this.tiles = tiles;
+            this.from = from;
+            this.to = to;
+            this.action = action;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from == 1) {
+                action.accept(tiles.get(from));
+                return;
+            }
+            int middle = (from + to) >>> 1;
+            invokeAll(new TileTask(tiles, from, middle, action), new TileTask(tiles, middle, to, action));
+        }
+    }
+
     /**
      * Draws a grid on the image by writing a specified color to the pixels that fall on the grid lines.
-     * Throws UnsupportedOperationException if imageWriter object is null.
+     * Throws UnsupportedOperationException if imageWriter object is null or streaming.
      *
      * @param interval The spacing between grid lines.
      * @param color    The color to use for the grid lines.
      */
     public void printGrid(int interval, Color color) {
         if (imageWriter == null) throw new UnsupportedOperationException("MissingResourcesException");
+        if (imageWriter.isStreaming())
+            throw new UnsupportedOperationException("A grid cannot be printed on a streaming image");
 
         int nX = imageWriter.getNx();
         int nY = imageWriter.getNy();
@@ -0,0 +1,21 @@
+package renderer;
+
+/**
+ * interface CameraPath gives the camera of each frame of an animation rendered by a {@link SequenceRenderer}:
+ * its location, direction, view plane and anti-aliasing. The ray tracer and the image writer of the
+ * frame are set by the sequence renderer.
+ *
+ * @author Avraham Hassson
+ */
+@FunctionalInterface
+public interface CameraPath {
+    /**
+     * Creates the camera of a frame. It is called for the frames in order,
+     * on the thread which started the render.
+     *
+     * @param frame  the number of the frame, from 0
+     * @param frames the number of frames of the animation
+     * @return a new camera for the frame
+     */
+    Camera cameraAt(int frame, int frames);
+}
@@ -0,0 +1,229 @@
+package renderer;
+
+import primitives.Color;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static java.nio.file.StandardOpenOption.*;
+
+/**
+ * class Checkpoint keeps the finished tiles of a render in a memory-mapped file, so a render
+ * interrupted by the death of the JVM resumes from the tiles already rendered.
+ * <p>
+ * The file holds a header identifying the render (its resolution, tile size and a fingerprint of the
+ * scene and the camera), a flag per tile, and the colors of the pixels of each tile in high dynamic range,
+ * three floats per pixel. The colors of a tile are written before its flag, and the writes reach the
+ * file when the JVM dies, as the file is mapped; they are forced to the disk every
+ * {@link #FORCE_INTERVAL} nanoseconds and when the checkpoint is closed.
+ * The tiles may be saved by several threads in parallel.
+ *
+ * @author Avraham Hassson
+ */
+class Checkpoint implements Closeable {
+    /**
+     * The first bytes of a checkpoint file
+     */
+    private static final int MAGIC = 0x52544350; // "RTCP"
+    /**
+     * The version of the layout of the file
+     */
+    private static final int VERSION = 1;
+    /**
+     * The size of the header: magic, version, nX, nY, tile size and fingerprint
+     */
+    private static final int HEADER = 4 * 5 + 8;
+    /**
+     * The largest size of a mapped segment of the colors
+     */
+    private static final long SEGMENT_LIMIT = 1L << 30;
+    /**
+     * The time between forcing the writes to the disk, in nanoseconds
+     */
+    private static final long FORCE_INTERVAL = 30_000_000_000L;
+
+    /**
+     * The size of the image
+     */
+    private final int nX, nY;
+    /**
+     * The edge length of a tile, and the number of tiles in a row
+     */
+    private final int tileSize, tilesInRow;
+    /**
+     * The header and the flags of the tiles
+     */
+    private final MappedByteBuffer flags;
+    /**
+     * The segments of the colors of the tiles, each holding whole tiles
+     */
+    private final List<MappedByteBuffer> segments = new ArrayList<>();
+    /**
+     * The segment of each tile, and the position of its colors in the segment
+     */
+    private final int[] segmentOf, positionOf;
+    /**
+     * Whether the file held the finished tiles of the same render when it was opened
+     */
+    private final boolean resumed;
+    /**
+     * The time of the last forcing of the writes to the disk
+     */
+    private volatile long forced = System.nanoTime();
+
+    /**
+     * Opens a checkpoint file, creating it if it doesn't exist or belongs to another render
+     *
+     * @param file        the file
+     * @param nX          the number of pixels in a row
+     * @param nY          the number of pixels in a column
+     * @param tileSize    the edge length of a tile in pixels, see {@link Tile#split(int, int, int)}
+     * @param fingerprint identifies the scene and the camera of the render
+     * @throws IOException if the file cannot be opened or mapped
+     */
+    Checkpoint(Path file, int nX, int nY, int tileSize, long fingerprint) throws IOException {
+        this.nX = nX;
+        this.nY = nY;
+        this.tileSize = tileSize;
+        this.tilesInRow = (nX + tileSize - 1) / tileSize;
+        List<Tile> tiles = Tile.split(nX, nY, tileSize);
+        segmentOf = new int[tiles.size()];
+        positionOf = new int[tiles.size()];
+
+        // the segments are packed with whole tiles
+        List<Long> segmentSizes = new ArrayList<>();
+        long segmentSize = 0;
+        for (int t = 0; t < tiles.size(); ++t) {
+            long size = tiles.get(t).width * tiles.get(t).height * 12L;
+            if (segmentSize + size > SEGMENT_LIMIT) {
+                segmentSizes.add(segmentSize);
+                segmentSize = 0;
+            }
+            segmentOf[t] = segmentSizes.size();
+            positionOf[t] = (int) segmentSize;
+            segmentSize += size;
+        }
+        segmentSizes.add(segmentSize);
+
+        long flagsSize = HEADER + tiles.size();
+        long fileSize = flagsSize;
+        for (long size : segmentSizes)
+            fileSize += size;
+        try (FileChannel channel = FileChannel.open(file, CREATE, READ, WRITE)) {
+            boolean sameSize = channel.size() == fileSize;
+            if (!sameSize)
+                channel.truncate(0);
+            flags = channel.map(FileChannel.MapMode.READ_WRITE, 0, flagsSize);
+            resumed = sameSize && flags.getInt(0) == MAGIC && flags.getInt(4) == VERSION
+                    && flags.getInt(8) == nX && flags.getInt(12) == nY && flags.getInt(16) == tileSize
+                    && flags.getLong(20) == fingerprint;
+            if (!resumed) {
+                for (int t = 0; t < tiles.size(); ++t)
+                    flags.put(HEADER + t, (byte) 0);
+                flags.putInt(0, MAGIC).putInt(4, VERSION).putInt(8, nX).putInt(12, nY).putInt(16, tileSize)
+                        .putLong(20, fingerprint);
+            }
+            long position = flagsSize;
+            for (long size : segmentSizes) {
+                segments.add(channel.map(FileChannel.MapMode.READ_WRITE, position, size));
+                position += size;
+            }
+        }
+    }
+
+    /**
+     * Whether the file held the finished tiles of the same render when it was opened
+     *
+     * @return true if the render is resumed
+     */
+    boolean isResumed() {
+        return resumed;
+    }
+
+    /**
+     * Checks whether a tile was saved
+     *
+     * @param tile the tile
+     * @return true if the tile is finished
+     */
+    boolean isDone(Tile tile) {
+        return flags.get(HEADER + index(tile)) != 0;
+    }
+
+    /**
+     * Saves the colors of a finished tile
+     *
+     * @param tile        the tile
+     * @param frameBuffer the frame buffer holding the colors of the tile
+     */
+    void save(Tile tile, FrameBuffer frameBuffer) {
+        int t = index(tile);
+        MappedByteBuffer segment = segments.get(segmentOf[t]);
+        int p = positionOf[t];
+        for (int y = tile.y0; y < tile.y0 + tile.height; ++y)
+            for (int x = tile.x0; x < tile.x0 + tile.width; ++x, p += 12) {
+                Color color = frameBuffer.get(x, y);
+                segment.putFloat(p, (float) color.getRed());
+                segment.putFloat(p + 4, (float) color.getGreen());
+                segment.putFloat(p + 8, (float) color.getBlue());
+            }
+        flags.put(HEADER + t, (byte) 1);
+        long now = System.nanoTime();
+        if (now - forced > FORCE_INTERVAL)
+            force(now);
+    }
+
+    /**
+     * Loads the colors of a finished tile into a frame buffer
+     *
+     * @param tile        the tile
+     * @param frameBuffer the frame buffer
+     */
+    void load(Tile tile, FrameBuffer frameBuffer) {
+        int t = index(tile);
+        MappedByteBuffer segment = segments.get(segmentOf[t]);
+        int p = positionOf[t];
+        for (int y = tile.y0; y < tile.y0 + tile.height; ++y)
+            for (int x = tile.x0; x < tile.x0 + tile.width; ++x, p += 12)
+                frameBuffer.set(x, y, new Color(segment.getFloat(p), segment.getFloat(p + 4), segment.getFloat(p + 8)));
+    }
+
+    /**
+     * Forces the writes to the disk
+     */
+    @Override
+    public void close() {
+        force(System.nanoTime());
+    }
+
+    /**
+     * Forces the writes to the disk, once at a time
+     *
+     * @param now the current time
+     */
+    private synchronized void force(long now) {
+        for (MappedByteBuffer segment : segments)
+            segment.force();
+        flags.force();
+        forced = now;
+    }
+
+    /**
+     * Finds the index of a tile in the order of {@link Tile#split(int, int, int)}
+     *
+     * @param tile the tile
+     * @return the index
+     * @throws IllegalArgumentException if the tile is not a tile of the image
+     */
+    private int index(Tile tile) {
+        if (tile.x0 % tileSize != 0 || tile.y0 % tileSize != 0 || tile.x0 < 0 || tile.x0 >= nX
+                || tile.y0 < 0 || tile.y0 >= nY)
+            throw new IllegalArgumentException("Not a tile of the image: " + tile);
+        return tile.y0 / tileSize * tilesInRow + tile.x0 / tileSize;
+    }
+}
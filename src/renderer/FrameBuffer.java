@@ -0,0 +1,187 @@
+package renderer;
+
+import primitives.Color;
+
+/**
+ * class FrameBuffer holds the colors of the pixels of an image in high dynamic range,
+ * as three floats (red, green, blue) per pixel in one primitive array, without the upper
+ * limit of 255. The colors are converted to 8 bits per component only when the image is written.
+ * <p>
+ * There is no locking: render threads may write to different pixels in parallel, as the
+ * pixels are distinct array elements. Writes to the same pixel from several threads are not
+ * synchronized, and the writes are seen by other threads once the render threads are joined.
+ *
+ * @author Avraham Hassson
+ */
+public class FrameBuffer {
+    /**
+     * The number of pixels in a row and in a column
+     */
+    private final int nX, nY;
+    /**
+     * The red, green and blue components of each pixel, row after row
+     */
+    private final float[] rgb;
+
+    /**
+     * Constructor to initialize a black FrameBuffer based on the resolution of the image
+     *
+     * @param nX The number of pixels in a row.
+     * @param nY The number of pixels in a column.
+     * @throws IllegalArgumentException if the resolution is negative
+     */
+    public FrameBuffer(int nX, int nY) {
+        if (nX < 0 || nY < 0)
+            throw new IllegalArgumentException("The resolution cannot be negative");
+        this.nX = nX;
+        this.nY = nY;
+        this.rgb = new float[nX * nY * 3];
+    }
+
+    /**
+     * getter for the number of pixels in a row
+     *
+     * @return the number of pixels in a row
+     */
+    public int getNx() {
+        return nX;
+    }
+
+    /**
+     * getter for the number of pixels in a column
+     *
+     * @return the number of pixels in a column
+     */
+    public int getNy() {
+        return nY;
+    }
+
+    /**
+     * Sets the color of a pixel
+     *
+     * @param x     X-axis index of the pixel
+     * @param y     Y-axis index of the pixel
+     * @param color the color
+     */
+    public void set(int x, int y, Color color) {
+        int p = index(x, y);
+        rgb[p] = (float) color.getRed();
+        rgb[p + 1] = (float) color.getGreen();
+        rgb[p + 2] = (float) color.getBlue();
+    }
+
+    /**
+     * Adds a color to the color of a pixel
+     *
+     * @param x     X-axis index of the pixel
+     * @param y     Y-axis index of the pixel
+     * @param color the color to add
+     */
+    public void add(int x, int y, Color color) {
+        int p = index(x, y);
+        rgb[p] += (float) color.getRed();
+        rgb[p + 1] += (float) color.getGreen();
+        rgb[p + 2] += (float) color.getBlue();
+    }
+
+    /**
+     * Gets the color of a pixel
+     *
+     * @param x X-axis index of the pixel
+     * @param y Y-axis index of the pixel
+     * @return the color, in high dynamic range
+     */
+    public Color get(int x, int y) {
+        int p = index(x, y);
+        return new Color(rgb[p], rgb[p + 1], rgb[p + 2]);
+    }
+
+    /**
+     * Converts the color of a pixel to 8 bits per component, components above 255 are set to 255
+     *
+     * @param x X-axis index of the pixel
+     * @param y Y-axis index of the pixel
+     * @return the RGB value of the pixel, packed as in {@link java.awt.Color#getRGB()}
+     */
+    public int getRGB(int x, int y) {
+        return toRGB(index(x, y));
+    }
+
+    /**
+     * Converts the colors of all the pixels to 8 bits per component, components above 255 are set to 255
+     *
+     * @return the RGB values of the pixels row after row, packed as in {@link java.awt.Color#getRGB()}
+     */
+    public int[] toRGB() {
+        int[] pixels = new int[nX * nY];
+        for (int i = 0; i < pixels.length; ++i)
+            pixels[i] = toRGB(i * 3);
+        return pixels;
+    }
+
+    /**
+     * The red, green and blue components of the pixels row after row - the array of the frame buffer itself,
+     * for copying whole rows without converting them
+     *
+     * @return the components of the pixels
+     */
+    float[] components() {
+        return rgb;
+    }
+
+    /**
+     * Copies the components of whole rows of pixels into the frame buffer
+     *
+     * @param y          the first row
+     * @param components the red, green and blue components of the pixels of the rows, row after row
+     * @throws IllegalArgumentException if the components are not of whole rows inside the image
+     */
+    void setRows(int y, float[] components) {
+        int row = nX * 3;
+        if (row == 0 || components.length % row != 0 || y < 0 || y + components.length / row > nY)
+            throw new IllegalArgumentException("The rows are out of the image");
+        System.arraycopy(components, 0, rgb, y * row, components.length);
+    }
+
+    /**
+     * Sets all the pixels to black
+     */
+    public void clear() {
+        java.util.Arrays.fill(rgb, 0);
+    }
+
+    /**
+     * Converts the color at an index of the array to 8 bits per component
+     *
+     * @param p the index of the red component
+     * @return the packed RGB value
+     */
+    private int toRGB(int p) {
+        return 0xFF000000 | component(rgb[p]) << 16 | component(rgb[p + 1]) << 8 | component(rgb[p + 2]);
+    }
+
+    /**
+     * Converts a component to 8 bits
+     *
+     * @param value the component
+     * @return the component, truncated to an integer from 0 to 255
+     */
+    private static int component(float value) {
+        int i = (int) value;
+        return i > 255 ? 255 : Math.max(i, 0);
+    }
+
+    /**
+     * Finds the index of the red component of a pixel
+     *
+     * @param x X-axis index of the pixel
+     * @param y Y-axis index of the pixel
+     * @return the index
+     * @throws IllegalArgumentException if the pixel is out of the image
+     */
+    private int index(int x, int y) {
+        if (x < 0 || x >= nX || y < 0 || y >= nY)
+            throw new IllegalArgumentException("The pixel is out of the image");
+        return (y * nX + x) * 3;
+    }
+}
@@ -2,18 +2,23 @@ package renderer;
 
 import primitives.Color;
 
-import javax.imageio.ImageIO;
-import java.awt.image.BufferedImage;
-import java.io.File;
+import java.io.BufferedOutputStream;
+import java.io.FileOutputStream;
 import java.io.IOException;
 import java.util.logging.Level;
 import java.util.logging.Logger;
+import java.util.zip.Deflater;
 
 /**
  * Image writer class combines accumulation of pixel color matrix and finally
- * producing a non-optimized jpeg image from this matrix. The class although is
+ * producing a png image from this matrix. The class although is
  * responsible for holding image related parameters of View Plane - pixel matrix
- * size and resolution
+ * size and resolution.
+ * <p>
+ * A streaming image writer holds only a band of rows in memory: the render writes the pixels of
+ * one band at a time and calls {@link #writeBand()}, which encodes the rows of the band straight
+ * into the png file and moves on to the next band. So the memory needed for the image is bounded
+ * by the band height instead of the whole image.
  *
  * @author Dan
  */
@@ -21,8 +26,33 @@ public class ImageWriter {
     private static final String FOLDER_PATH = System.getProperty("user.dir") + "/images";
     private int nX;
     private int nY;
-    private BufferedImage image;
+    private FrameBuffer frameBuffer;
     private String imageName;
+    /**
+     * The number of rows in a band of a streaming image writer, nY if the writer is not streaming
+     */
+    private final int bandHeight;
+    /**
+     * The row of the image of the first row of the frame buffer
+     */
+    private int bandStart = 0;
+    /**
+     * The encoder of the png file of a streaming image writer, open while the bands are written
+     */
+    private PngEncoder encoder = null;
+    /**
+     * Whether writing a band of a streaming image writer failed, which leaves the png file incomplete
+     */
+    private boolean failed = false;
+    private final boolean streaming;
+    /**
+     * The compression level of the png file
+     */
+    private int compressionLevel = Deflater.DEFAULT_COMPRESSION;
+    /**
+     * The number of threads compressing the png file
+     */
+    private int compressionThreads = Runtime.getRuntime().availableProcessors();
 
     private Logger logger = Logger.getLogger("ImageWriter");
 
@@ -31,7 +61,7 @@ public class ImageWriter {
     /**
      * Image Writer constructor accepting image name and View Plane parameters,
      *
-     * @param imageName the name of jpeg file
+     * @param imageName the name of png file
      * @param nX        amount of pixels by Width
      * @param nY        amount of pixels by height
      */
@@ -39,8 +69,53 @@ public class ImageWriter {
         this.imageName = imageName;
         this.nX = nX;
         this.nY = nY;
+        this.bandHeight = nY;
+        this.streaming = false;
 
-        image = new BufferedImage(nX, nY, BufferedImage.TYPE_INT_RGB);
+        frameBuffer = new FrameBuffer(nX, nY);
+    }
+
+    /**
+     * Streaming Image Writer constructor accepting image name, View Plane parameters
+     * and the number of rows held in memory
+     *
+     * @param imageName  the name of png file
+     * @param nX         amount of pixels by Width
+     * @param nY         amount of pixels by height
+     * @param bandHeight amount of rows in a band
+     * @throws IllegalArgumentException if the band height is not positive
+     */
+    public ImageWriter(String imageName, int nX, int nY, int bandHeight) {
+        if (bandHeight <= 0)
+            throw new IllegalArgumentException("The band height must be greater than zero");
+        this.imageName = imageName;
+        this.nX = nX;
+        this.nY = nY;
+        this.bandHeight = Math.min(bandHeight, nY);
+        this.streaming = true;
+
+        frameBuffer = new FrameBuffer(nX, this.bandHeight);
+    }
+
+    /**
+     * Image Writer constructor of a band of an image: it holds the rows [bandStart, bandStart + bandHeight)
+     * of the image in memory, for rendering a part of an image (by a {@link RenderWorker}),
+     * and doesn't write a file.
+     *
+     * @param nX         amount of pixels by Width
+     * @param nY         amount of pixels by height
+     * @param bandStart  the first row of the band
+     * @param bandHeight amount of rows in the band
+     */
+    ImageWriter(int nX, int nY, int bandStart, int bandHeight) {
+        this.imageName = null;
+        this.nX = nX;
+        this.nY = nY;
+        this.bandStart = bandStart;
+        this.bandHeight = bandHeight;
+        this.streaming = false;
+
+        frameBuffer = new FrameBuffer(nX, bandHeight);
     }
 
     // ***************** Getters/Setters ********************** //
@@ -63,32 +138,169 @@ public class ImageWriter {
         return nX;
     }
 
+    /**
+     * Whether the image is written band by band
+     *
+     * @return true if the image writer is streaming
+     */
+    public boolean isStreaming() {
+        return streaming;
+    }
+
+    /**
+     * The number of rows held in memory
+     *
+     * @return the amount of rows in a band, the amount of vertical pixels if the writer is not streaming
+     */
+    public int getBandHeight() {
+        return bandHeight;
+    }
+
+    /**
+     * Sets the compression level of the png file, trading the size of the file for the time of writing it
+     *
+     * @param level the compression level, from 0 (no compression, fastest) to 9 (smallest file, slowest),
+     *              or {@link Deflater#DEFAULT_COMPRESSION}
+     * @return the image writer itself
+     * @throws IllegalArgumentException if the level is illegal
+     */
+    public ImageWriter setCompressionLevel(int level) {
+        if ((level < 0 || level > 9) && level != Deflater.DEFAULT_COMPRESSION)
+            throw new IllegalArgumentException("The compression level must be from 0 to 9");
+        this.compressionLevel = level;
+        return this;
+    }
+
+    /**
+     * Sets the number of threads compressing the png file, by default the number of processors
+     *
+     * @param threads the number of threads
+     * @return the image writer itself
+     * @throws IllegalArgumentException if the number of threads is not positive
+     */
+    public ImageWriter setCompressionThreads(int threads) {
+        if (threads <= 0)
+            throw new IllegalArgumentException("The number of threads must be greater than zero");
+        this.compressionThreads = threads;
+        return this;
+    }
+
+    /**
+     * The high dynamic range pixel colors, which render threads may write to in parallel.
+     * The frame buffer of a streaming image writer holds the current band only.
+     *
+     * @return the frame buffer of the image
+     */
+    public FrameBuffer getFrameBuffer() {
+        return frameBuffer;
+    }
+
     // ***************** Operations ******************** //
 
     /**
-     * Function writeToImage produces unoptimized png file of the image according to
-     * pixel color matrix in the directory of the project
+     * Function writeToImage produces png file of the image according to
+     * pixel color matrix in the directory of the project.
+     * The colors are converted to 8 bits per component here, once per pixel,
+     * and the image data is compressed in parallel, see {@link #setCompressionThreads(int)}.
+     * A streaming image writer writes the bands that are left, and then the file is complete.
      */
     public void writeToImage() {
+        if (imageName == null)
+            throw new UnsupportedOperationException("A band of an image is not written to a file");
+        if (streaming) {
+            while (bandStart < nY)
+                writeBand();
+            return;
+        }
+        try {
+            PngEncoder png = openEncoder();
+            try {
+                png.writeRows(frameBuffer.toRGB(), 0, nY);
+            } catch (IOException | RuntimeException e) {
+                png.abandon(e);
+                throw e;
+            }
+            png.close();
+        } catch (IOException e) {
+            logger.log(Level.SEVERE, "I/O error", e);
+            throw new IllegalStateException("I/O error - may be missing directory " + FOLDER_PATH, e);
+        }
+    }
+
+    /**
+     * Function writeBand encodes the rows of the current band of a streaming image writer into
+     * the png file, and clears the frame buffer for the next band. The file is completed after the last band.
+     * If writing a band fails, the file is closed incomplete and no more bands can be written.
+     *
+     * @throws IllegalStateException if the image writer is not streaming, all the bands were written,
+     *                               or writing an earlier band failed
+     */
+    public void writeBand() {
+        if (!streaming)
+            throw new IllegalStateException("The image writer is not streaming");
+        if (bandStart >= nY)
+            throw new IllegalStateException("All the bands of the image were already written");
+        if (failed)
+            throw new IllegalStateException("Writing an earlier band of the image failed");
+        int rows = Math.min(bandHeight, nY - bandStart);
         try {
-            File file = new File(FOLDER_PATH + '/' + imageName + ".png");
-            ImageIO.write(image, "png", file);
+            if (encoder == null)
+                encoder = openEncoder();
+            try {
+                encoder.writeRows(frameBuffer.toRGB(), 0, rows);
+            } catch (IOException | RuntimeException e) {
+                encoder.abandon(e);
+                encoder = null;
+                failed = true;
+                throw e;
+            }
+            bandStart += rows;
+            frameBuffer.clear();
+            if (bandStart == nY) {
+                // the encoder is released even if finishing the file fails
+                PngEncoder png = encoder;
+                encoder = null;
+                png.close();
+            }
         } catch (IOException e) {
             logger.log(Level.SEVERE, "I/O error", e);
             throw new IllegalStateException("I/O error - may be missing directory " + FOLDER_PATH, e);
         }
     }
 
+    /**
+     * Opens the png file of the image
+     *
+     * @return the encoder writing the file
+     * @throws IOException if the file cannot be opened
+     */
+    private PngEncoder openEncoder() throws IOException {
+        return new PngEncoder(new BufferedOutputStream(new FileOutputStream(FOLDER_PATH + '/' + imageName + ".png")),
+                nX, nY, compressionLevel, compressionThreads);
+    }
+
     /**
      * function writePixel writes a color of a specific pixel into pixel color
-     * matrix
+     * matrix. Render threads may write different pixels in parallel.
+     * A streaming image writer accepts only the pixels of the current band.
      *
      * @param xIndex X-axis index of the pixel
      * @param yIndex Y-axis index of the pixel
      * @param color  final color of the pixel
      */
     public void writePixel(int xIndex, int yIndex, Color color) {
-        image.setRGB(xIndex, yIndex, color.getColor().getRGB());
+        frameBuffer.set(xIndex, yIndex - bandStart, color);
+    }
+
+    /**
+     * function getPixel reads the color already written to a specific pixel
+     *
+     * @param xIndex X-axis index of the pixel
+     * @param yIndex Y-axis index of the pixel
+     * @return the RGB value of the pixel, packed as in {@link java.awt.Color#getRGB()}
+     */
+    int getPixel(int xIndex, int yIndex) {
+        return frameBuffer.getRGB(xIndex, yIndex - bandStart);
     }
 
 }
@@ -0,0 +1,22 @@
+package renderer;
+
+/**
+ * interface PassListener is notified after each pass of a progressive render
+ * (see {@link Camera#renderProgressive(PassListener)}), on the rendering thread, when the
+ * image writer holds a complete preview of the image: the listener may show it, save it
+ * with {@link ImageWriter#writeToImage()}, or copy its frame buffer.
+ *
+ * @author Avraham Hassson
+ */
+@FunctionalInterface
+public interface PassListener {
+    /**
+     * Called after a pass of a progressive render
+     *
+     * @param pass        the number of the pass, from 0
+     * @param last        whether it is the last pass, which completes the image
+     * @param imageWriter the image writer holding the image
+     * @return true to go on with the next pass, false to stop the render
+     */
+    boolean passFinished(int pass, boolean last, ImageWriter imageWriter);
+}
@@ -0,0 +1,462 @@
+package renderer;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.zip.Adler32;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+
+/**
+ * class PngEncoder writes an 8 bits RGB PNG image to a stream a group of scanlines at a time,
+ * so an image of any size is written without holding more than the group in memory.
+ * Each scanline is filtered by the filter (None, Sub, Up, Average or Paeth) that gives it the
+ * smallest sum of absolute differences.
+ * <p>
+ * The filtered scanlines are split into segments of about {@link #SEGMENT_SIZE} bytes, which are
+ * filtered and compressed in parallel. Each segment is compressed by its own deflater, primed with
+ * the last 32K bytes before it as a dictionary, and ends at a byte boundary (a sync flush), so the
+ * compressed segments are simply concatenated into one zlib stream. The checksum of the stream is
+ * combined from the checksums of the segments. The stream is written in IDAT chunks of at most
+ * {@link #CHUNK_SIZE} bytes.
+ *
+ * @author Avraham Hassson
+ */
+class PngEncoder {
+    /**
+     * The signature at the start of every PNG file
+     */
+    private static final byte[] SIGNATURE = {(byte) 0x89, 'P', 'N', 'G', '\r', '\n', 0x1A, '\n'};
+    /**
+     * The maximal size of the data of an IDAT chunk
+     */
+    static final int CHUNK_SIZE = 1 << 16;
+    /**
+     * The size of the filtered data of a segment compressed by one thread
+     */
+    static final int SEGMENT_SIZE = 1 << 17;
+    /**
+     * The size of the window of deflate, the amount of data a segment refers back to
+     */
+    private static final int WINDOW = 1 << 15;
+    /**
+     * The modulus of the Adler-32 checksum
+     */
+    private static final int ADLER_BASE = 65521;
+    /**
+     * The number of bytes of a pixel
+     */
+    private static final int PIXEL = 3;
+
+    /**
+     * The stream of the file
+     */
+    private final OutputStream out;
+    /**
+     * The stream of the compressed image data, written to the file in IDAT chunks
+     */
+    private final OutputStream data;
+    /**
+     * The size of the image in pixels
+     */
+    private final int width, height;
+    /**
+     * The compression level, as in {@link Deflater#setLevel(int)}
+     */
+    private final int level;
+    /**
+     * The threads compressing the segments, null to compress them in the calling thread
+     */
+    private final ForkJoinPool pool;
+    /**
+     * The last scanline written, unfiltered
+     */
+    private byte[] previous;
+    /**
+     * The end of the filtered data written, the dictionary of the next segment
+     */
+    private byte[] dictionary = new byte[0];
+    /**
+     * The Adler-32 checksum of the filtered data written
+     */
+    private int adler = 1;
+    /**
+     * The number of scanlines written
+     */
+    private int rows = 0;
+
+    /**
+     * Constructor to initialize PngEncoder, writes the header of the image to the stream
+     *
+     * @param out     the stream to write the image to, closed when the encoder is closed
+     * @param width   the number of pixels in a row
+     * @param height  the number of pixels in a column
+     * @param level   the compression level, from 0 (no compression) to 9 (best compression),
+     *                or {@link Deflater#DEFAULT_COMPRESSION}
+     * @param threads the number of threads compressing the image data
+     * @throws IllegalArgumentException if the size or the number of threads is not positive,
+     *                                  or the level is illegal
+     * @throws IOException              if writing to the stream fails
+     */
+    PngEncoder(OutputStream out, int width, int height, int level, int threads) throws IOException {
+        if (width <= 0 || height <= 0)
+            throw new IllegalArgumentException("The size of a PNG image must be greater than zero");
+        if ((level < 0 || level > 9) && level != Deflater.DEFAULT_COMPRESSION)
+            throw new IllegalArgumentException("The compression level must be from 0 to 9");
+        if (threads <= 0)
+            throw new IllegalArgumentException("The number of threads must be greater than zero");
+        this.out = out;
+        this.width = width;
+        this.height = height;
+        this.level = level;
+        this.pool = threads == 1 ? null : new ForkJoinPool(threads);
+        previous = new byte[width * PIXEL];
+        data = new BufferedOutputStream(new ChunkStream(), CHUNK_SIZE);
+
+        try {
+            out.write(SIGNATURE);
+            byte[] header = new byte[13];
+            putInt(header, 0, width);
+            putInt(header, 4, height);
+            header[8] = 8; // bits per component
+            header[9] = 2; // RGB, no palette and no alpha
+            // compression, filter and interlace methods are all 0
+            writeChunk("IHDR", header, 0, header.length);
+
+            // the zlib header: deflate with a 32K window, and the compression level for information
+            int method = 0x78;
+            int flags = (level == Deflater.DEFAULT_COMPRESSION ? 2 : level < 2 ? 0 : level < 6 ? 1 : level == 6 ? 2 : 3) << 6;
+            flags += 31 - (method << 8 | flags) % 31;
+            data.write(method);
+            data.write(flags);
+        } catch (IOException | RuntimeException e) {
+            abandon(e);
+            throw e;
+        }
+    }
+
+    /**
+     * Writes the next scanlines of the image
+     *
+     * @param pixels the RGB values of the pixels row after row, packed as in {@link java.awt.Color#getRGB()}
+     * @param offset the index of the first pixel of the first scanline in the array
+     * @param count  the number of scanlines
+     * @throws IllegalStateException if there are not so many scanlines left in the image
+     * @throws IOException           if writing to the stream fails
+     */
+    void writeRows(int[] pixels, int offset, int count) throws IOException {
+        if (count > height - rows)
+            throw new IllegalStateException("Only " + (height - rows) + " rows are left in the image");
+        if (count <= 0)
+            return;
+        int rowsPerSegment = Math.max(1, SEGMENT_SIZE / (width * PIXEL + 1));
+
+        List<Callable<byte[]>> filters = new ArrayList<>();
+        for (int first = 0; first < count; first += rowsPerSegment) {
+            int from = first, to = Math.min(first + rowsPerSegment, count);
+            byte[] above = first == 0 ? previous : null;
+            filters.add(() -> filter(pixels, offset, from, to, above));
+        }
+        List<byte[]> segments = invokeAll(filters);
+
+        List<Callable<byte[]>> compressions = new ArrayList<>();
+        for (int s = 0; s < segments.size(); ++s) {
+            byte[] segment = segments.get(s);
+            byte[] before = s == 0 ? dictionary : segments.get(s - 1);
+            compressions.add(() -> compress(segment, before));
+        }
+        List<byte[]> compressed = invokeAll(compressions);
+
+        for (int s = 0; s < segments.size(); ++s) {
+            data.write(compressed.get(s));
+            byte[] segment = segments.get(s);
+            Adler32 checksum = new Adler32();
+            checksum.update(segment);
+            adler = combineAdler(adler, (int) checksum.getValue(), segment.length);
+        }
+        byte[] last = segments.get(segments.size() - 1);
+        dictionary = Arrays.copyOfRange(last, Math.max(0, last.length - WINDOW), last.length);
+        previous = toBytes(pixels, offset + (count - 1) * width, new byte[width * PIXEL]);
+        rows += count;
+    }
+
+    /**
+     * Finishes the image and closes the stream
+     *
+     * @throws IllegalStateException if not all the scanlines were written
+     * @throws IOException           if writing to the stream fails
+     */
+    void close() throws IOException {
+        try {
+            if (rows != height)
+                throw new IllegalStateException("Only " + rows + " of " + height + " rows of the image were written");
+            // an empty final block ends the deflate stream, and the checksum ends the zlib stream
+            Deflater deflater = new Deflater(level, true);
+            try {
+                deflater.finish();
+                byte[] buffer = new byte[16];
+                data.write(buffer, 0, deflater.deflate(buffer));
+            } finally {
+                deflater.end();
+            }
+            byte[] number = new byte[4];
+            putInt(number, 0, adler);
+            data.write(number);
+            data.flush();
+            writeChunk("IEND", new byte[0], 0, 0);
+        } finally {
+            if (pool != null)
+                pool.shutdown();
+            out.close();
+        }
+    }
+
+    /**
+     * Gives up the image after a failure: stops the threads of the encoder and closes the stream,
+     * leaving the image incomplete. An error closing the stream is added to the failure as suppressed.
+     *
+     * @param cause the failure
+     */
+    void abandon(Throwable cause) {
+        if (pool != null)
+            pool.shutdownNow();
+        try {
+            out.close();
+        } catch (IOException e) {
+            cause.addSuppressed(e);
+        }
+    }
+
+    /**
+     * Runs tasks on the threads of the encoder, or in the calling thread if there is a single task or thread
+     *
+     * @param tasks the tasks
+     * @return the results of the tasks, in their order
+     * @throws IOException if a task fails
+     */
+    private List<byte[]> invokeAll(List<Callable<byte[]>> tasks) throws IOException {
+        List<byte[]> results = new ArrayList<>(tasks.size());
+        try {
+            if (pool == null || tasks.size() == 1)
+                for (Callable<byte[]> task : tasks)
+                    results.add(task.call());
+            else
+                for (Future<byte[]> future : pool.invokeAll(tasks))
+                    results.add(future.get());
+        } catch (ExecutionException e) {
+            throw new IOException("Encoding the image failed", e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Encoding the image was interrupted", e);
+        } catch (Exception e) {
+            throw new IOException("Encoding the image failed", e);
+        }
+        return results;
+    }
+
+    /**
+     * Filters a range of scanlines, each by the filter that gives it the smallest sum of absolute differences
+     *
+     * @param pixels the RGB values of the pixels row after row
+     * @param offset the index of the first pixel of the first scanline in the array
+     * @param from   the first scanline of the range
+     * @param to     the scanline after the range
+     * @param above  the scanline above the range unfiltered, or null to take it from the array
+     * @return the filtered scanlines, each starting with its filter type
+     */
+    private byte[] filter(int[] pixels, int offset, int from, int to, byte[] above) {
+        int rowSize = width * PIXEL;
+        byte[] result = new byte[(to - from) * (rowSize + 1)];
+        byte[] row = new byte[rowSize];
+        byte[] up = above != null ? above : toBytes(pixels, offset + (from - 1) * width, new byte[rowSize]);
+        byte[] sub = new byte[rowSize], upper = new byte[rowSize], average = new byte[rowSize], paeth = new byte[rowSize];
+        for (int r = from; r < to; ++r) {
+            toBytes(pixels, offset + r * width, row);
+            long sumNone = 0, sumSub = 0, sumUp = 0, sumAverage = 0, sumPaeth = 0;
+            for (int i = 0; i < rowSize; ++i) {
+                int x = row[i] & 0xFF;
+                int a = i < PIXEL ? 0 : row[i - PIXEL] & 0xFF;
+                int b = up[i] & 0xFF;
+                int c = i < PIXEL ? 0 : up[i - PIXEL] & 0xFF;
+                byte value = (byte) (x - a);
+                sub[i] = value;
+                sumSub += Math.abs(value);
+                value = (byte) (x - b);
+                upper[i] = value;
+                sumUp += Math.abs(value);
+                value = (byte) (x - ((a + b) >> 1));
+                average[i] = value;
+                sumAverage += Math.abs(value);
+                value = (byte) (x - paethPredictor(a, b, c));
+                paeth[i] = value;
+                sumPaeth += Math.abs(value);
+                sumNone += Math.abs((byte) x);
+            }
+            int best = 0;
+            long bestSum = sumNone;
+            if (sumSub < bestSum) { best = 1; bestSum = sumSub; }
+            if (sumUp < bestSum) { best = 2; bestSum = sumUp; }
+            if (sumAverage < bestSum) { best = 3; bestSum = sumAverage; }
+            if (sumPaeth < bestSum) best = 4;
+            byte[] filtered = switch (best) {
+                case 1 -> sub;
+                case 2 -> upper;
+                case 3 -> average;
+                case 4 -> paeth;
+                default -> row;
+            };
+            int start = (r - from) * (rowSize + 1);
+            result[start] = (byte) best;
+            System.arraycopy(filtered, 0, result, start + 1, rowSize);
+            byte[] swap = up;
+            up = row;
+            row = swap;
+        }
+        return result;
+    }
+
+    /**
+     * Compresses a segment of filtered data into deflate blocks ending at a byte boundary
+     *
+     * @param segment the filtered data
+     * @param before  the filtered data before the segment, its last 32K bytes are the dictionary
+     * @return the compressed data
+     */
+    private byte[] compress(byte[] segment, byte[] before) {
+        Deflater deflater = new Deflater(level, true);
+        try {
+            int length = Math.min(before.length, WINDOW);
+            if (length > 0)
+                deflater.setDictionary(before, before.length - length, length);
+            deflater.setInput(segment);
+            ByteArrayOutputStream result = new ByteArrayOutputStream(segment.length / 2 + 64);
+            byte[] buffer = new byte[CHUNK_SIZE];
+            int n;
+            do {
+                n = deflater.deflate(buffer, 0, buffer.length, Deflater.SYNC_FLUSH);
+                result.write(buffer, 0, n);
+            } while (n == buffer.length);
+            return result.toByteArray();
+        } finally {
+            deflater.end();
+        }
+    }
+
+    /**
+     * Combines the Adler-32 checksums of two consecutive blocks of data
+     *
+     * @param adler1  the checksum of the first block
+     * @param adler2  the checksum of the second block
+     * @param length2 the length of the second block
+     * @return the checksum of the concatenated blocks
+     */
+    static int combineAdler(int adler1, int adler2, long length2) {
+        long remainder = length2 % ADLER_BASE;
+        long sum1 = adler1 & 0xFFFF;
+        long sum2 = remainder * sum1 % ADLER_BASE;
+        sum1 += (adler2 & 0xFFFF) + ADLER_BASE - 1;
+        sum2 += (adler1 >>> 16) + (adler2 >>> 16) + ADLER_BASE - remainder;
+        sum1 %= ADLER_BASE;
+        sum2 %= ADLER_BASE;
+        return (int) (sum2 << 16 | sum1);
+    }
+
+    /**
+     * Unpacks the components of a scanline to bytes
+     *
+     * @param pixels the RGB values of the pixels
+     * @param offset the index of the first pixel of the scanline in the array
+     * @param row    the array to fill with the red, green and blue components of each pixel
+     * @return the filled array
+     */
+    private byte[] toBytes(int[] pixels, int offset, byte[] row) {
+        for (int x = 0, b = 0; x < width; ++x) {
+            int rgb = pixels[offset + x];
+            row[b++] = (byte) (rgb >> 16);
+            row[b++] = (byte) (rgb >> 8);
+            row[b++] = (byte) rgb;
+        }
+        return row;
+    }
+
+    /**
+     * The Paeth predictor of a byte: the neighbour closest to a + b - c
+     *
+     * @param a the byte to the left
+     * @param b the byte above
+     * @param c the byte above to the left
+     * @return the predicted byte
+     */
+    private static int paethPredictor(int a, int b, int c) {
+        int p = a + b - c;
+        int pa = Math.abs(p - a), pb = Math.abs(p - b), pc = Math.abs(p - c);
+        if (pa <= pb && pa <= pc) return a;
+        return pb <= pc ? b : c;
+    }
+
+    /**
+     * Writes a chunk: its length, type, data and CRC
+     *
+     * @param type   the type of the chunk
+     * @param bytes  the array holding the data of the chunk
+     * @param offset the index of the data in the array
+     * @param length the length of the data
+     * @throws IOException if writing to the stream fails
+     */
+    private void writeChunk(String type, byte[] bytes, int offset, int length) throws IOException {
+        byte[] typeBytes = type.getBytes(StandardCharsets.US_ASCII);
+        byte[] number = new byte[4];
+        putInt(number, 0, length);
+        out.write(number);
+        out.write(typeBytes);
+        out.write(bytes, offset, length);
+        CRC32 crc = new CRC32();
+        crc.update(typeBytes);
+        crc.update(bytes, offset, length);
+        putInt(number, 0, (int) crc.getValue());
+        out.write(number);
+    }
+
+    /**
+     * Writes an integer in big-endian order
+     *
+     * @param bytes  the array to write to
+     * @param offset the index of the first byte
+     * @param value  the integer
+     */
+    private static void putInt(byte[] bytes, int offset, int value) {
+        bytes[offset] = (byte) (value >>> 24);
+        bytes[offset + 1] = (byte) (value >>> 16);
+        bytes[offset + 2] = (byte) (value >>> 8);
+        bytes[offset + 3] = (byte) value;
+    }
+
+    /**
+     * The stream of the compressed data, written to the file as IDAT chunks
+     */
+    private class ChunkStream extends OutputStream {
+        @Override
+        public void write(int b) throws IOException {
+            write(new byte[]{(byte) b}, 0, 1);
+        }
+
+        @Override
+        public void write(byte[] bytes, int offset, int length) throws IOException {
+            while (length > 0) {
+                int size = Math.min(length, CHUNK_SIZE);
+                writeChunk("IDAT", bytes, offset, size);
+                offset += size;
+                length -= size;
+            }
+        }
+    }
+}
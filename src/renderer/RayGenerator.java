@@ -0,0 +1,151 @@
+package renderer;
+
+import primitives.Point;
+import primitives.Ray;
+import primitives.Vector;
+
+/**
+ * class RayGenerator creates the primary rays of a camera for one frame.
+ * The direction to the center of the first pixel and the steps between neighbouring pixels
+ * are calculated once from the camera and the resolution, so the direction of a pixel is
+ * found by a few multiplications and additions, without intermediate points and vectors.
+ * A generator is immutable, so render threads may share it.
+ *
+ * @author Avraham Hassson
+ */
+public class RayGenerator {
+    /**
+     * The location of the camera, the starting point of all the rays
+     */
+    private final Point p0;
+    /**
+     * The number of pixels in a row and in a column of the view plane
+     */
+    private final int nX, nY;
+    /**
+     * The direction (not normalized) from the camera to the center of pixel (0, 0)
+     */
+    private final double baseX, baseY, baseZ;
+    /**
+     * The step to the next pixel in a row (to the right)
+     */
+    private final double stepXx, stepXy, stepXz;
+    /**
+     * The step to the next row of pixels (down)
+     */
+    private final double stepYx, stepYy, stepYz;
+
+    /**
+     * Constructor to initialize RayGenerator based on a camera and a resolution
+     *
+     * @param camera the camera, with its view plane size and distance set
+     * @param nX     The number of pixels in a row in the view plane.
+     * @param nY     The number of pixels in a column in the view plane.
+     * @throws IllegalArgumentException if the resolution is not positive
+     */
+    public RayGenerator(Camera camera, int nX, int nY) {
+        if (nX <= 0 || nY <= 0)
+            throw new IllegalArgumentException("The resolution must be greater than zero");
+        this.p0 = camera.p0;
+        this.nX = nX;
+        this.nY = nY;
+        double rX = camera.viewPlaneW / nX;
+        double rY = camera.viewPlaneH / nY;
+        Vector vTo = camera.vTo, vRight = camera.vRight, vUp = camera.vUp;
+        // the offsets of the center of pixel (0, 0) from the center of the view plane
+        double xJ = -(nX - 1) / 2d * rX;
+        double yI = (nY - 1) / 2d * rY;
+        double d = camera.viewPlaneD;
+        baseX = vTo.getX() * d + vRight.getX() * xJ + vUp.getX() * yI;
+        baseY = vTo.getY() * d + vRight.getY() * xJ + vUp.getY() * yI;
+        baseZ = vTo.getZ() * d + vRight.getZ() * xJ + vUp.getZ() * yI;
+        stepXx = vRight.getX() * rX;
+        stepXy = vRight.getY() * rX;
+        stepXz = vRight.getZ() * rX;
+        stepYx = -vUp.getX() * rY;
+        stepYy = -vUp.getY() * rY;
+        stepYz = -vUp.getZ() * rY;
+    }
+
+    /**
+     * getter for the number of pixels in a row
+     *
+     * @return the number of pixels in a row
+     */
+    public int getNx() {
+        return nX;
+    }
+
+    /**
+     * getter for the number of pixels in a column
+     *
+     * @return the number of pixels in a column
+     */
+    public int getNy() {
+        return nY;
+    }
+
+    /**
+     * Creates the ray from the camera through the center of a pixel
+     *
+     * @param j The row number of the pixel.
+     * @param i The column number of the pixel.
+     * @return ray coming out of the Camera to the view plane.
+     */
+    public Ray constructRay(int j, int i) {
+        return new Ray(p0, baseX + stepYx * i + stepXx * j, baseY + stepYy * i + stepXy * j,
+                baseZ + stepYz * i + stepXz * j);
+    }
+
+    /**
+     * Creates the ray from the camera through any point of the view plane, in pixel units:
+     * the center of pixel (j, i) is at (j, i), and its corners are half a pixel away.
+     *
+     * @param x The position along the rows, in pixels.
+     * @param y The position along the columns, in pixels.
+     * @return ray coming out of the Camera to the view plane.
+     */
+    public Ray constructRay(double x, double y) {
+        return new Ray(p0, baseX + stepYx * y + stepXx * x, baseY + stepYy * y + stepXy * x,
+                baseZ + stepYz * y + stepXz * x);
+    }
+
+    /**
+     * Creates the rays through consecutive pixels of a scanline.
+     * The start of the scanline is calculated once, and each ray is one step further along it.
+     *
+     * @param i     The column number of the pixels.
+     * @param from  The row number of the first pixel.
+     * @param count The number of pixels.
+     * @param rays  The array to fill with the rays, from its start.
+     */
+    public void constructRays(int i, int from, int count, Ray[] rays) {
+        double rowX = baseX + stepYx * i, rowY = baseY + stepYy * i, rowZ = baseZ + stepYz * i;
+        for (int k = 0; k < count; ++k) {
+            int j = from + k;
+            rays[k] = new Ray(p0, rowX + stepXx * j, rowY + stepXy * j, rowZ + stepXz * j);
+        }
+    }
+
+    /**
+     * Calculates the unit directions of the rays through consecutive pixels of a scanline
+     * into a packed buffer (see {@link primitives.PackedVectors}), without creating any object.
+     * All the rays start at the location of the camera.
+     *
+     * @param i          The column number of the pixels.
+     * @param from       The row number of the first pixel.
+     * @param count      The number of pixels.
+     * @param directions The buffer to fill with the directions, from its start.
+     */
+    public void directions(int i, int from, int count, double[] directions) {
+        double rowX = baseX + stepYx * i, rowY = baseY + stepYy * i, rowZ = baseZ + stepYz * i;
+        for (int k = 0; k < count; ++k) {
+            int j = from + k;
+            double x = rowX + stepXx * j, y = rowY + stepXy * j, z = rowZ + stepXz * j;
+            double length = Math.sqrt(x * x + y * y + z * z);
+            directions[k * 3] = x / length;
+            directions[k * 3 + 1] = y / length;
+            directions[k * 3 + 2] = z / length;
+        }
+    }
+}
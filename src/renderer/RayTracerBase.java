@@ -3,6 +3,8 @@ package renderer;
 import primitives.*;
 import scene.Scene;
 
+import java.io.Serializable;
+
 
 /**
  * An abstract class that serves as a father to the RayTracerBasic class
@@ -10,7 +12,9 @@ import scene.Scene;
  *
  * @author Avraham Hassson
  */
-public abstract class RayTracerBase {
+public abstract class RayTracerBase implements Serializable {
+    private static final long serialVersionUID = 1L;
+
     /**
      * The scene for rendering.
      */
@@ -13,6 +13,14 @@ import static primitives.Util.alignZero;
  * @author Avraham Hassson
  */
 public class RayTracerBasic extends RayTracerBase {
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * The distance by which the starting point of a shadow ray is moved off the surface,
+     * so the ray doesn't hit the geometry it starts on.
+     */
+    private static final double DELTA = 0.1;
+
     /**
      * Constructor that takes a scene as a parameter and invokes the base class constructor.
      *
@@ -30,7 +38,7 @@ public class RayTracerBasic extends RayTracerBase {
      */
     @Override
     public Color traceRay(Ray ray) {
-        GeoPoint geoPoint = ray.findClosestGeoPoint(scene.geometries.findGeoIntersections(ray));
+        GeoPoint geoPoint = scene.geometries.findClosestGeoIntersection(ray);
         if (geoPoint == null)
             return scene.background;
         return this.calcColor(geoPoint, ray);
@@ -65,6 +73,26 @@ public class RayTracerBasic extends RayTracerBase {
     }
 
 
+    /**
+     * Checks whether nothing blocks the light between a light source and a point.
+     * A shadow ray is cast from the point (moved slightly off the surface, towards the light)
+     * to the light source, and only blockers closer than the light are looked for.
+     *
+     * @param gp    The point to check.
+     * @param light The light source.
+     * @param l     The direction from the light source to the point.
+     * @param n     The surface normal at the point.
+     * @param nl    The dot product of the surface normal and the light direction.
+     * @return true if the point is lit by the light source.
+     */
+    private boolean unshaded(GeoPoint gp, LightSource light, Vector l, Vector n, double nl) {
+        Vector lightDirection = l.scale(-1); // from the point to the light source
+        Vector epsVector = n.scale(nl < 0 ? DELTA : -DELTA);
+        Point point = gp.point.add(epsVector);
+        Ray lightRay = new Ray(point, lightDirection);
+        return !scene.geometries.hasIntersection(lightRay, light.getDistance(gp.point));
+    }
+
     /**
      * Calculates the local effects of lighting on a given geometric point.
      *
@@ -83,7 +111,7 @@ public class RayTracerBasic extends RayTracerBase {
         for (LightSource lightSource : scene.lights) {
             Vector l = lightSource.getL(gp.point);
             double nl = alignZero(n.dotProduct(l));
-            if (nl * nv > 0) { // sign(nl) == sign(nv)
+            if (nl * nv > 0 && unshaded(gp, lightSource, l, n, nl)) { // sign(nl) == sign(nv)
                 Color iL = lightSource.getIntensity(gp.point);
                 color = color.add(iL.scale(calcDiffusive(material, nl)),
                         iL.scale(calcSpecular(material, n, l, nl, v)));
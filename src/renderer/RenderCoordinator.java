@@ -0,0 +1,380 @@
+package renderer;
+
+import java.io.*;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketTimeoutException;
+import java.net.URISyntaxException;
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+import java.security.CodeSource;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * class RenderCoordinator renders the image of a camera by worker JVMs ({@link RenderWorker}),
+ * which it starts on the local machine and which connect to it over a local socket.
+ * <p>
+ * The camera, with its ray tracer and scene, is serialized once and sent to each worker.
+ * The image is split into tasks of whole rows of tiles. Each worker takes the next task whenever it
+ * is free and sends back the colors of its rows, which are copied into the image writer of the camera.
+ * When no task is left, a free worker steals a task still rendered by a busy worker and renders it too,
+ * and the first result wins, so a slow worker doesn't hold the whole render back.
+ * The tasks of a worker which dies are handed to the other workers.
+ *
+ * @author Avraham Hassson
+ */
+public class RenderCoordinator {
+    /**
+     * The time to wait for a connection before checking whether the workers are alive, in milliseconds
+     */
+    private static final int ACCEPT_TIMEOUT = 200;
+
+    /**
+     * The camera, with its ray tracer and image writer
+     */
+    private final Camera camera;
+    /**
+     * The number of worker JVMs
+     */
+    private int workers = 2;
+    /**
+     * The number of render threads of each worker, 0 for rendering sequentially
+     */
+    private int workerThreads = 0;
+    /**
+     * The number of rows of a task
+     */
+    private int rowsPerTask = 16;
+
+    private final Logger logger = Logger.getLogger("RenderCoordinator");
+
+    /**
+     * Constructor to initialize RenderCoordinator based on a camera
+     *
+     * @param camera the camera, with its ray tracer (which must be serializable) and image writer
+     */
+    public RenderCoordinator(Camera camera) {
+        this.camera = camera;
+    }
+
+    /**
+     * Setter for the number of worker JVMs started for the render (2 by default)
+     *
+     * @param workers the number of workers
+     * @return the coordinator itself
+     */
+    public RenderCoordinator setWorkers(int workers) {
+        if (workers <= 0)
+            throw new IllegalArgumentException("The number of workers must be greater than zero");
+        this.workers = workers;
+        return this;
+    }
+
+    /**
+     * Setter for the number of render threads of each worker, see {@link Camera#setMultithreading(int)}
+     *
+     * @param threads the number of threads, 0 (the default) for rendering sequentially
+     * @return the coordinator itself
+     */
+    public RenderCoordinator setWorkerThreads(int threads) {
+        if (threads < 0)
+            throw new IllegalArgumentException("The number of threads cannot be negative");
+        this.workerThreads = threads;
+        return this;
+    }
+
+    /**
+     * Setter for the number of rows of the image rendered by a task (16 by default)
+     *
+     * @param rows the number of rows
+     * @return the coordinator itself
+     */
+    public RenderCoordinator setRowsPerTask(int rows) {
+        if (rows <= 0)
+            throw new IllegalArgumentException("The number of rows must be greater than zero");
+        this.rowsPerTask = rows;
+        return this;
+    }
+
+    /**
+     * Renders the image of the camera into its image writer by the workers.
+     * Throws UnsupportedOperationException if any of the required resources of the camera are missing
+     * or its image writer is streaming, and IllegalStateException if all the workers die before the
+     * image is complete or the camera cannot be serialized.
+     */
+    public void render() {
+        camera.requireResources();
+        ImageWriter imageWriter = camera.getImageWriter();
+        if (imageWriter.isStreaming())
+            throw new UnsupportedOperationException("A streaming image cannot be rendered by workers");
+        int nX = imageWriter.getNx(), nY = imageWriter.getNy();
+        Scheduler scheduler = new Scheduler(imageWriter.getFrameBuffer(), nY);
+        if (scheduler.isDone())
+            return;
+        byte[] job = serialize();
+
+        List<Process> processes = new ArrayList<>();
+        AtomicInteger connected = new AtomicInteger();
+        try (ServerSocket server = new ServerSocket(0, workers, InetAddress.getLoopbackAddress())) {
+            server.setSoTimeout(ACCEPT_TIMEOUT);
+            for (int w = 0; w < workers; ++w)
+                processes.add(startWorker(server.getLocalPort()));
+            while (!scheduler.isDone()) {
+                try {
+                    Socket socket = server.accept();
+                    connected.incrementAndGet();
+                    Thread handler = new Thread(() -> {
+                        try {
+                            serve(socket, job, nX, nY, scheduler);
+                        } finally {
+                            connected.decrementAndGet();
+                        }
+                    }, "render worker " + socket.getPort());
+                    handler.setDaemon(true);
+                    handler.start();
+                } catch (SocketTimeoutException e) {
+                    if (connected.get() == 0 && processes.stream().noneMatch(Process::isAlive) && !scheduler.isDone())
+                        throw new IllegalStateException("All the render workers died before the image was complete");
+                }
+            }
+        } catch (IOException e) {
+            logger.log(Level.SEVERE, "I/O error", e);
+            throw new IllegalStateException("I/O error - cannot coordinate the render workers", e);
+        } finally {
+            processes.forEach(Process::destroy);
+        }
+    }
+
+    /**
+     * Serializes the camera with its ray tracer and scene, once for all the workers
+     *
+     * @return the serialized camera
+     */
+    private byte[] serialize() {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+            out.writeObject(camera);
+        } catch (IOException e) {
+            throw new IllegalStateException("The camera cannot be serialized", e);
+        }
+        return bytes.toByteArray();
+    }
+
+    /**
+     * Starts a worker JVM with the class path of this JVM
+     *
+     * @param port the port of the coordinator
+     * @return the process of the worker
+     * @throws IOException if the worker cannot be started
+     */
+    private Process startWorker(int port) throws IOException {
+        String java = Path.of(System.getProperty("java.home"), "bin", "java").toString();
+        return new ProcessBuilder(java, "-cp", classPath(), RenderWorker.class.getName(),
+                InetAddress.getLoopbackAddress().getHostAddress(), Integer.toString(port))
+                .redirectOutput(ProcessBuilder.Redirect.INHERIT)
+                .redirectError(ProcessBuilder.Redirect.INHERIT)
+                .start();
+    }
+
+    /**
+     * Builds the class path of the workers: the class path of this JVM, and the locations of the classes of
+     * the worker and the ray tracer, in case they were loaded by another class loader (such as of a test runner)
+     *
+     * @return the class path
+     */
+    private String classPath() {
+        Set<String> entries = new LinkedHashSet<>(List.of(System.getProperty("java.class.path").split(File.pathSeparator)));
+        for (Class<?> type : List.of(RenderWorker.class, camera.getRayTracer().getClass())) {
+            CodeSource source = type.getProtectionDomain().getCodeSource();
+            if (source != null && source.getLocation() != null)
+                try {
+                    entries.add(Path.of(source.getLocation().toURI()).toString());
+                } catch (URISyntaxException | IllegalArgumentException e) {
+                    logger.log(Level.WARNING, "Unknown location of " + type.getName(), e);
+                }
+        }
+        return String.join(File.pathSeparator, entries);
+    }
+
+    /**
+     * Serves a worker: sends it the job, and then the tasks one at a time, until no task is left.
+     * If the worker fails, its task is handed back to the scheduler.
+     *
+     * @param socket    the connection to the worker
+     * @param job       the serialized camera
+     * @param nX        the number of pixels in a row
+     * @param nY        the number of pixels in a column
+     * @param scheduler the scheduler of the tasks
+     */
+    private void serve(Socket socket, byte[] job, int nX, int nY, Scheduler scheduler) {
+        Task task = null;
+        try (socket;
+             DataInputStream in = new DataInputStream(new BufferedInputStream(socket.getInputStream()));
+             DataOutputStream out = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream()))) {
+            out.writeInt(nX);
+            out.writeInt(nY);
+            out.writeInt(workerThreads);
+            out.writeInt(job.length);
+            out.write(job);
+            out.flush();
+            while ((task = scheduler.next()) != null) {
+                out.writeInt(task.y0);
+                out.writeInt(task.y1);
+                out.flush();
+                byte[] bytes = new byte[(task.y1 - task.y0) * nX * 3 * Float.BYTES];
+                in.readFully(bytes);
+                float[] components = new float[bytes.length / Float.BYTES];
+                ByteBuffer.wrap(bytes).asFloatBuffer().get(components);
+                scheduler.complete(task, components);
+                task = null;
+            }
+            out.writeInt(-1);
+            out.flush();
+        } catch (IOException e) {
+            logger.log(Level.WARNING, "A render worker was lost, its task is handed to the other workers", e);
+        } finally {
+            if (task != null)
+                scheduler.release(task);
+        }
+    }
+
+    /**
+     * A task: a range of whole rows of the image
+     */
+    private static class Task {
+        /**
+         * The first row and the row after the last row
+         */
+        final int y0, y1;
+        /**
+         * The number of workers rendering the task
+         */
+        int runners = 0;
+        /**
+         * Whether the colors of the rows were received
+         */
+        boolean done = false;
+
+        /**
+         * Constructs a task of the rows [y0, y1)
+         *
+         * @param y0 the first row
+         * @param y1 the row after the last row
+         */
+        Task(int y0, int y1) {
+            this.y0 = y0;
+            this.y1 = y1;
+        }
+    }
+
+    /**
+     * The scheduler of the tasks, shared by the threads serving the workers
+     */
+    private class Scheduler {
+        /**
+         * The frame buffer of the image
+         */
+        private final FrameBuffer frameBuffer;
+        /**
+         * All the tasks, in the order they were handed out first
+         */
+        private final List<Task> tasks = new ArrayList<>();
+        /**
+         * The tasks not handed to any worker
+         */
+        private final Deque<Task> pending = new ArrayDeque<>();
+        /**
+         * The number of tasks done
+         */
+        private int done = 0;
+
+        /**
+         * Constructs a scheduler of the tasks of an image
+         *
+         * @param frameBuffer the frame buffer of the image
+         * @param nY          the number of pixels in a column
+         */
+        Scheduler(FrameBuffer frameBuffer, int nY) {
+            this.frameBuffer = frameBuffer;
+            for (int y = 0; y < nY; y += rowsPerTask) {
+                Task task = new Task(y, Math.min(y + rowsPerTask, nY));
+                tasks.add(task);
+                pending.add(task);
+            }
+        }
+
+        /**
+         * @return true if all the tasks are done
+         */
+        synchronized boolean isDone() {
+            return done == tasks.size();
+        }
+
+        /**
+         * Takes the next task for a free worker: a task not handed out yet, or else a task rendered by a single
+         * other worker, the earliest handed out first. Waits while there is no such task and some task isn't done.
+         *
+         * @return the task, or null if all the tasks are done
+         */
+        synchronized Task next() {
+            while (true) {
+                if (isDone())
+                    return null;
+                Task task = pending.poll();
+                if (task == null)
+                    for (Task running : tasks)
+                        if (!running.done && running.runners == 1) {
+                            task = running;
+                            break;
+                        }
+                if (task != null) {
+                    task.runners++;
+                    return task;
+                }
+                try {
+                    wait();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return null;
+                }
+            }
+        }
+
+        /**
+         * Copies the colors of the rows of a task into the frame buffer, unless another worker did it first
+         *
+         * @param task       the task
+         * @param components the components of the colors of the rows
+         */
+        synchronized void complete(Task task, float[] components) {
+            task.runners--;
+            if (!task.done) {
+                frameBuffer.setRows(task.y0, components);
+                task.done = true;
+                done++;
+            }
+            notifyAll();
+        }
+
+        /**
+         * Hands back the task of a worker which failed, unless another worker renders it
+         *
+         * @param task the task
+         */
+        synchronized void release(Task task) {
+            task.runners--;
+            if (!task.done && task.runners == 0)
+                pending.addFirst(task);
+            notifyAll();
+        }
+    }
+}
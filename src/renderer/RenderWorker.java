@@ -0,0 +1,57 @@
+package renderer;
+
+import java.io.*;
+import java.net.Socket;
+import java.nio.ByteBuffer;
+
+/**
+ * class RenderWorker is the main class of a worker JVM of a distributed render, started by a
+ * {@link RenderCoordinator}: it connects to the coordinator, receives the serialized camera,
+ * and renders the rows it is given until the coordinator has no more rows.
+ *
+ * @author Avraham Hassson
+ */
+public final class RenderWorker {
+    /**
+     * Don't let anyone instantiate this class.
+     */
+    private RenderWorker() {
+    }
+
+    /**
+     * Runs the worker
+     *
+     * @param args the host and the port of the coordinator
+     * @throws IOException            if the connection to the coordinator fails
+     * @throws ClassNotFoundException if the class path doesn't hold the classes of the camera
+     */
+    public static void main(String[] args) throws IOException, ClassNotFoundException {
+        if (args.length != 2)
+            throw new IllegalArgumentException("Usage: RenderWorker <host> <port>");
+        try (Socket socket = new Socket(args[0], Integer.parseInt(args[1]));
+             DataInputStream in = new DataInputStream(new BufferedInputStream(socket.getInputStream()));
+             DataOutputStream out = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream()))) {
+            int nX = in.readInt();
+            int nY = in.readInt();
+            int threads = in.readInt();
+            byte[] job = new byte[in.readInt()];
+            in.readFully(job);
+            Camera camera;
+            try (ObjectInputStream objects = new ObjectInputStream(new ByteArrayInputStream(job))) {
+                camera = (Camera) objects.readObject();
+            }
+            camera.setMultithreading(threads);
+
+            for (int y0 = in.readInt(); y0 >= 0; y0 = in.readInt()) {
+                int y1 = in.readInt();
+                ImageWriter band = new ImageWriter(nX, nY, y0, y1 - y0);
+                camera.setImageWriter(band).renderRows(y0, y1);
+                float[] components = band.getFrameBuffer().components();
+                ByteBuffer bytes = ByteBuffer.allocate(components.length * Float.BYTES);
+                bytes.asFloatBuffer().put(components);
+                out.write(bytes.array());
+                out.flush();
+            }
+        }
+    }
+}
@@ -0,0 +1,166 @@
+package renderer;
+
+import geometries.Geometries.Acceleration;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * class SequenceRenderer renders the frames of an animation, a camera moving along a {@link CameraPath}
+ * through a single scene, into numbered image files.
+ * <p>
+ * The acceleration structures of the scene are built once, before the first frame (a scene searched without
+ * acceleration is given the acceleration of the renderer), and the ray tracer is shared by all the frames. The tiles of several frames are rendered by a single pool of render threads,
+ * so the threads left idle at the end of a frame take the tiles of the next one. Each finished frame
+ * is encoded to its file on a thread of its own while the next frames are rendered.
+ *
+ * @author Avraham Hassson
+ */
+public class SequenceRenderer {
+    /**
+     * The camera of each frame
+     */
+    private final CameraPath path;
+    /**
+     * The ray tracer shared by the frames
+     */
+    private final RayTracerBase rayTracer;
+    /**
+     * The resolution of the frames
+     */
+    private int nX = 500, nY = 500;
+    /**
+     * The number of render threads, 0 for rendering sequentially
+     */
+    private int threads = Runtime.getRuntime().availableProcessors();
+    /**
+     * The most frames held in memory at once, rendered or encoded
+     */
+    private int framesInFlight = 2;
+    /**
+     * The acceleration given to a scene searched without acceleration
+     */
+    private Acceleration acceleration = Acceleration.FLAT_BVH;
+
+    /**
+     * Constructor to initialize SequenceRenderer based on a camera path and a ray tracer
+     *
+     * @param path      the camera of each frame
+     * @param rayTracer the ray tracer of the scene, shared by the frames
+     */
+    public SequenceRenderer(CameraPath path, RayTracerBase rayTracer) {
+        this.path = path;
+        this.rayTracer = rayTracer;
+    }
+
+    /**
+     * Setter for the resolution of the frames (500 x 500 by default)
+     *
+     * @param nX amount of pixels by width
+     * @param nY amount of pixels by height
+     * @return the sequence renderer itself
+     */
+    public SequenceRenderer setResolution(int nX, int nY) {
+        if (nX <= 0 || nY <= 0)
+            throw new IllegalArgumentException("The resolution must be greater than zero");
+        this.nX = nX;
+        this.nY = nY;
+        return this;
+    }
+
+    /**
+     * Setter for the number of render threads shared by the frames (the number of processors by default).
+     * The number of render threads of the cameras of the frames is ignored.
+     *
+     * @param threads the number of threads, 0 for rendering sequentially on the calling thread
+     * @return the sequence renderer itself
+     */
+    public SequenceRenderer setMultithreading(int threads) {
+        if (threads < 0)
+            throw new IllegalArgumentException("The number of threads cannot be negative");
+        this.threads = threads;
+        return this;
+    }
+
+    /**
+     * Setter for the most frames held in memory at once, being rendered or encoded (2 by default).
+     * More frames let the render threads move on to the next frames while the tail of a frame is rendered.
+     *
+     * @param frames the number of frames
+     * @return the sequence renderer itself
+     */
+    public SequenceRenderer setFramesInFlight(int frames) {
+        if (frames <= 0)
+            throw new IllegalArgumentException("The number of frames in flight must be greater than zero");
+        this.framesInFlight = frames;
+        return this;
+    }
+
+    /**
+     * Setter for the acceleration given to the top-level shapes of a scene which are searched without
+     * acceleration ({@link Acceleration#FLAT_BVH} by default), since the structure is built once for all
+     * the frames. A scene with an acceleration of its own keeps it.
+     *
+     * @param acceleration the acceleration, {@link Acceleration#NONE} for keeping the scene as it is
+     * @return the sequence renderer itself
+     */
+    public SequenceRenderer setAcceleration(Acceleration acceleration) {
+        if (acceleration == null)
+            throw new IllegalArgumentException("The acceleration cannot be null");
+        this.acceleration = acceleration;
+        return this;
+    }
+
+    /**
+     * Renders the frames of the animation into the files name_0000.png, name_0001.png, ...
+     * (see {@link ImageWriter#writeToImage()}).
+     * Throws UnsupportedOperationException if a camera of the path misses its view plane. If the render or the
+     * encoding of a frame fails, no more frames are started, and the failure is rethrown once the frames
+     * already started are done.
+     *
+     * @param name   the name of the animation
+     * @param frames the number of frames
+     */
+    public void render(String name, int frames) {
+        if (frames <= 0)
+            throw new IllegalArgumentException("The number of frames must be greater than zero");
+        if (rayTracer.scene.geometries.getAcceleration() == Acceleration.NONE)
+            rayTracer.scene.geometries.setAcceleration(acceleration);
+        rayTracer.scene.geometries.prepare();
+
+        ForkJoinPool pool = threads == 0 ? null : new ForkJoinPool(threads);
+        ExecutorService encoder = Executors.newSingleThreadExecutor();
+        Semaphore inFlight = new Semaphore(framesInFlight);
+        List<CompletableFuture<Void>> written = new ArrayList<>();
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+        try {
+            for (int frame = 0; frame < frames && failure.get() == null; ++frame) {
+                Camera camera = path.cameraAt(frame, frames).setRayTracer(rayTracer);
+                inFlight.acquireUninterruptibly();
+                ImageWriter imageWriter = new ImageWriter(String.format("%s_%04d", name, frame), nX, nY)
+                        .setCompressionThreads(1);
+                camera.setImageWriter(imageWriter).requireResources();
+                CompletableFuture<Void> rendered = pool == null
+                        ? CompletableFuture.runAsync(() -> camera.renderFrame(null), Runnable::run)
+                        : CompletableFuture.runAsync(() -> camera.renderFrame(pool), pool);
+                written.add(rendered.thenRunAsync(imageWriter::writeToImage, encoder)
+                        .whenComplete((result, thrown) -> {
+                            if (thrown != null)
+                                failure.compareAndSet(null, thrown);
+                            inFlight.release();
+                        }));
+            }
+            CompletableFuture.allOf(written.toArray(CompletableFuture<?>[]::new)).join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause)
+                throw cause;
+            throw e;
+        } finally {
+            encoder.shutdown();
+            if (pool != null)
+                pool.shutdown();
+        }
+    }
+}
@@ -0,0 +1,98 @@
+package renderer;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * class Tile represents a rectangular block of pixels of the view plane,
+ * the unit of work handed to the render threads
+ *
+ * @author Avraham Hassson
+ */
+public class Tile {
+    /**
+     * The column of the top-left pixel of the tile.
+     */
+    public final int x0;
+    /**
+     * The row of the top-left pixel of the tile.
+     */
+    public final int y0;
+    /**
+     * The width of the tile in pixels.
+     */
+    public final int width;
+    /**
+     * The height of the tile in pixels.
+     */
+    public final int height;
+
+    /**
+     * Constructor to initialize Tile based on its top-left pixel and its size.
+     *
+     * @param x0     The column of the top-left pixel.
+     * @param y0     The row of the top-left pixel.
+     * @param width  The width of the tile in pixels.
+     * @param height The height of the tile in pixels.
+     */
+    public Tile(int x0, int y0, int width, int height) {
+        if (width <= 0 || height <= 0)
+            throw new IllegalArgumentException("The width and height of a tile must be greater than zero");
+        this.x0 = x0;
+        this.y0 = y0;
+        this.width = width;
+        this.height = height;
+    }
+
+    /**
+     * Splits a view plane of nX * nY pixels into tiles of (at most) size * size pixels,
+     * ordered row by row from the top-left corner.
+     *
+     * @param nX   The number of pixels in a row in the view plane.
+     * @param nY   The number of pixels in a column in the view plane.
+     * @param size The edge length of a tile in pixels.
+     * @return the tiles covering the whole view plane.
+     */
+    public static List<Tile> split(int nX, int nY, int size) {
+        return splitRows(nX, 0, nY, size);
+    }
+
+    /**
+     * Splits the rows [y0, y1) of a view plane with nX pixels in a row into tiles of (at most)
+     * size * size pixels, ordered row by row from the top-left corner.
+     *
+     * @param nX   The number of pixels in a row in the view plane.
+     * @param y0   The first row.
+     * @param y1   The row after the last row.
+     * @param size The edge length of a tile in pixels.
+     * @return the tiles covering the rows.
+     */
+    public static List<Tile> splitRows(int nX, int y0, int y1, int size) {
+        if (size <= 0)
+            throw new IllegalArgumentException("The tile size must be greater than zero");
+        List<Tile> tiles = new ArrayList<>();
+        for (int y = y0; y < y1; y += size)
+            for (int x = 0; x < nX; x += size)
+                tiles.add(new Tile(x, y, Math.min(size, nX - x), Math.min(size, y1 - y)));
+        return tiles;
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj)
+            return true;
+        if (obj instanceof Tile other)
+            return x0 == other.x0 && y0 == other.y0 && width == other.width && height == other.height;
+        return false;
+    }
+
+    @Override
+    public int hashCode() {
+        return ((x0 * 31 + y0) * 31 + width) * 31 + height;
+    }
+
+    @Override
+    public String toString() {
+        return "Tile: (" + x0 + "," + y0 + ") " + width + "x" + height;
+    }
+}
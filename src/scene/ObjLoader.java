@@ -0,0 +1,282 @@
+package scene;
+
+import geometries.Mesh;
+import primitives.Color;
+import primitives.Material;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * class ObjLoader reads models in the Wavefront OBJ format into meshes.
+ * The text is read line by line in a single pass: the vertices are collected into one
+ * flat coordinates array shared by all the meshes, and the faces are triangulated as
+ * they are read (as fans) into one index buffer per group.
+ * Only the vertex positions, faces and groups are read; texture coordinates, normals,
+ * materials and the other statements are ignored.
+ *
+ * @author Avraham Hassson
+ */
+public class ObjLoader {
+    /**
+     * The name of the group of the faces that come before any group statement
+     */
+    private static final String DEFAULT_GROUP = "default";
+
+    /**
+     * The emission of the loaded meshes
+     */
+    private Color emission = Color.BLACK;
+    /**
+     * The material of the loaded meshes
+     */
+    private Material material = new Material();
+    /**
+     * The number of threads building the hierarchies of the loaded meshes, 0 for building on the calling thread
+     */
+    private int buildThreads = Runtime.getRuntime().availableProcessors();
+
+    /**
+     * A growable array of ints
+     */
+    private static class IntList {
+        int[] data = new int[48];
+        int size = 0;
+
+        void add(int value) {
+            if (size == data.length) data = Arrays.copyOf(data, size * 2);
+            data[size++] = value;
+        }
+    }
+
+    /**
+     * Setter for the emission of the loaded meshes
+     *
+     * @param emission the emission
+     * @return the loader
+     */
+    public ObjLoader setEmission(Color emission) {
+        this.emission = emission;
+        return this;
+    }
+
+    /**
+     * Setter for the material of the loaded meshes
+     *
+     * @param material the material
+     * @return the loader
+     */
+    public ObjLoader setMaterial(Material material) {
+        this.material = material;
+        return this;
+    }
+
+    /**
+     * Setter for the number of threads building the hierarchies of the loaded meshes (the number of processors
+     * by default). Only large meshes are built in parallel, the result being the same hierarchy.
+     *
+     * @param threads the number of threads, 0 for building on the calling thread
+     * @return the loader
+     */
+    public ObjLoader setBuildThreads(int threads) {
+        if (threads < 0)
+            throw new IllegalArgumentException("The number of threads cannot be negative");
+        this.buildThreads = threads;
+        return this;
+    }
+
+    /**
+     * Loads an OBJ file into the geometries of a scene
+     *
+     * @param scene the scene
+     * @param file  the OBJ file
+     * @return the scene
+     * @throws IOException              if the file can't be read
+     * @throws IllegalArgumentException if the file is not a valid OBJ model
+     */
+    public Scene load(Scene scene, Path file) throws IOException {
+        for (Mesh mesh : read(file))
+            scene.geometries.add(mesh);
+        return scene;
+    }
+
+    /**
+     * Reads an OBJ file
+     *
+     * @param file the OBJ file
+     * @return a mesh per group of faces
+     * @throws IOException              if the file can't be read
+     * @throws IllegalArgumentException if the file is not a valid OBJ model
+     */
+    public List<Mesh> read(Path file) throws IOException {
+        try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            return read(reader);
+        }
+    }
+
+    /**
+     * Reads an OBJ model
+     *
+     * @param in the text of the model
+     * @return a mesh per group of faces, in the order the groups first appear
+     * @throws IOException              if the text can't be read
+     * @throws IllegalArgumentException if the text is not a valid OBJ model
+     */
+    public List<Mesh> read(Reader in) throws IOException {
+        BufferedReader reader = in instanceof BufferedReader br ? br : new BufferedReader(in);
+        double[] vertices = new double[3 * 1024];
+        int verticesCount = 0;
+        Map<String, IntList> groups = new LinkedHashMap<>();
+        IntList group = null;
+        IntList face = new IntList();
+        String[] tokens = new String[16];
+
+        int lineNumber = 0;
+        String line;
+        while ((line = reader.readLine()) != null) {
+            ++lineNumber;
+            // a backslash at the end of a line continues the statement on the next one
+            while (line.endsWith("\\")) {
+                String next = reader.readLine();
+                if (next == null) break;
+                ++lineNumber;
+                line = line.substring(0, line.length() - 1) + " " + next;
+            }
+            int count = split(line, tokens);
+            if (count == 0) continue;
+            if (count > tokens.length) {
+                tokens = new String[count];
+                split(line, tokens);
+            }
+
+            switch (tokens[0]) {
+                case "v" -> {
+                    if (count < 4)
+                        throw new IllegalArgumentException("Line " + lineNumber + ": a vertex needs 3 coordinates");
+                    if (verticesCount * 3 == vertices.length)
+                        vertices = Arrays.copyOf(vertices, vertices.length * 2);
+                    for (int i = 1; i <= 3; ++i)
+                        vertices[verticesCount * 3 + i - 1] = parseDouble(tokens[i], lineNumber);
+                    ++verticesCount;
+                }
+                case "f" -> {
+                    if (count < 4)
+                        throw new IllegalArgumentException("Line " + lineNumber + ": a face needs at least 3 vertices");
+                    face.size = 0;
+                    for (int i = 1; i < count; ++i)
+                        face.add(vertexIndex(tokens[i], verticesCount, lineNumber));
+                    if (group == null)
+                        group = groups.computeIfAbsent(DEFAULT_GROUP, k -> new IntList());
+                    // triangulate the polygon as a fan around its first vertex
+                    for (int i = 1; i < face.size - 1; ++i) {
+                        group.add(face.data[0]);
+                        group.add(face.data[i]);
+                        group.add(face.data[i + 1]);
+                    }
+                }
+                case "g", "o" -> {
+                    String name = count > 1 ? line.trim().substring(tokens[0].length()).trim() : DEFAULT_GROUP;
+                    group = groups.computeIfAbsent(name, k -> new IntList());
+                }
+                default -> {
+                    // texture coordinates, normals, materials, smoothing groups, comments etc. are ignored
+                }
+            }
+        }
+
+        // all the meshes share one vertex array
+        vertices = Arrays.copyOf(vertices, verticesCount * 3);
+        List<Mesh> meshes = new LinkedList<>();
+        ForkJoinPool pool = buildThreads == 0 ? null : new ForkJoinPool(buildThreads);
+        try {
+            for (IntList indices : groups.values())
+                if (indices.size > 0) {
+                    Mesh mesh = new Mesh(vertices, Arrays.copyOf(indices.data, indices.size), pool);
+                    mesh.setEmission(emission).setMaterial(material);
+                    meshes.add(mesh);
+                }
+        } finally {
+            if (pool != null)
+                pool.shutdown();
+        }
+        return meshes;
+    }
+
+    /**
+     * Splits a line into tokens separated by white space, stopping at a comment
+     *
+     * @param line   the line
+     * @param tokens the array to fill with the tokens, filled only if it is large enough
+     * @return the number of tokens in the line
+     */
+    private static int split(String line, String[] tokens) {
+        int count = 0;
+        int length = line.length();
+        int i = 0;
+        while (i < length) {
+            char c = line.charAt(i);
+            if (c == '#') break;
+            if (Character.isWhitespace(c)) {
+                ++i;
+                continue;
+            }
+            int start = i;
+            while (i < length && !Character.isWhitespace(line.charAt(i)) && line.charAt(i) != '#')
+                ++i;
+            if (count < tokens.length)
+                tokens[count] = line.substring(start, i);
+            ++count;
+        }
+        return count;
+    }
+
+    /**
+     * Parses a coordinate
+     *
+     * @param token      the text of the coordinate
+     * @param lineNumber the number of the line, for the error message
+     * @return the coordinate
+     */
+    private static double parseDouble(String token, int lineNumber) {
+        try {
+            return Double.parseDouble(token);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Line " + lineNumber + ": bad coordinate " + token);
+        }
+    }
+
+    /**
+     * Parses the vertex of a face, given as a position index optionally followed by
+     * texture coordinates and normal indices (v, v/vt, v//vn or v/vt/vn).
+     * Positive indices count from 1 at the start of the file, negative indices count
+     * back from the last vertex read.
+     *
+     * @param token         the text of the face vertex
+     * @param verticesCount the number of vertices read so far
+     * @param lineNumber    the number of the line, for the error message
+     * @return the index of the vertex, counted from 0
+     */
+    private static int vertexIndex(String token, int verticesCount, int lineNumber) {
+        int slash = token.indexOf('/');
+        int index;
+        try {
+            index = Integer.parseInt(slash < 0 ? token : token.substring(0, slash));
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Line " + lineNumber + ": bad face vertex " + token);
+        }
+        index = index > 0 ? index - 1 : verticesCount + index;
+        if (index < 0 || index >= verticesCount)
+            throw new IllegalArgumentException("Line " + lineNumber + ": the face refers to a vertex that doesn't exist");
+        return index;
+    }
+}
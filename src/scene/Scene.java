@@ -5,6 +5,7 @@ import lighting.AmbientLight;
 import primitives.Color;
 import lighting.LightSource;
 
+import java.io.Serializable;
 import java.util.LinkedList;
 import java.util.List;
 
@@ -13,7 +14,9 @@ import java.util.List;
  *
  * @author Avraham Hassson
  */
-public class Scene {
+public class Scene implements Serializable {
+    private static final long serialVersionUID = 1L;
+
     /**
      * The name of the scene.
      */
@@ -0,0 +1,64 @@
+package geometries;
+
+import org.junit.jupiter.api.Test;
+import primitives.Point;
+import primitives.Ray;
+import primitives.Vector;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for geometries.BoundingBox class
+ *
+ * @author Avraham Hassson
+ */
+class BoundingBoxTest {
+    private final BoundingBox box = new BoundingBox(new Point(1, 1, 1), new Point(3, 3, 3));
+
+    /**
+     * Test method for {@link geometries.BoundingBox#intersects(Ray, double)}.
+     */
+    @Test
+    void testIntersects() {
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: Ray passes through the box
+        assertTrue(box.intersects(new Ray(Point.ZERO, new Vector(1, 1, 1)), Double.POSITIVE_INFINITY),
+                "Ray through the box");
+        // TC02: Ray misses the box
+        assertFalse(box.intersects(new Ray(Point.ZERO, new Vector(1, -1, 1)), Double.POSITIVE_INFINITY),
+                "Ray misses the box");
+        // TC03: Ray starts inside the box
+        assertTrue(box.intersects(new Ray(new Point(2, 2, 2), new Vector(1, 0, 0)), Double.POSITIVE_INFINITY),
+                "Ray starts inside the box");
+        // TC04: Ray starts after the box
+        assertFalse(box.intersects(new Ray(new Point(4, 4, 4), new Vector(1, 1, 1)), Double.POSITIVE_INFINITY),
+                "Ray starts after the box");
+        // TC05: The box is beyond the maximal distance
+        assertFalse(box.intersects(new Ray(Point.ZERO, new Vector(1, 1, 1)), 1), "Box beyond the distance");
+
+        // =============== Boundary Values Tests ==================
+        // TC11: Ray parallel to an axis through the box
+        assertTrue(box.intersects(new Ray(new Point(2, 2, 0), new Vector(0, 0, 1)), Double.POSITIVE_INFINITY),
+                "Ray parallel to an axis through the box");
+        // TC12: Ray parallel to an axis outside the box
+        assertFalse(box.intersects(new Ray(new Point(0, 2, 0), new Vector(0, 0, 1)), Double.POSITIVE_INFINITY),
+                "Ray parallel to an axis outside the box");
+        // TC13: Ray through a flat box
+        assertTrue(new BoundingBox(new Point(-1, -1, 5), new Point(1, 1, 5))
+                        .intersects(new Ray(Point.ZERO, new Vector(0.1, 0.2, 1)), Double.POSITIVE_INFINITY),
+                "Ray through a flat box");
+    }
+
+    /**
+     * Test method for {@link geometries.BoundingBox#union(BoundingBox)}.
+     */
+    @Test
+    void testUnion() {
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: union of two disjoint boxes
+        BoundingBox result = box.union(new BoundingBox(new Point(-1, 5, 2), new Point(0, 6, 2)));
+        assertEquals(new Point(-1, 1, 1), result.getMin(), "Wrong minimal corner");
+        assertEquals(new Point(3, 6, 3), result.getMax(), "Wrong maximal corner");
+        assertEquals(2 * (4 * 5 + 5 * 2 + 2 * 4), result.surfaceArea(), 1e-10, "Wrong surface area");
+    }
+}
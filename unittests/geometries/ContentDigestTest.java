@@ -0,0 +1,59 @@
+package geometries;
+
+import geometries.Geometries.Acceleration;
+import org.junit.jupiter.api.Test;
+import primitives.Color;
+import primitives.Point;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for geometries.ContentDigest class
+ *
+ * @author Avraham Hassson
+ */
+class ContentDigestTest {
+    /**
+     * Builds a set of shapes: a sphere and a mesh of two triangles
+     *
+     * @param emission the emission of the mesh
+     * @param pool     the pool of the build threads of the mesh, or null
+     * @return the shapes
+     */
+    private static Geometries shapes(Color emission, ForkJoinPool pool) {
+        double[] vertices = {0, 0, 0, 1, 0, 0, 1, 1, 0, 0, 1, 0};
+        int[] indices = {0, 1, 2, 0, 2, 3};
+        return new Geometries(new Sphere(new Point(0, 0, -5), 1d),
+                new Mesh(vertices, indices, pool).setEmission(emission));
+    }
+
+    /**
+     * Test method for {@link geometries.ContentDigest#sha256(java.io.Serializable)}.
+     *
+     * @throws IOException if the shapes cannot be serialized
+     */
+    @Test
+    void testSha256() throws IOException {
+        byte[] digest = ContentDigest.sha256(shapes(new Color(10, 20, 30), null));
+        assertEquals(32, digest.length, "Bad digest length");
+
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: the same content searched another way, and built by other threads, has the same digest
+        ForkJoinPool pool = new ForkJoinPool(2);
+        try {
+            Geometries accelerated = shapes(new Color(10, 20, 30), pool).setAcceleration(Acceleration.FLAT_BVH).setBuildThreads(2);
+            accelerated.prepare();
+            assertArrayEquals(digest, ContentDigest.sha256(accelerated), "The digest depends on the search");
+        } finally {
+            pool.shutdown();
+        }
+
+        // TC02: another emission of the mesh has another digest
+        assertFalse(Arrays.equals(digest, ContentDigest.sha256(shapes(new Color(10, 20, 31), null))),
+                "The digest ignores the emission");
+    }
+}
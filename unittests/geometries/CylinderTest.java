@@ -72,4 +72,21 @@ class CylinderTest {
         // ensure the result is right
         assertTrue(result5.equals(new Vector(0, 1, 0)) || result5.equals(new Vector(0, -1, 0)), "getNormal() wrong result");
     }
-}
\ No newline at end of file
+
+    /**
+     * Test method for {@link geometries.Cylinder#getBoundingBox()}.
+     */
+    @Test
+    void testGetBoundingBox() {
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: cylinder parallel to an axis
+        BoundingBox box = new Cylinder(new Ray(new Point(1, 2, 1), new Vector(0, 1, 0)), 4, 5).getBoundingBox();
+        assertEquals(new Point(-3, 2, -3), box.getMin(), "Wrong minimal corner");
+        assertEquals(new Point(5, 7, 5), box.getMax(), "Wrong maximal corner");
+        // TC02: slanted cylinder, the bases stick out of the axis by the radius times the sine of the slant
+        box = new Cylinder(new Ray(Point.ZERO, new Vector(1, 1, 0)), 1, Math.sqrt(2)).getBoundingBox();
+        double e = Math.sqrt(0.5);
+        assertEquals(new Point(-e, -e, -1), box.getMin(), "Wrong minimal corner");
+        assertEquals(new Point(1 + e, 1 + e, 1), box.getMax(), "Wrong maximal corner");
+    }
+}
@@ -5,10 +5,16 @@ import primitives.Point;
 import primitives.Ray;
 import primitives.Vector;
 
+import java.util.Comparator;
+import java.util.LinkedList;
 import java.util.List;
+import java.util.Random;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 /**
  * Testing geometries.Geometries
@@ -46,4 +52,193 @@ class GeometriesTest {
         assertEquals(5, result.size(), "dose not work when all the shapes are intersected");
 
     }
-}
\ No newline at end of file
+
+    /**
+     * Test method for {@link geometries.Geometries#findGeoIntersections(Ray)} with acceleration.
+     */
+    @Test
+    void testFindIntersectionsAccelerated() {
+        Random random = new Random(5890);
+        Geometries flat = new Geometries();
+        Geometries culling = new Geometries().setAcceleration(Geometries.Acceleration.CULLING);
+        Geometries bvh = new Geometries().setAcceleration(Geometries.Acceleration.BVH);
+        Geometries flatBvh = new Geometries().setAcceleration(Geometries.Acceleration.FLAT_BVH);
+        Geometries grid = new Geometries().setAcceleration(Geometries.Acceleration.GRID);
+        // a nested flat hierarchy, traversed within the traversal of the outer one
+        Geometries nested = new Geometries().setAcceleration(Geometries.Acceleration.FLAT_BVH);
+        // a nested grid, walked within the walk of the outer one
+        Geometries nestedGrid = new Geometries().setAcceleration(Geometries.Acceleration.GRID);
+        for (int i = 0; i < 300; ++i) {
+            Point p = new Point(random.nextDouble() * 100, random.nextDouble() * 100, random.nextDouble() * 100);
+            Intersectable shape = i % 2 == 0 ? new Sphere(p, 1 + random.nextDouble() * 3)
+                    : new Triangle(p, p.add(new Vector(random.nextDouble() * 5 + 1, 0, 1)), p.add(new Vector(0, random.nextDouble() * 5 + 1, 1)));
+            if (i % 10 == 0) nested.add(shape);
+            else if (i % 10 == 5) nestedGrid.add(shape);
+            else {
+                flat.add(shape);
+                culling.add(shape);
+                bvh.add(shape);
+                flatBvh.add(shape);
+                grid.add(shape);
+            }
+        }
+        Plane plane = new Plane(new Point(0, 0, -10), new Vector(0, 0, 1));
+        Cylinder cylinder = new Cylinder(new Ray(new Point(50, 50, 0), new Vector(0, 0, 1)), 2, 30);
+        for (Geometries geometries : List.of(flat, culling, bvh, flatBvh, grid))
+            geometries.add(plane, cylinder, nested, nestedGrid, new Geometries());
+
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: the accelerated searches find exactly the points of the brute-force search,
+        // and all the searches find the closest of them (and whether there is any of them within a distance)
+        // without building the lists
+        for (int i = 0; i < 500; ++i) {
+            Point p0 = new Point(random.nextDouble() * 200 - 50, random.nextDouble() * 200 - 50, random.nextDouble() * 200 - 50);
+            Ray ray = new Ray(p0, new Vector(50, 50, 50).subtract(p0));
+            Comparator<Intersectable.GeoPoint> byDistance = Comparator.comparingDouble(gp -> gp.point.distanceSquared(p0));
+            List<Intersectable.GeoPoint> expected = flat.findGeoIntersections(ray);
+            Intersectable.GeoPoint closest = ray.findClosestGeoPoint(expected);
+            for (Geometries geometries : List.of(flat, culling, bvh, flatBvh, grid)) {
+                assertEquals(closest, geometries.findClosestGeoIntersection(ray), "Wrong closest point");
+                double distance = closest == null ? 0 : closest.point.distance(p0);
+                assertEquals(closest != null, geometries.hasIntersection(ray, Double.POSITIVE_INFINITY),
+                        "Wrong any-hit result");
+                if (closest != null) {
+                    assertTrue(geometries.hasIntersection(ray, distance + 1e-6), "Wrong any-hit result");
+                    assertFalse(geometries.hasIntersection(ray, distance - 1e-6), "Blocker beyond the distance");
+                }
+            }
+            if (expected != null) {
+                expected = new LinkedList<>(expected);
+                expected.sort(byDistance);
+            }
+            for (Geometries geometries : List.of(culling, bvh, flatBvh, grid)) {
+                List<Intersectable.GeoPoint> result = geometries.findGeoIntersections(ray);
+                if (expected == null) {
+                    assertNull(result, "Accelerated search found points the brute-force search didn't");
+                    continue;
+                }
+                result = new LinkedList<>(result);
+                result.sort(byDistance);
+                assertEquals(expected, result, "Accelerated search doesn't find the points of the brute-force search");
+            }
+        }
+
+        // =============== Boundary Values Tests ==================
+        // TC11: empty collection
+        for (Geometries.Acceleration acceleration : Geometries.Acceleration.values())
+            assertNull(new Geometries().setAcceleration(acceleration)
+                    .findIntersections(new Ray(new Point(-3, 0, 0), new Vector(1, 0, 0))), "Empty collection");
+    }
+
+    /**
+     * Test method for {@link geometries.Geometries#findClosestGeoIntersection(Ray)} with a grid over flat shapes.
+     */
+    @Test
+    void testGridFlat() {
+        // a floor of triangles, so the grid has a single layer of cells
+        Geometries flat = new Geometries();
+        Geometries grid = new Geometries().setAcceleration(Geometries.Acceleration.GRID);
+        for (int x = 0; x < 20; ++x)
+            for (int y = 0; y < 20; ++y) {
+                Triangle triangle = new Triangle(new Point(x, y, 0), new Point(x + 1, y, 0), new Point(x, y + 1, 0));
+                flat.add(triangle);
+                grid.add(triangle);
+            }
+
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: rays slanted through the floor hit the triangle of the brute-force search
+        Random random = new Random(5890);
+        for (int i = 0; i < 300; ++i) {
+            Point p0 = new Point(random.nextDouble() * 40 - 10, random.nextDouble() * 40 - 10, 5);
+            Ray ray = new Ray(p0, new Vector(random.nextDouble() * 20 - p0.getX(), random.nextDouble() * 20 - p0.getY(), -5));
+            assertEquals(flat.findClosestGeoIntersection(ray), grid.findClosestGeoIntersection(ray), "Wrong closest point");
+        }
+
+        // =============== Boundary Values Tests ==================
+        // TC11: a ray along the cells of the floor, parallel to two axes
+        Ray along = new Ray(new Point(-5, 0.2, 0), new Vector(1, 0, 0));
+        assertEquals(flat.findGeoIntersections(along), grid.findGeoIntersections(along), "Ray along the floor");
+        // TC12: a ray perpendicular to the floor
+        Ray down = new Ray(new Point(3.2, 7.1, 5), new Vector(0, 0, -1));
+        assertEquals(flat.findClosestGeoIntersection(down), grid.findClosestGeoIntersection(down), "Ray down the floor");
+        // TC13: a ray starting inside the grid, beside the floor
+        Ray inside = new Ray(new Point(10, 10, 0), new Vector(1, 1, 1));
+        assertNull(grid.findClosestGeoIntersection(inside), "Ray leaving the floor");
+    }
+
+    /**
+     * Test method for {@link geometries.Geometries#getBuildStats()} and {@link geometries.Geometries#setBuildThreads(int)}.
+     */
+    @Test
+    void testGetBuildStats() {
+        // enough shapes for building sub-trees in parallel
+        Random random = new Random(5890);
+        Intersectable[] spheres = new Intersectable[3 * LinearBvh.PARALLEL_THRESHOLD];
+        for (int i = 0; i < spheres.length; ++i)
+            spheres[i] = new Sphere(new Point(random.nextDouble() * 100, random.nextDouble() * 100, random.nextDouble() * 100),
+                    0.2 + random.nextDouble() * 0.5);
+
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: the hierarchies built in parallel are the hierarchies built by a single thread
+        for (Geometries.Acceleration acceleration : List.of(Geometries.Acceleration.BVH, Geometries.Acceleration.FLAT_BVH)) {
+            Geometries sequential = new Geometries(spheres).setAcceleration(acceleration).setBuildThreads(0);
+            Geometries parallel = new Geometries(spheres).setAcceleration(acceleration).setBuildThreads(4);
+            BuildStats expected = sequential.getBuildStats(), actual = parallel.getBuildStats();
+            assertTrue(expected.buildNanos() > 0, acceleration + ": no build time");
+            assertTrue(expected.nodes() > spheres.length / 4 && expected.leaves() > spheres.length / 8,
+                    acceleration + ": bad hierarchy " + expected);
+            assertTrue(expected.bytes() > 0 && expected.sahCost() > 0, acceleration + ": bad statistics " + expected);
+            assertEquals(expected.nodes(), actual.nodes(), acceleration + ": different number of nodes");
+            assertEquals(expected.leaves(), actual.leaves(), acceleration + ": different number of leaves");
+            assertEquals(expected.depth(), actual.depth(), acceleration + ": different depth");
+            assertEquals(expected.bytes(), actual.bytes(), acceleration + ": different memory");
+            assertEquals(expected.sahCost(), actual.sahCost(), 1e-9, acceleration + ": different SAH cost");
+            for (int i = 0; i < 200; ++i) {
+                Point p0 = new Point(random.nextDouble() * 300 - 100, random.nextDouble() * 300 - 100, -50);
+                Ray ray = new Ray(p0, new Vector(50, 50, 50).subtract(p0));
+                assertEquals(sequential.findClosestGeoIntersection(ray), parallel.findClosestGeoIntersection(ray),
+                        acceleration + ": different closest point");
+            }
+        }
+
+        // TC02: a culling list is a single leaf of all the shapes
+        BuildStats culling = new Geometries(spheres).setAcceleration(Geometries.Acceleration.CULLING).getBuildStats();
+        assertEquals(1, culling.nodes(), "Bad culling list");
+        assertEquals(spheres.length, culling.sahCost(), "Bad culling list cost");
+
+        // TC03: a grid has about two cells per shape, most of them holding shapes, and is cheaper than a culling list
+        BuildStats grid = new Geometries(spheres).setAcceleration(Geometries.Acceleration.GRID).getBuildStats();
+        assertTrue(grid.nodes() > spheres.length && grid.nodes() < 4 * spheres.length, "Bad grid resolution " + grid);
+        assertTrue(grid.leaves() > grid.nodes() / 4 && grid.depth() == 0, "Bad grid " + grid);
+        assertTrue(grid.sahCost() > 0 && grid.sahCost() < spheres.length / 10.0, "Bad grid cost " + grid);
+
+        // =============== Boundary Values Tests ==================
+        // TC11: no acceleration
+        assertNull(new Geometries(spheres).getBuildStats(), "Statistics without acceleration");
+        // TC12: no bounded shapes
+        assertEquals(0, new Geometries(new Plane(Point.ZERO, new Vector(0, 0, 1)))
+                .setAcceleration(Geometries.Acceleration.BVH).getBuildStats().nodes(), "Nodes without bounded shapes");
+        // TC13: bad number of threads
+        assertThrows(IllegalArgumentException.class, () -> new Geometries().setBuildThreads(-1), "Bad number of threads");
+    }
+
+    /**
+     * Test method for {@link geometries.Geometries#getBoundingBox()}.
+     */
+    @Test
+    void testGetBoundingBox() {
+        Sphere sph = new Sphere(new Point(1, 0, 0), 1);
+        Triangle tri = new Triangle(new Point(3, 0, 1), new Point(3, -2, -1), new Point(3, 2, -1));
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: the box of bounded shapes is the union of their boxes
+        BoundingBox box = new Geometries(sph, tri).getBoundingBox();
+        assertEquals(new Point(0, -2, -1), box.getMin(), "Wrong minimal corner");
+        assertEquals(new Point(3, 2, 1), box.getMax(), "Wrong maximal corner");
+        // TC02: the box of a collection with an unbounded shape is infinite
+        assertTrue(new Geometries(sph, new Plane(Point.ZERO, new Vector(0, 0, 1))).getBoundingBox().isInfinite(),
+                "Box with a plane must be infinite");
+        // =============== Boundary Values Tests ==================
+        // TC11: empty collection
+        assertTrue(new Geometries().getBoundingBox().isEmpty(), "Box of empty collection must be empty");
+    }
+}
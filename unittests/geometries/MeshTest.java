@@ -0,0 +1,187 @@
+package geometries;
+
+import org.junit.jupiter.api.Test;
+import primitives.Color;
+import primitives.Point;
+import primitives.Ray;
+import primitives.Vector;
+
+import java.util.Comparator;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for geometries.Mesh class
+ *
+ * @author Avraham Hassson
+ */
+class MeshTest {
+    /**
+     * Builds a mesh of a random terrain: a grid of vertices with random heights, two triangles per cell
+     *
+     * @param random the random numbers generator
+     * @param size   the number of cells along each side of the grid
+     * @param pool   the pool of the build threads, or null
+     * @return the mesh
+     */
+    private static Mesh terrain(Random random, int size, ForkJoinPool pool) {
+        double[] vertices = new double[(size + 1) * (size + 1) * 3];
+        for (int i = 0; i <= size; ++i)
+            for (int j = 0; j <= size; ++j) {
+                int v = (i * (size + 1) + j) * 3;
+                vertices[v] = i;
+                vertices[v + 1] = j;
+                vertices[v + 2] = random.nextDouble() * 3;
+            }
+        int[] indices = new int[size * size * 6];
+        int k = 0;
+        for (int i = 0; i < size; ++i)
+            for (int j = 0; j < size; ++j) {
+                int v = i * (size + 1) + j;
+                indices[k++] = v;
+                indices[k++] = v + 1;
+                indices[k++] = v + size + 1;
+                indices[k++] = v + 1;
+                indices[k++] = v + size + 2;
+                indices[k++] = v + size + 1;
+            }
+        return new Mesh(vertices, indices, pool);
+    }
+
+    /**
+     * Test method for {@link geometries.Mesh#Mesh(double[], int[])} and
+     * {@link geometries.Mesh#Mesh(double[], int[], ForkJoinPool)}.
+     */
+    @Test
+    void testConstructor() {
+        double[] vertices = {0, 0, 0, 1, 0, 0, 0, 1, 0, 1, 1, 0};
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: correct mesh, the meshes may share their vertices
+        assertDoesNotThrow(() -> new Mesh(vertices, new int[]{0, 1, 2}), "Failed constructing a correct mesh");
+        assertDoesNotThrow(() -> new Mesh(vertices, new int[]{1, 3, 2}), "Failed constructing a correct mesh");
+        // TC02: an index refers to no vertex
+        assertThrows(IllegalArgumentException.class, () -> new Mesh(vertices, new int[]{0, 1, 4}),
+                "Constructed a mesh with a missing vertex");
+        assertThrows(IllegalArgumentException.class, () -> new Mesh(vertices, new int[]{0, -1, 2}),
+                "Constructed a mesh with a negative index");
+        // TC03: a mesh large enough to be built in parallel finds the points of the mesh built on a single thread
+        ForkJoinPool pool = new ForkJoinPool(4);
+        Mesh parallel = terrain(new Random(5890), 64, pool);
+        pool.shutdown();
+        Mesh sequential = terrain(new Random(5890), 64, null);
+        Random random = new Random(5890);
+        for (int i = 0; i < 200; ++i) {
+            Point p0 = new Point(random.nextDouble() * 64, random.nextDouble() * 64, 10);
+            Ray ray = new Ray(p0, new Vector(random.nextDouble() - 0.5, random.nextDouble() - 0.5, -1));
+            Intersectable.GeoPoint expected = sequential.findClosestGeoIntersection(ray);
+            Intersectable.GeoPoint actual = parallel.findClosestGeoIntersection(ray);
+            assertEquals(expected == null, actual == null, "Different hit");
+            if (expected != null)
+                assertEquals(expected.point, actual.point, "Different closest point");
+        }
+
+        // =============== Boundary Values Tests ==================
+        // TC11: no triangles
+        assertThrows(IllegalArgumentException.class, () -> new Mesh(vertices, new int[0]),
+                "Constructed a mesh without triangles");
+        // TC12: a partial triangle
+        assertThrows(IllegalArgumentException.class, () -> new Mesh(vertices, new int[]{0, 1, 2, 3}),
+                "Constructed a mesh with a partial triangle");
+        // TC13: a partial vertex
+        assertThrows(IllegalArgumentException.class, () -> new Mesh(new double[]{0, 0, 0, 1, 0}, new int[]{0, 0, 0}),
+                "Constructed a mesh with a partial vertex");
+    }
+
+    /**
+     * Test method for {@link geometries.Mesh#getNormal(primitives.Point)}.
+     */
+    @Test
+    void testGetNormal() {
+        Mesh mesh = new Mesh(new double[]{0, 0, 0, 1, 0, 0, 0, 1, 0, 0, 0, 1}, new int[]{0, 1, 2, 0, 1, 3});
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: a point on the first triangle
+        Vector normal = mesh.getNormal(new Point(0.2, 0.2, 0));
+        assertTrue(normal.equals(new Vector(0, 0, 1)) || normal.equals(new Vector(0, 0, -1)), "Wrong normal");
+        // TC02: a point on the second triangle
+        normal = mesh.getNormal(new Point(0.2, 0, 0.2));
+        assertTrue(normal.equals(new Vector(0, 1, 0)) || normal.equals(new Vector(0, -1, 0)), "Wrong normal");
+        // TC03: a point out of the mesh
+        assertThrows(IllegalArgumentException.class, () -> mesh.getNormal(new Point(1, 1, 1)), "Point out of the mesh");
+        // TC04: the normal of a face is the normal of its triangle
+        assertEquals(mesh.getNormal(new Point(0.2, 0, 0.2)), mesh.getFace(1).getNormal(new Point(0.2, 0, 0.2)),
+                "Wrong normal of a face");
+    }
+
+    /**
+     * Test method for {@link geometries.Mesh#getBoundingBox()}.
+     */
+    @Test
+    void testGetBoundingBox() {
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: the box of the used vertices only
+        Mesh mesh = new Mesh(new double[]{0, 0, 0, 1, 0, 0, 0, 1, 0, 5, 5, 5}, new int[]{0, 1, 2});
+        assertEquals(new Point(0, 0, 0), mesh.getBoundingBox().getMin(), "Wrong minimal corner");
+        assertEquals(new Point(1, 1, 0), mesh.getBoundingBox().getMax(), "Wrong maximal corner");
+    }
+
+    /**
+     * Test method for {@link geometries.Mesh#findGeoIntersections(Ray)}.
+     */
+    @Test
+    void testFindIntersections() {
+        Random random = new Random(2718);
+        Mesh mesh = terrain(random, 20, null);
+        mesh.setEmission(new Color(10, 20, 30));
+        Geometries triangles = new Geometries();
+        for (int t = 0; t < mesh.getTrianglesCount(); ++t)
+            triangles.add(new Triangle(mesh.getVertex(t, 0), mesh.getVertex(t, 1), mesh.getVertex(t, 2)));
+
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: the mesh is intersected exactly where its triangles are, and its points are on its faces
+        for (int i = 0; i < 500; ++i) {
+            Point p0 = new Point(random.nextDouble() * 40 - 10, random.nextDouble() * 40 - 10, random.nextDouble() * 20 - 10);
+            Ray ray = new Ray(p0, new Point(random.nextDouble() * 20, random.nextDouble() * 20, 1.5).subtract(p0));
+            Comparator<Point> byDistance = Comparator.comparingDouble(p -> p.distanceSquared(p0));
+
+            List<Point> expected = triangles.findIntersections(ray);
+            List<Point> result = mesh.findIntersections(ray);
+            if (expected == null) {
+                assertNull(result, "Found points the triangles don't have");
+                assertNull(mesh.findClosestGeoIntersection(ray), "Found a closest point the triangles don't have");
+                assertFalse(mesh.hasIntersection(ray, Double.POSITIVE_INFINITY), "Wrong any-hit result");
+                continue;
+            }
+            expected = new LinkedList<>(expected);
+            expected.sort(byDistance);
+            assertNotNull(result, "Missed the points of the triangles");
+            result = new LinkedList<>(result);
+            result.sort(byDistance);
+            assertEquals(expected, result, "Doesn't find the points of the triangles");
+
+            Intersectable.GeoPoint closest = mesh.findClosestGeoIntersection(ray);
+            assertEquals(expected.get(0), closest.point, "Wrong closest point");
+            assertEquals(new Color(10, 20, 30).getColor(), closest.geometry.getEmission().getColor(),
+                    "A face doesn't share the emission of its mesh");
+            double distance = closest.point.distance(p0);
+            assertTrue(mesh.hasIntersection(ray, distance + 1e-6), "Wrong any-hit result");
+            assertFalse(mesh.hasIntersection(ray, distance - 1e-6), "Blocker beyond the distance");
+        }
+
+        // =============== Boundary Values Tests ==================
+        // TC11: the ray is on the plane of a triangle (0 points)
+        Mesh flat = new Mesh(new double[]{0, 0, 0, 1, 0, 0, 0, 1, 0}, new int[]{0, 1, 2});
+        assertNull(flat.findIntersections(new Ray(new Point(-1, 0.2, 0), new Vector(1, 0, 0))), "Ray on the plane");
+        // TC12: the ray hits an edge shared by two triangles (0 points)
+        Mesh square = new Mesh(new double[]{0, 0, 0, 1, 0, 0, 0, 1, 0, 1, 1, 0}, new int[]{0, 1, 2, 1, 3, 2});
+        assertNull(square.findIntersections(new Ray(new Point(0.5, 0.5, 1), new Vector(0, 0, -1))), "Ray on an edge");
+        // TC13: the ray hits a vertex (0 points)
+        assertNull(square.findIntersections(new Ray(new Point(1, 0, 1), new Vector(0, 0, -1))), "Ray on a vertex");
+        // TC14: the ray starts on the mesh (0 points)
+        assertNull(square.findIntersections(new Ray(new Point(0.2, 0.2, 0), new Vector(0, 0, -1))),
+                "Ray starts on the mesh");
+    }
+}
@@ -94,4 +94,15 @@ class PlaneTest {
         assertNull(plane.findIntersections(new Ray(new Point(1, 0, 1), new Vector(-2, 0, 2))),
                 "Ray's line out of plane");
     }
-}
\ No newline at end of file
+
+    /**
+     * Test method for {@link geometries.Plane#getBoundingBox()}.
+     */
+    @Test
+    void testGetBoundingBox() {
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: a plane is unbounded
+        assertTrue(new Plane(Point.ZERO, new Vector(0, 0, 1)).getBoundingBox().isInfinite(),
+                "Plane's box must be infinite");
+    }
+}
@@ -107,4 +107,48 @@ class SphereTest {
         // TC19: Ray's line is outside, ray is orthogonal to ray start to sphere's center line
         assertNull(sphere.findIntersections(new Ray(new Point(-1, 0, 0), new Vector(0, 1, 0))), "Ray's line out of sphere");
     }
-}
\ No newline at end of file
+
+    /**
+     * Test method for {@link geometries.Sphere#getBoundingBox()}.
+     */
+    @Test
+    void testGetBoundingBox() {
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: the box is the cube around the sphere
+        BoundingBox box = new Sphere(new Point(1, 1, 1), 1).getBoundingBox();
+        assertEquals(Point.ZERO, box.getMin(), "Wrong minimal corner");
+        assertEquals(new Point(2, 2, 2), box.getMax(), "Wrong maximal corner");
+    }
+
+    /**
+     * Test method for {@link geometries.Sphere#findClosestGeoIntersection(Ray)}.
+     */
+    @Test
+    void testFindClosestGeoIntersection() {
+        Sphere sphere = new Sphere(new Point(1, 0, 0), 1);
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: Ray starts before and crosses the sphere, the nearer point is returned
+        assertEquals(new Point(0.4, 0, -0.8),
+                sphere.findClosestGeoIntersection(new Ray(new Point(0, 0, -1), new Vector(2, 0, 1))).point,
+                "Wrong closest point");
+        // TC02: Ray starts inside the sphere
+        assertEquals(new Point(2, 0, 0),
+                sphere.findClosestGeoIntersection(new Ray(new Point(1.5, 0, -0.4), new Vector(0.5, 0, 0.4))).point,
+                "Wrong closest point");
+        // TC03: Ray's line is outside the sphere
+        assertNull(sphere.findClosestGeoIntersection(new Ray(new Point(-1, 0, 0), new Vector(1, 1, 0))),
+                "Ray's line out of sphere");
+        // TC04: The intersection is beyond the maximal distance
+        assertNull(sphere.findClosestGeoIntersectionHelper(new Ray(new Point(-1, 0, 0), new Vector(1, 0, 0)), 1),
+                "Point beyond the maximal distance");
+
+        // =============== Boundary Values Tests ==================
+        // TC11: Ray starts at the center
+        assertEquals(new Point(1, 0, -1),
+                sphere.findClosestGeoIntersection(new Ray(new Point(1, 0, 0), new Vector(0, 0, -1))).point,
+                "Wrong closest point");
+        // TC12: Ray starts at sphere and goes outside
+        assertNull(sphere.findClosestGeoIntersection(new Ray(new Point(0, 0, 0), new Vector(-1, 0, 0))),
+                "Ray's line out of sphere");
+    }
+}
@@ -7,6 +7,7 @@ import primitives.Vector;
 
 import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 /**
  * Unit tests for geometries.Tube class
@@ -42,4 +43,15 @@ class TubeTest {
         // ensure the result is right
         assertEquals(new Vector(1, 0, 0), result1, "getNormal() wrong result");
     }
-}
\ No newline at end of file
+
+    /**
+     * Test method for {@link geometries.Tube#getBoundingBox()}.
+     */
+    @Test
+    void testGetBoundingBox() {
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: a tube is unbounded
+        assertTrue(new Tube(new Ray(Point.ZERO, new Vector(0, 0, 1)), 1).getBoundingBox().isInfinite(),
+                "Tube's box must be infinite");
+    }
+}
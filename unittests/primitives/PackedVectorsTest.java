@@ -0,0 +1,92 @@
+package primitives;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for primitives.PackedVectors class
+ *
+ * @author Avraham Hassson
+ */
+class PackedVectorsTest {
+    /**
+     * Vectors to test with
+     */
+    private final Vector[] a = {new Vector(1, 2, 3), new Vector(-4, 0.5, 2), new Vector(0, 0, 7)};
+    /**
+     * Vectors to test with
+     */
+    private final Vector[] b = {new Vector(0, 3, -2), new Vector(1, 1, 1), new Vector(2, -5, 0)};
+
+    /**
+     * Test method for {@link primitives.PackedVectors#dot(double[], double[], double[], int)}.
+     */
+    @Test
+    void testDot() {
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: the dot products of the vectors
+        double[] result = new double[3];
+        PackedVectors.dot(PackedVectors.pack(a), PackedVectors.pack(b), result, 3);
+        for (int i = 0; i < 3; ++i)
+            assertEquals(a[i].dotProduct(b[i]), result[i], 0.00001, "dot() wrong result");
+        // TC02: a too short buffer
+        assertThrows(IllegalArgumentException.class,
+                () -> PackedVectors.dot(PackedVectors.pack(a), PackedVectors.pack(b), new double[2], 3),
+                "dot() with a too short buffer does not throw an exception");
+    }
+
+    /**
+     * Test method for {@link primitives.PackedVectors#cross(double[], double[], double[], int)}.
+     */
+    @Test
+    void testCross() {
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: the cross products of the vectors, into one of the operands
+        double[] result = PackedVectors.pack(a);
+        PackedVectors.cross(result, PackedVectors.pack(b), result, 3);
+        for (int i = 0; i < 3; ++i)
+            assertEquals(a[i].crossProduct(b[i]), PackedVectors.vector(result, i), "cross() wrong result");
+
+        // =============== Boundary Values Tests ==================
+        // TC11: parallel vectors give the zero vector
+        result = new double[3];
+        PackedVectors.cross(PackedVectors.pack(a[0]), PackedVectors.pack(a[0].scale(-2)), result, 1);
+        assertEquals(Point.ZERO, PackedVectors.point(result, 0), "cross() for parallel vectors wrong result");
+    }
+
+    /**
+     * Test method for {@link primitives.PackedVectors#normalize(double[], double[], int)}.
+     */
+    @Test
+    void testNormalize() {
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: the normalized vectors
+        double[] result = new double[9];
+        assertEquals(0, PackedVectors.normalize(PackedVectors.pack(a), result, 3), "normalize() found zero vectors");
+        for (int i = 0; i < 3; ++i)
+            assertEquals(a[i].normalize(), PackedVectors.vector(result, i), "normalize() wrong result");
+
+        // =============== Boundary Values Tests ==================
+        // TC11: a zero vector stays zero and is counted
+        double[] v = {1, 1, 1, 0, 0, 0};
+        assertEquals(1, PackedVectors.normalize(v, v, 2), "normalize() didn't count the zero vector");
+        assertEquals(Point.ZERO, PackedVectors.point(v, 1), "normalize() changed the zero vector");
+    }
+
+    /**
+     * Test method for {@link primitives.PackedVectors#pointsAlong(double[], double[], double[], double[], int)}.
+     */
+    @Test
+    void testPointsAlong() {
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: the points along the rays
+        Point[] origins = {new Point(1, 1, 1), Point.ZERO, new Point(-2, 3, 0)};
+        double[] t = {2, 0.5, 10};
+        double[] result = new double[9];
+        PackedVectors.pointsAlong(PackedVectors.pack(origins), PackedVectors.pack(a), t, result, 3);
+        for (int i = 0; i < 3; ++i)
+            assertEquals(new Ray(origins[i], a[i]).getPoint(t[i] * a[i].length()), PackedVectors.point(result, i),
+                    "pointsAlong() wrong result");
+    }
+}
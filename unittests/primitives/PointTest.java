@@ -28,6 +28,23 @@ class PointTest {
                 "subtract() for same point does not throw an exception");
     }
 
+    /**
+     * Test method for {@link primitives.Point#trySubtract(primitives.Point)}.
+     */
+    @Test
+    void testTrySubtract() {
+        // ============ Equivalence Partitions Tests ==============
+        Point p1 = new Point(1, 2, 3);
+        Point p2 = new Point(6, 4, 8);
+
+        //TC01: test that subtraction result is right
+        assertEquals(new Vector(-5, -2, -5), p1.trySubtract(p2), "trySubtract() wrong result");
+
+        // =============== Boundary Values Tests ==================
+        // TC11: test no vector from subtraction of the same point from itself
+        assertNull(p1.trySubtract(new Point(1, 2, 3)), "trySubtract() for same point does not return null");
+    }
+
     /**
      * Test method for {@link primitives.Point#add(primitives.Vector)}.
      */
@@ -31,6 +31,20 @@ public class RayTest {
         Point result = new Vector(2,2,2).normalize();
         assertEquals(r.getDir(), result, "does not return the correct direction");
     }
+    /**
+     * Test method for {@link Ray#Ray(Point, double, double, double)}.
+     */
+    @Test
+    public void testConstructorCoordinates() {
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: the same ray as with a direction vector
+        assertEquals(new Ray(new Point(1, 1, 1), new Vector(2, -3, 6)), new Ray(new Point(1, 1, 1), 2, -3, 6),
+                "does not normalize the direction");
+        // =============== Boundary Values Tests ==================
+        // TC11: zero direction
+        assertThrows(IllegalArgumentException.class, () -> new Ray(Point.ZERO, 0, 0, 0),
+                "constructed a ray without a direction");
+    }
     /**
      * Test method for {@link primitives.Ray#findClosestPoint(List)}.
      */
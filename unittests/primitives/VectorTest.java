@@ -83,6 +83,24 @@ class VectorTest {
                 "crossProduct() for parallel vectors does not throw an exception");
     }
 
+    /**
+     * Test method for {@link primitives.Vector#tryCrossProduct(primitives.Vector)}.
+     */
+    @Test
+    void testTryCrossProduct() {
+        Vector v1 = new Vector(1, 2, 3);
+
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: Test that the result is the cross-product
+        Vector v2 = new Vector(0, 3, -2);
+        assertEquals(v1.crossProduct(v2), v1.tryCrossProduct(v2), "tryCrossProduct() wrong result");
+
+        // =============== Boundary Values Tests ==================
+        // TC11: test no vector from cross product of co-lined vectors
+        assertNull(v1.tryCrossProduct(new Vector(-2, -4, -6)),
+                "tryCrossProduct() for parallel vectors does not return null");
+    }
+
     /**
      * Test method for {@link Vector#lengthSquared()}.
      */
@@ -1,11 +1,31 @@
 package renderer;
 
+import geometries.Sphere;
+import geometries.Triangle;
+import lighting.AmbientLight;
+import lighting.PointLight;
 import org.junit.jupiter.api.Test;
-import primitives.Point;
-import primitives.Ray;
-import primitives.Vector;
+import org.junit.jupiter.api.io.TempDir;
+import primitives.*;
+import scene.Scene;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 /**
  * Testing Camera Class
@@ -52,6 +72,379 @@ class CameraTest {
         assertEquals(new Ray(Point.ZERO, new Vector(1, -3, -10)),
                 camera.setVPSize(8, 8).constructRay(4, 4, 1, 0), badRay);
 
+        // BV07: 4X4 Corner (0,0) after changing the view plane, with the same resolution
+        assertEquals(new Ray(Point.ZERO, new Vector(3, -3, -5)),
+                camera.setVPDistance(5).constructRay(4, 4, 0, 0), badRay);
+
+    }
+
+    /**
+     * Test method for {@link renderer.Camera#renderImage()} with multithreading.
+     */
+    @Test
+    void testRenderImageMultithreading() {
+        Scene scene = new Scene("Test scene").setAmbientLight(new AmbientLight(new Color(255, 191, 191), 0.2));
+        scene.geometries.add(new Sphere(new Point(0, 0, -100), 50d)
+                        .setEmission(new Color(0, 0, 100)).setMaterial(new Material().setKD(0.5).setKS(0.5).setNShininess(30)),
+                new Triangle(new Point(-100, 0, -100), new Point(0, 100, -100), new Point(-100, 100, -100))
+                        .setEmission(new Color(0, 100, 0)));
+        scene.lights.add(new PointLight(new Color(500, 300, 0), new Point(-50, -50, 25)).setKL(0.001));
+
+        // a resolution which is not a multiple of the tile size, so the tiles on the edges are partial
+        final int nX = 101, nY = 77;
+        ImageWriter sequential = new ImageWriter("sequential", nX, nY);
+        ImageWriter parallel = new ImageWriter("parallel", nX, nY);
+        Camera camera = new Camera(Point.ZERO, new Vector(0, 0, -1), new Vector(0, 1, 0))
+                .setVPDistance(100).setVPSize(500, 500).setRayTracer(new RayTracerBasic(scene));
+        camera.setImageWriter(sequential).renderImage();
+        camera.setImageWriter(parallel).setMultithreading(4).setTileSize(8).renderImage();
+
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: the parallel rendering is pixel-identical to the sequential one
+        for (int i = 0; i < nY; i++)
+            for (int j = 0; j < nX; j++)
+                assertEquals(sequential.getPixel(j, i), parallel.getPixel(j, i), "Bad pixel (" + j + "," + i + ")");
+    }
+
+    /**
+     * Test method for {@link renderer.Camera#renderImage()} with a streaming image writer.
+     */
+    @Test
+    void testRenderImageStreaming() throws IOException {
+        Scene scene = new Scene("Test scene").setAmbientLight(new AmbientLight(new Color(255, 191, 191), 0.2));
+        scene.geometries.add(new Sphere(new Point(0, 0, -100), 50d)
+                        .setEmission(new Color(0, 0, 100)).setMaterial(new Material().setKD(0.5).setKS(0.5).setNShininess(30)),
+                new Triangle(new Point(-100, 0, -100), new Point(0, 100, -100), new Point(-100, 100, -100))
+                        .setEmission(new Color(0, 100, 0)));
+        scene.lights.add(new PointLight(new Color(500, 300, 0), new Point(-50, -50, 25)).setKL(0.001));
+
+        // a height which is not a multiple of the band heights, so the last bands are partial
+        final int nX = 101, nY = 77;
+        ImageWriter whole = new ImageWriter("whole", nX, nY);
+        Camera camera = new Camera(Point.ZERO, new Vector(0, 0, -1), new Vector(0, 1, 0))
+                .setVPDistance(100).setVPSize(500, 500).setRayTracer(new RayTracerBasic(scene));
+        camera.setImageWriter(whole).renderImage();
+        camera.setImageWriter(new ImageWriter("streaming sequential", nX, nY, 10)).renderImage().writeToImage();
+        camera.setImageWriter(new ImageWriter("streaming parallel", nX, nY, 16))
+                .setMultithreading(4).setTileSize(8).renderImage().writeToImage();
+
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: the image streamed band by band sequentially is identical to the image held in memory
+        // TC02: the image streamed band by band in parallel is identical to the image held in memory
+        for (String name : new String[]{"streaming sequential", "streaming parallel"}) {
+            BufferedImage image = ImageIO.read(new File(System.getProperty("user.dir") + "/images/" + name + ".png"));
+            assertEquals(nX, image.getWidth(), "Bad width");
+            assertEquals(nY, image.getHeight(), "Bad height");
+            for (int i = 0; i < nY; i++)
+                for (int j = 0; j < nX; j++)
+                    assertEquals(whole.getPixel(j, i), image.getRGB(j, i), name + ": bad pixel (" + j + "," + i + ")");
+        }
+    }
+
+    /**
+     * Test method for {@link renderer.Camera#renderImage()} with adaptive super sampling.
+     */
+    @Test
+    void testRenderImageAntiAliasing() {
+        final Color background = new Color(20, 20, 60), red = new Color(200, 0, 0);
+        Scene empty = new Scene("Empty scene").setBackground(background);
+        Scene scene = new Scene("Edge scene").setBackground(background);
+        scene.geometries.add(new Triangle(new Point(-300, -300, -100), new Point(250, -250, -100), new Point(-200, 270, -100))
+                .setEmission(red));
+        final int nX = 50, nY = 40, depth = 3;
+        AtomicInteger rays = new AtomicInteger();
+        Camera camera = new Camera(Point.ZERO, new Vector(0, 0, -1), new Vector(0, 1, 0))
+                .setVPDistance(100).setVPSize(500, 400).setAntiAliasing(depth);
+
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: a uniform image needs only the corners of the pixels, each traced once
+        ImageWriter uniform = new ImageWriter("anti-aliasing uniform", nX, nY);
+        camera.setImageWriter(uniform).setRayTracer(countingTracer(empty, rays)).renderImage();
+        assertEquals((nX + 1) * (nY + 1), rays.get(), "Bad number of rays");
+        for (int i = 0; i < nY; i++)
+            for (int j = 0; j < nX; j++)
+                assertEquals(background.getColor().getRGB(), uniform.getPixel(j, i), "Bad pixel (" + j + "," + i + ")");
+
+        // TC02: the pixels on the edges are subdivided, the others are not
+        rays.set(0);
+        ImageWriter sequential = new ImageWriter("anti-aliasing sequential", nX, nY);
+        camera.setImageWriter(sequential).setRayTracer(countingTracer(scene, rays)).renderImage();
+        int full = (nX * (1 << depth) + 1) * (nY * (1 << depth) + 1);
+        assertTrue(rays.get() > (nX + 1) * (nY + 1), "The edges were not subdivided");
+        assertTrue(rays.get() < full / 4, "Too many rays: " + rays.get() + " of " + full);
+        boolean blended = false;
+        for (int i = 0; i < nY; i++)
+            for (int j = 0; j < nX; j++) {
+                java.awt.Color pixel = new java.awt.Color(sequential.getPixel(j, i));
+                blended |= pixel.getRed() > background.getRed() + 10 && pixel.getRed() < red.getRed() - 10;
+            }
+        assertTrue(blended, "No pixel on the edges is blended");
+
+        // TC03: the parallel rendering is pixel-identical to the sequential one
+        ImageWriter parallel = new ImageWriter("anti-aliasing parallel", nX, nY);
+        camera.setImageWriter(parallel).setMultithreading(3).setTileSize(7).renderImage();
+        for (int i = 0; i < nY; i++)
+            for (int j = 0; j < nX; j++)
+                assertEquals(sequential.getPixel(j, i), parallel.getPixel(j, i), "Bad pixel (" + j + "," + i + ")");
+    }
+
+    /**
+     * Test method for {@link renderer.Camera#renderProgressive(PassListener)}.
+     */
+    @Test
+    void testRenderProgressive() {
+        Scene scene = new Scene("Test scene").setAmbientLight(new AmbientLight(new Color(255, 191, 191), 0.2));
+        scene.geometries.add(new Sphere(new Point(0, 0, -100), 50d)
+                        .setEmission(new Color(0, 0, 100)).setMaterial(new Material().setKD(0.5).setKS(0.5).setNShininess(30)),
+                new Triangle(new Point(-100, 0, -100), new Point(0, 100, -100), new Point(-100, 100, -100))
+                        .setEmission(new Color(0, 100, 0)));
+        scene.lights.add(new PointLight(new Color(500, 300, 0), new Point(-50, -50, 25)).setKL(0.001));
+
+        final int nX = 151, nY = 117;
+        AtomicInteger rays = new AtomicInteger();
+        ImageWriter reference = new ImageWriter("progressive reference", nX, nY);
+        Camera camera = new Camera(Point.ZERO, new Vector(0, 0, -1), new Vector(0, 1, 0))
+                .setVPDistance(100).setVPSize(500, 500).setRayTracer(countingTracer(scene, rays));
+        camera.setImageWriter(reference).renderImage();
+
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: the passes trace every pixel once, the first pass a few thousand, and the result is the full render
+        rays.set(0);
+        List<Integer> passRays = new ArrayList<>();
+        List<Boolean> lastFlags = new ArrayList<>();
+        ImageWriter sequential = new ImageWriter("progressive sequential", nX, nY);
+        camera.setImageWriter(sequential).renderProgressive((pass, last, writer) -> {
+            assertEquals(passRays.size(), pass, "Bad pass number");
+            passRays.add(rays.get());
+            lastFlags.add(last);
+            return true;
+        });
+        assertEquals(nX * nY, rays.get(), "Bad number of rays");
+        assertTrue(passRays.get(0) <= 4096, "Too many rays in the first pass");
+        assertTrue(passRays.size() > 2, "Too few passes");
+        assertTrue(lastFlags.get(lastFlags.size() - 1), "The last pass is not flagged as last");
+        assertFalse(lastFlags.subList(0, lastFlags.size() - 1).contains(true), "A pass before the last is flagged as last");
+        for (int i = 0; i < nY; i++)
+            for (int j = 0; j < nX; j++)
+                assertEquals(reference.getPixel(j, i), sequential.getPixel(j, i), "Bad pixel (" + j + "," + i + ")");
+
+        // TC02: the parallel passes give the same result
+        ImageWriter parallel = new ImageWriter("progressive parallel", nX, nY);
+        camera.setImageWriter(parallel).setMultithreading(3).setTileSize(8).renderProgressive((pass, last, writer) -> true);
+        for (int i = 0; i < nY; i++)
+            for (int j = 0; j < nX; j++)
+                assertEquals(reference.getPixel(j, i), parallel.getPixel(j, i), "Bad pixel (" + j + "," + i + ")");
+
+        // TC03: the listener stops the render after the first pass, which fills the whole image
+        rays.set(0);
+        ImageWriter stopped = new ImageWriter("progressive stopped", nX, nY);
+        camera.setImageWriter(stopped).renderProgressive((pass, last, writer) -> false);
+        assertEquals(passRays.get(0), rays.get(), "The render was not stopped");
+        int step = (int) Math.round(Math.sqrt((double) nX * nY / rays.get()));
+        for (int i = 0; i < nY; i++)
+            for (int j = 0; j < nX; j++)
+                assertEquals(stopped.getPixel(j / step * step, i / step * step), stopped.getPixel(j, i),
+                        "Bad pixel (" + j + "," + i + ")");
+
+        // =============== Boundary Values Tests ==================
+        // TC11: with anti-aliasing, a last pass super samples the tiles with edges only,
+        // as the full super sampled render, and the other tiles keep the colors of the passes
+        rays.set(0);
+        ImageWriter superSampledReference = new ImageWriter("progressive super sampled reference", nX, nY);
+        camera.setImageWriter(superSampledReference).setMultithreading(0).setAntiAliasing(2).renderImage();
+        int superSampledRays = rays.get();
+        rays.set(0);
+        List<Boolean> superSampled = new ArrayList<>();
+        ImageWriter antiAliased = new ImageWriter("progressive anti-aliased", nX, nY);
+        camera.setImageWriter(antiAliased).renderProgressive((pass, last, writer) -> superSampled.add(last));
+        assertEquals(passRays.size() + 1, superSampled.size(), "Bad number of passes");
+        assertFalse(superSampled.get(superSampled.size() - 2), "The pass tracing each pixel once is flagged as last");
+        assertTrue(rays.get() - nX * nY < superSampledRays,
+                "The last pass traced " + (rays.get() - nX * nY) + " rays of " + superSampledRays);
+        int refined = 0;
+        for (int i = 0; i < nY; i++)
+            for (int j = 0; j < nX; j++) {
+                int pixel = antiAliased.getPixel(j, i);
+                if (pixel != reference.getPixel(j, i)) {
+                    assertEquals(superSampledReference.getPixel(j, i), pixel, "Bad pixel (" + j + "," + i + ")");
+                    refined++;
+                }
+            }
+        assertTrue(refined > 0, "No pixel was super sampled");
+    }
+
+    /**
+     * Test method for {@link renderer.Camera#renderImage(Duration)}.
+     */
+    @Test
+    void testRenderImageBudget() {
+        final Color background = new Color(20, 20, 60);
+        Scene scene = new Scene("Test scene").setBackground(background)
+                .setAmbientLight(new AmbientLight(new Color(255, 191, 191), 0.2));
+        scene.geometries.add(new Sphere(new Point(0, 0, -100), 50d)
+                        .setEmission(new Color(0, 0, 100)).setMaterial(new Material().setKD(0.5).setKS(0.5).setNShininess(30)),
+                new Triangle(new Point(-100, 0, -100), new Point(0, 100, -100), new Point(-100, 100, -100))
+                        .setEmission(new Color(0, 100, 0)));
+        scene.lights.add(new PointLight(new Color(500, 300, 0), new Point(-50, -50, 25)).setKL(0.001));
+
+        final int nX = 200, nY = 150;
+        AtomicInteger rays = new AtomicInteger();
+        ImageWriter reference = new ImageWriter("budget reference", nX, nY);
+        Camera camera = new Camera(Point.ZERO, new Vector(0, 0, -1), new Vector(0, 1, 0))
+                .setVPDistance(100).setVPSize(500, 500).setRayTracer(countingTracer(scene, rays));
+        camera.setImageWriter(reference).renderImage();
+
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: with enough time, every pixel is traced and the tiles with edges are super sampled
+        rays.set(0);
+        ImageWriter generous = new ImageWriter("budget generous", nX, nY);
+        camera.setImageWriter(generous).setMultithreading(2).renderImage(Duration.ofMinutes(1));
+        assertTrue(rays.get() > nX * nY, "The edges were not super sampled");
+        int changed = 0;
+        for (int i = 0; i < nY; i++)
+            for (int j = 0; j < nX; j++)
+                if (reference.getPixel(j, i) != generous.getPixel(j, i)) changed++;
+        assertTrue(changed > 0 && changed < nX * nY / 4, "Bad number of super sampled pixels: " + changed);
+
+        // TC02: once the time is up, each render thread finishes the tile it is rendering and the render stops,
+        // with a complete image. The rays after the first pass wait until the time is up, so the number of rays
+        // doesn't depend on the speed of the machine
+        rays.set(0);
+        camera.setImageWriter(new ImageWriter("budget first pass", nX, nY)).setMultithreading(0).renderImage(Duration.ZERO);
+        int firstPass = rays.get();
+        Duration budget = Duration.ofMillis(100);
+        AtomicInteger slowRays = new AtomicInteger();
+        // the end of the budget, measured from the first ray after the first pass, so it is after the deadline
+        AtomicLong expiry = new AtomicLong();
+        Camera slow = new Camera(Point.ZERO, new Vector(0, 0, -1), new Vector(0, 1, 0))
+                .setVPDistance(100).setVPSize(500, 500).setMultithreading(2).setRayTracer(new RayTracerBase(scene) {
+                    private final RayTracerBase tracer = new RayTracerBasic(scene);
+
+                    @Override
+                    public Color traceRay(Ray ray) {
+                        if (slowRays.incrementAndGet() > firstPass) {
+                            expiry.compareAndSet(0, System.nanoTime() + budget.toNanos());
+                            for (long left; (left = expiry.get() - System.nanoTime()) > 0; )
+                                LockSupport.parkNanos(left);
+                        }
+                        return tracer.traceRay(ray);
+                    }
+                });
+        ImageWriter limited = new ImageWriter("budget limited", nX, nY);
+        slow.setImageWriter(limited).renderImage(budget);
+        assertTrue(slowRays.get() > firstPass, "The render stopped after the first pass");
+        assertTrue(slowRays.get() <= firstPass + 2 * 16 * 16,
+                "The render went on after the time was up: " + (slowRays.get() - firstPass) + " rays");
+        assertNoBlackPixels(limited);
+
+        // =============== Boundary Values Tests ==================
+        // TC11: no time at all, only the first pass is rendered, and it fills the image
+        rays.set(0);
+        ImageWriter none = new ImageWriter("budget none", nX, nY);
+        camera.setImageWriter(none).setMultithreading(0).renderImage(Duration.ZERO);
+        assertTrue(rays.get() <= 4096, "Too many rays: " + rays.get());
+        assertNoBlackPixels(none);
     }
 
+    /**
+     * Checks that no pixel of an image is black
+     *
+     * @param imageWriter the image
+     */
+    private static void assertNoBlackPixels(ImageWriter imageWriter) {
+        for (int i = 0; i < imageWriter.getNy(); i++)
+            for (int j = 0; j < imageWriter.getNx(); j++)
+                assertTrue((imageWriter.getPixel(j, i) & 0xFFFFFF) != 0, "Black pixel (" + j + "," + i + ")");
+    }
+
+    /**
+     * Test method for {@link renderer.Camera#renderImage()} with a checkpoint file.
+     *
+     * @param folder a folder for the checkpoint file
+     */
+    @Test
+    void testRenderImageCheckpoint(@TempDir Path folder) {
+        Scene scene = new Scene("Test scene").setAmbientLight(new AmbientLight(new Color(255, 191, 191), 0.2));
+        scene.geometries.add(new Sphere(new Point(0, 0, -100), 50d)
+                        .setEmission(new Color(0, 0, 100)).setMaterial(new Material().setKD(0.5).setKS(0.5).setNShininess(30)),
+                new Triangle(new Point(-100, 0, -100), new Point(0, 100, -100), new Point(-100, 100, -100))
+                        .setEmission(new Color(0, 100, 0)));
+        scene.lights.add(new PointLight(new Color(500, 300, 0), new Point(-50, -50, 25)).setKL(0.001));
+
+        final int nX = 101, nY = 77;
+        Path file = folder.resolve("render.checkpoint");
+        AtomicInteger rays = new AtomicInteger();
+        ImageWriter reference = new ImageWriter("checkpoint reference", nX, nY);
+        Camera camera = new Camera(Point.ZERO, new Vector(0, 0, -1), new Vector(0, 1, 0))
+                .setVPDistance(100).setVPSize(500, 500).setTileSize(8);
+        camera.setImageWriter(reference).setRayTracer(new RayTracerBasic(scene)).renderImage();
+
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: a render dies half way, and the render started again, with other threads building the
+        // acceleration of the scene, traces only the tiles that were not saved.
+        // The render threads of the dead render are done when it throws
+        scene.geometries.setBuildThreads(3);
+        RayTracerBase tracer = new RayTracerBasic(scene);
+        AtomicInteger dyingRays = new AtomicInteger();
+        camera.setCheckpoint(file).setMultithreading(2).setRayTracer(new RayTracerBase(scene) {
+            @Override
+            public Color traceRay(Ray ray) {
+                if (dyingRays.incrementAndGet() > nX * nY / 2)
+                    throw new IllegalStateException("The render died");
+                return tracer.traceRay(ray);
+            }
+        });
+        assertThrows(RuntimeException.class, () -> camera.setImageWriter(new ImageWriter("checkpoint died", nX, nY))
+                .renderImage(), "The render did not die");
+        assertTrue(Files.exists(file), "No checkpoint file");
+        int died = dyingRays.get();
+
+        rays.set(0);
+        scene.geometries.setBuildThreads(1);
+        ImageWriter resumed = new ImageWriter("checkpoint resumed", nX, nY);
+        camera.setImageWriter(resumed).setMultithreading(0).setRayTracer(countingTracer(scene, rays)).renderImage();
+        assertTrue(rays.get() > 0 && rays.get() < nX * nY * 2 / 3, "Bad number of rays: " + rays.get());
+        assertEquals(died, dyingRays.get(), "The dead render went on tracing");
+        for (int i = 0; i < nY; i++)
+            for (int j = 0; j < nX; j++)
+                assertEquals(reference.getPixel(j, i), resumed.getPixel(j, i), "Bad pixel (" + j + "," + i + ")");
+
+        // TC02: a finished render is loaded without tracing any ray
+        rays.set(0);
+        ImageWriter loaded = new ImageWriter("checkpoint loaded", nX, nY);
+        camera.setImageWriter(loaded).renderImage();
+        assertEquals(0, rays.get(), "A finished tile was rendered again");
+        for (int i = 0; i < nY; i++)
+            for (int j = 0; j < nX; j++)
+                assertEquals(reference.getPixel(j, i), loaded.getPixel(j, i), "Bad pixel (" + j + "," + i + ")");
+
+        // TC03: another camera starts over
+        rays.set(0);
+        camera.setVPDistance(90).setImageWriter(new ImageWriter("checkpoint other", nX, nY)).renderImage();
+        assertEquals(nX * nY, rays.get(), "A tile of another render was loaded");
+
+        // TC04: a change of the scene which keeps its bounds and lights (the ambient light) starts over
+        rays.set(0);
+        scene.setAmbientLight(new AmbientLight(new Color(100, 255, 100), 0.2));
+        camera.setImageWriter(new ImageWriter("checkpoint other scene", nX, nY)).renderImage();
+        assertEquals(nX * nY, rays.get(), "A tile of another scene was loaded");
+    }
+
+    /**
+     * Creates a ray tracer which counts the rays it traces
+     *
+     * @param scene the scene
+     * @param rays  the counter of the rays
+     * @return the ray tracer
+     */
+    private static RayTracerBase countingTracer(Scene scene, AtomicInteger rays) {
+        RayTracerBase tracer = new RayTracerBasic(scene);
+        return new RayTracerBase(scene) {
+            @Override
+            public Color traceRay(Ray ray) {
+                rays.incrementAndGet();
+                return tracer.traceRay(ray);
+            }
+        };
+    }
 }
@@ -0,0 +1,84 @@
+package renderer;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import primitives.Color;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Testing Checkpoint Class
+ *
+ * @author Avraham Hassson
+ */
+class CheckpointTest {
+    /**
+     * The size of the image, not a multiple of the tile size
+     */
+    private static final int NX = 21, NY = 13, TILE = 8;
+
+    /**
+     * A folder for the checkpoint files, deleted after the tests
+     */
+    @TempDir
+    Path folder;
+
+    /**
+     * Test method for {@link renderer.Checkpoint#save(Tile, FrameBuffer)} and
+     * {@link renderer.Checkpoint#load(Tile, FrameBuffer)}.
+     */
+    @Test
+    void testSaveLoad() throws IOException {
+        Path file = folder.resolve("render.checkpoint");
+        List<Tile> tiles = Tile.split(NX, NY, TILE);
+        FrameBuffer frameBuffer = new FrameBuffer(NX, NY);
+        for (int y = 0; y < NY; ++y)
+            for (int x = 0; x < NX; ++x)
+                frameBuffer.set(x, y, new Color(x * 10, y * 10, 300.5));
+        try (Checkpoint checkpoint = new Checkpoint(file, NX, NY, TILE, 42)) {
+            assertFalse(checkpoint.isResumed(), "A new checkpoint is resumed");
+            checkpoint.save(tiles.get(0), frameBuffer);
+            checkpoint.save(tiles.get(tiles.size() - 1), frameBuffer);
+        }
+
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: the same render resumes the saved tiles, with their colors in high dynamic range
+        FrameBuffer loaded = new FrameBuffer(NX, NY);
+        try (Checkpoint checkpoint = new Checkpoint(file, NX, NY, TILE, 42)) {
+            assertTrue(checkpoint.isResumed(), "The checkpoint is not resumed");
+            for (int t = 0; t < tiles.size(); ++t)
+                assertEquals(t == 0 || t == tiles.size() - 1, checkpoint.isDone(tiles.get(t)), "Bad flag of tile " + t);
+            checkpoint.load(tiles.get(0), loaded);
+            checkpoint.load(tiles.get(tiles.size() - 1), loaded);
+        }
+        for (Tile tile : List.of(tiles.get(0), tiles.get(tiles.size() - 1)))
+            for (int y = tile.y0; y < tile.y0 + tile.height; ++y)
+                for (int x = tile.x0; x < tile.x0 + tile.width; ++x) {
+                    Color expected = frameBuffer.get(x, y), actual = loaded.get(x, y);
+                    assertEquals(expected.getRed(), actual.getRed(), "Bad pixel (" + x + "," + y + ")");
+                    assertEquals(expected.getGreen(), actual.getGreen(), "Bad pixel (" + x + "," + y + ")");
+                    assertEquals(expected.getBlue(), actual.getBlue(), "Bad pixel (" + x + "," + y + ")");
+                }
+
+        // TC02: another render starts over
+        try (Checkpoint checkpoint = new Checkpoint(file, NX, NY, TILE, 43)) {
+            assertFalse(checkpoint.isResumed(), "The checkpoint of another render is resumed");
+            assertFalse(checkpoint.isDone(tiles.get(0)), "A tile of another render is done");
+        }
+
+        // =============== Boundary Values Tests ==================
+        // TC11: another resolution starts over
+        try (Checkpoint checkpoint = new Checkpoint(file, NX + 1, NY, TILE, 43)) {
+            assertFalse(checkpoint.isResumed(), "The checkpoint of another resolution is resumed");
+        }
+        // TC12: a tile which is not a tile of the image
+        try (Checkpoint checkpoint = new Checkpoint(file, NX, NY, TILE, 43)) {
+            assertThrows(IllegalArgumentException.class, () -> checkpoint.isDone(new Tile(3, 0, 8, 8)), "Bad tile");
+            assertThrows(IllegalArgumentException.class, () -> checkpoint.isDone(new Tile(0, NY + 3, 8, 8)), "Bad tile");
+        }
+    }
+}
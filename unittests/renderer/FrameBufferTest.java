@@ -0,0 +1,60 @@
+package renderer;
+
+import org.junit.jupiter.api.Test;
+import primitives.Color;
+
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Testing FrameBuffer Class
+ *
+ * @author Avraham Hassson
+ */
+class FrameBufferTest {
+    /**
+     * Test method for {@link renderer.FrameBuffer#set(int, int, primitives.Color)}
+     * and {@link renderer.FrameBuffer#add(int, int, primitives.Color)}.
+     */
+    @Test
+    void testSetAdd() {
+        FrameBuffer frameBuffer = new FrameBuffer(4, 3);
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: a pixel keeps the color set to it
+        frameBuffer.set(3, 2, new Color(10, 20, 30));
+        assertEquals(new java.awt.Color(10, 20, 30).getRGB(), frameBuffer.getRGB(3, 2), "Wrong color");
+        // TC02: colors added to a pixel accumulate above 255, and are limited only when converted
+        frameBuffer.set(1, 1, new Color(200, 100, 0));
+        frameBuffer.add(1, 1, new Color(200, 100, 0));
+        assertEquals(400, frameBuffer.get(1, 1).getRed(), 0.0001, "Wrong accumulated color");
+        assertEquals(200, frameBuffer.get(1, 1).getGreen(), 0.0001, "Wrong accumulated color");
+        assertEquals(new java.awt.Color(255, 200, 0).getRGB(), frameBuffer.getRGB(1, 1), "Wrong converted color");
+        // TC03: the other pixels are black
+        assertEquals(java.awt.Color.BLACK.getRGB(), frameBuffer.getRGB(0, 0), "Wrong color of an unwritten pixel");
+        // TC04: a pixel out of the image
+        assertThrows(IllegalArgumentException.class, () -> frameBuffer.set(4, 0, Color.BLACK), "Pixel out of the image");
+        assertThrows(IllegalArgumentException.class, () -> frameBuffer.get(0, -1), "Pixel out of the image");
+
+        // =============== Boundary Values Tests ==================
+        // TC11: clearing
+        frameBuffer.clear();
+        assertEquals(java.awt.Color.BLACK.getRGB(), frameBuffer.getRGB(1, 1), "Wrong color after clearing");
+    }
+
+    /**
+     * Test method for {@link renderer.FrameBuffer#toRGB()} with parallel writers.
+     */
+    @Test
+    void testParallelWrites() {
+        final int nX = 257, nY = 129;
+        FrameBuffer frameBuffer = new FrameBuffer(nX, nY);
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: every pixel written by some thread holds its color
+        IntStream.range(0, nX * nY).parallel()
+                .forEach(p -> frameBuffer.set(p % nX, p / nX, new Color(p % 256, p / nX % 256, 7)));
+        int[] pixels = frameBuffer.toRGB();
+        for (int p = 0; p < nX * nY; ++p)
+            assertEquals(new java.awt.Color(p % 256, p / nX % 256, 7).getRGB(), pixels[p], "Wrong color");
+    }
+}
@@ -0,0 +1,195 @@
+package renderer;
+
+import org.junit.jupiter.api.Test;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Random;
+import java.util.zip.Adler32;
+import java.util.zip.Deflater;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Testing PngEncoder Class
+ *
+ * @author Avraham Hassson
+ */
+class PngEncoderTest {
+
+    /**
+     * Encodes an image in groups of rows and decodes it back
+     *
+     * @param pixels  the RGB values of the pixels, row after row
+     * @param width   the number of pixels in a row
+     * @param height  the number of pixels in a column
+     * @param rows    the number of rows in a group
+     * @param level   the compression level
+     * @param threads the number of threads
+     * @return the decoded image
+     */
+    private static BufferedImage roundTrip(int[] pixels, int width, int height, int rows, int level, int threads)
+            throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        PngEncoder encoder = new PngEncoder(out, width, height, level, threads);
+        for (int i = 0; i < height; i += rows)
+            encoder.writeRows(pixels, i * width, Math.min(rows, height - i));
+        encoder.close();
+        return ImageIO.read(new ByteArrayInputStream(out.toByteArray()));
+    }
+
+    /**
+     * Checks that a decoded image has the given pixels
+     *
+     * @param pixels the RGB values of the pixels, row after row
+     * @param width  the number of pixels in a row
+     * @param image  the decoded image
+     */
+    private static void assertPixels(int[] pixels, int width, BufferedImage image) {
+        assertEquals(width, image.getWidth(), "Bad width");
+        assertEquals(pixels.length / width, image.getHeight(), "Bad height");
+        for (int i = 0; i < pixels.length; ++i)
+            assertEquals(pixels[i], image.getRGB(i % width, i / width), "Bad pixel " + i);
+    }
+
+    /**
+     * Test method for {@link renderer.PngEncoder#writeRows(int[], int, int)}.
+     */
+    @Test
+    void testWriteRows() throws IOException {
+        // random pixels (mostly unfiltered rows) of several segments and IDAT chunks
+        final int width = 257, height = 331;
+        int[] noise = new int[width * height];
+        Random random = new Random(5890);
+        for (int i = 0; i < noise.length; ++i)
+            noise[i] = 0xFF000000 | random.nextInt(0x1000000);
+        // smooth gradients (filtered rows)
+        int[] gradient = new int[width * height];
+        for (int i = 0; i < height; ++i)
+            for (int j = 0; j < width; ++j)
+                gradient[i * width + j] = 0xFF000000 | (j & 0xFF) << 16 | (i & 0xFF) << 8 | ((i + j) / 3 & 0xFF);
+
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: random pixels, all the rows at once, compressed in parallel
+        assertPixels(noise, width, roundTrip(noise, width, height, height, Deflater.DEFAULT_COMPRESSION, 4));
+        // TC02: gradients, all the rows at once, compressed in parallel
+        assertPixels(gradient, width, roundTrip(gradient, width, height, height, Deflater.DEFAULT_COMPRESSION, 4));
+        // TC03: gradients in groups of rows, compressed in a single thread
+        assertPixels(gradient, width, roundTrip(gradient, width, height, 7, Deflater.DEFAULT_COMPRESSION, 1));
+        // TC04: gradients in groups of rows, with the fastest and the best compression
+        assertPixels(gradient, width, roundTrip(gradient, width, height, 200, 1, 3));
+        assertPixels(gradient, width, roundTrip(gradient, width, height, 200, 9, 3));
+
+        // =============== Boundary Values Tests ==================
+        // TC11: a single pixel
+        assertPixels(new int[]{0xFF123456}, 1, roundTrip(new int[]{0xFF123456}, 1, 1, 1, 6, 2));
+        // TC12: no compression
+        assertPixels(noise, width, roundTrip(noise, width, height, 100, 0, 2));
+        // TC13: a single row in each group
+        assertPixels(gradient, width, roundTrip(gradient, width, height, 1, 6, 2));
+
+        // TC14: writing more rows than the height
+        PngEncoder encoder = new PngEncoder(new ByteArrayOutputStream(), 1, 1, 6, 1);
+        encoder.writeRows(new int[]{0}, 0, 1);
+        assertThrows(IllegalStateException.class, () -> encoder.writeRows(new int[]{0}, 0, 1), "Too many rows");
+    }
+
+    /**
+     * Test method for {@link renderer.PngEncoder#close()}.
+     */
+    @Test
+    void testClose() throws IOException {
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: closing before all the rows are written
+        PngEncoder encoder = new PngEncoder(new ByteArrayOutputStream(), 2, 2, 6, 1);
+        encoder.writeRows(new int[2], 0, 1);
+        assertThrows(IllegalStateException.class, encoder::close, "Missing rows");
+
+        // =============== Boundary Values Tests ==================
+        // TC11: an empty image
+        assertThrows(IllegalArgumentException.class, () -> new PngEncoder(new ByteArrayOutputStream(), 0, 1, 6, 1),
+                "Empty image");
+        // TC12: an illegal compression level
+        assertThrows(IllegalArgumentException.class, () -> new PngEncoder(new ByteArrayOutputStream(), 1, 1, 10, 1),
+                "Bad level");
+    }
+
+    /**
+     * Test method for {@link renderer.PngEncoder#abandon(Throwable)}.
+     */
+    @Test
+    void testAbandon() throws IOException {
+        // a stream failing after the header of the image, which records whether it was closed
+        boolean[] closed = {false};
+        OutputStream failing = new OutputStream() {
+            private int written = 0;
+
+            @Override
+            public void write(int b) throws IOException {
+                if (++written > 100)
+                    throw new IOException("Disk full");
+            }
+
+            @Override
+            public void close() {
+                closed[0] = true;
+            }
+        };
+        int[] pixels = new int[256 * 256];
+
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: the image is abandoned after writing the rows fails, which closes the stream
+        PngEncoder encoder = new PngEncoder(failing, 256, 256, 0, 2);
+        IOException e = assertThrows(IOException.class, () -> encoder.writeRows(pixels, 0, 256), "Write didn't fail");
+        assertFalse(closed[0], "Closed before abandoned");
+        encoder.abandon(e);
+        assertTrue(closed[0], "Stream not closed");
+
+        // =============== Boundary Values Tests ==================
+        // TC11: the header of the image cannot be written, and the stream is closed by the constructor
+        closed[0] = false;
+        OutputStream broken = new OutputStream() {
+            @Override
+            public void write(int b) throws IOException {
+                throw new IOException("Disk full");
+            }
+
+            @Override
+            public void close() {
+                closed[0] = true;
+            }
+        };
+        assertThrows(IOException.class, () -> new PngEncoder(broken, 1, 1, 6, 2), "Header written");
+        assertTrue(closed[0], "Stream not closed");
+    }
+
+    /**
+     * Test method for {@link renderer.PngEncoder#combineAdler(int, int, long)}.
+     */
+    @Test
+    void testCombineAdler() {
+        byte[] bytes = new byte[100000];
+        new Random(2718).nextBytes(bytes);
+        Adler32 whole = new Adler32();
+        whole.update(bytes);
+
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: the checksums of two parts combine to the checksum of the whole
+        Adler32 first = new Adler32(), second = new Adler32();
+        first.update(bytes, 0, 70000);
+        second.update(bytes, 70000, 30000);
+        assertEquals((int) whole.getValue(),
+                PngEncoder.combineAdler((int) first.getValue(), (int) second.getValue(), 30000), "Bad checksum");
+
+        // =============== Boundary Values Tests ==================
+        // TC11: an empty second part
+        assertEquals((int) whole.getValue(), PngEncoder.combineAdler((int) whole.getValue(), 1, 0), "Bad checksum");
+        // TC12: an empty first part
+        assertEquals((int) whole.getValue(), PngEncoder.combineAdler(1, (int) whole.getValue(), bytes.length),
+                "Bad checksum");
+    }
+}
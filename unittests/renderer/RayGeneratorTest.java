@@ -0,0 +1,80 @@
+package renderer;
+
+import org.junit.jupiter.api.Test;
+import primitives.Point;
+import primitives.Ray;
+import primitives.Vector;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Testing RayGenerator Class
+ *
+ * @author Avraham Hassson
+ */
+class RayGeneratorTest {
+    /**
+     * A camera which is not aligned with the axes
+     */
+    private final Camera camera = new Camera(new Point(5, -2, 7), new Vector(1, 1, -1), new Vector(1, 0, 1))
+            .setVPSize(16, 9).setVPDistance(12);
+
+    /**
+     * Calculates the ray through the center of a pixel from the geometry of the view plane
+     *
+     * @param nX The number of pixels in a row in the view plane.
+     * @param nY The number of pixels in a column in the view plane.
+     * @param j  The row number of the pixel.
+     * @param i  The column number of the pixel.
+     * @return the ray
+     */
+    private Ray expected(int nX, int nY, int j, int i) {
+        Point pc = camera.p0.add(camera.vTo.scale(camera.viewPlaneD));
+        double xJ = (j - (nX - 1) / 2d) * camera.viewPlaneW / nX;
+        double yI = -(i - (nY - 1) / 2d) * camera.viewPlaneH / nY;
+        Point pIJ = pc;
+        if (xJ != 0) pIJ = pIJ.add(camera.vRight.scale(xJ));
+        if (yI != 0) pIJ = pIJ.add(camera.vUp.scale(yI));
+        return new Ray(camera.p0, pIJ.subtract(camera.p0));
+    }
+
+    /**
+     * Test method for {@link renderer.RayGenerator#constructRay(int, int)}.
+     */
+    @Test
+    void testConstructRay() {
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: every pixel of an even and of an odd resolution
+        for (int[] resolution : new int[][]{{8, 6}, {7, 5}}) {
+            RayGenerator generator = new RayGenerator(camera, resolution[0], resolution[1]);
+            for (int i = 0; i < resolution[1]; ++i)
+                for (int j = 0; j < resolution[0]; ++j)
+                    assertEquals(expected(resolution[0], resolution[1], j, i), generator.constructRay(j, i), "Bad ray");
+        }
+        // =============== Boundary Values Tests ==================
+        // TC11: a single pixel, through the center of the view plane
+        assertEquals(new Ray(camera.p0, camera.vTo), new RayGenerator(camera, 1, 1).constructRay(0, 0), "Bad ray");
+        // TC12: no pixels
+        assertThrows(IllegalArgumentException.class, () -> new RayGenerator(camera, 0, 4), "Generated rays without pixels");
+    }
+
+    /**
+     * Test method for {@link renderer.RayGenerator#constructRays(int, int, int, primitives.Ray[])}
+     * and {@link renderer.RayGenerator#directions(int, int, int, double[])}.
+     */
+    @Test
+    void testScanline() {
+        RayGenerator generator = new RayGenerator(camera, 20, 10);
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: a part of a scanline gives the rays of its pixels
+        Ray[] rays = new Ray[7];
+        double[] directions = new double[7 * 3];
+        generator.constructRays(4, 9, 7, rays);
+        generator.directions(4, 9, 7, directions);
+        for (int k = 0; k < 7; ++k) {
+            assertEquals(generator.constructRay(9 + k, 4), rays[k], "Bad ray of the scanline");
+            assertEquals(rays[k].getDir(), new Vector(directions[k * 3], directions[k * 3 + 1], directions[k * 3 + 2]),
+                    "Bad direction of the scanline");
+        }
+    }
+}
@@ -0,0 +1,126 @@
+package renderer;
+
+import geometries.Sphere;
+import geometries.Triangle;
+import lighting.AmbientLight;
+import lighting.PointLight;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import primitives.*;
+import scene.Scene;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Testing RenderCoordinator Class
+ *
+ * @author Avraham Hassson
+ */
+class RenderCoordinatorTest {
+    /**
+     * The size of the image, not a multiple of the rows of a task
+     */
+    private static final int NX = 101, NY = 77;
+
+    /**
+     * Test method for {@link renderer.RenderCoordinator#render()}.
+     */
+    @Test
+    void testRender(@TempDir Path folder) {
+        Scene scene = new Scene("Test scene").setAmbientLight(new AmbientLight(new Color(255, 191, 191), 0.2));
+        scene.geometries.add(new Sphere(new Point(0, 0, -100), 50d)
+                        .setEmission(new Color(0, 0, 100)).setMaterial(new Material().setKD(0.5).setKS(0.5).setNShininess(30)),
+                new Triangle(new Point(-100, 0, -100), new Point(0, 100, -100), new Point(-100, 100, -100))
+                        .setEmission(new Color(0, 100, 0)));
+        scene.lights.add(new PointLight(new Color(500, 300, 0), new Point(-50, -50, 25)).setKL(0.001));
+
+        ImageWriter reference = new ImageWriter("distributed reference", NX, NY);
+        Camera camera = new Camera(Point.ZERO, new Vector(0, 0, -1), new Vector(0, 1, 0))
+                .setVPDistance(100).setVPSize(500, 500).setRayTracer(new RayTracerBasic(scene));
+        camera.setImageWriter(reference).renderImage();
+
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: several workers render the same image as a single JVM
+        ImageWriter distributed = new ImageWriter("distributed", NX, NY);
+        new RenderCoordinator(camera.setImageWriter(distributed)).setWorkers(3).setRowsPerTask(10).render();
+        assertSameImage(reference, distributed);
+
+        // TC02: the tasks of a worker which crashes are rendered by the other workers
+        ImageWriter crashed = new ImageWriter("distributed crashed", NX, NY);
+        camera.setImageWriter(crashed).setRayTracer(new CrashingTracer(scene, folder.resolve("crashed")));
+        new RenderCoordinator(camera).setWorkers(2).setRowsPerTask(8).render();
+        assertTrue(Files.exists(folder.resolve("crashed")), "No worker crashed");
+        assertSameImage(reference, crashed);
+
+        // =============== Boundary Values Tests ==================
+        // TC11: a single worker with render threads, a single task
+        ImageWriter single = new ImageWriter("distributed single", NX, NY);
+        camera.setImageWriter(single).setRayTracer(new RayTracerBasic(scene));
+        new RenderCoordinator(camera).setWorkers(1).setWorkerThreads(2).setRowsPerTask(NY).render();
+        assertSameImage(reference, single);
+
+        // TC12: bad settings
+        RenderCoordinator coordinator = new RenderCoordinator(camera);
+        assertThrows(IllegalArgumentException.class, () -> coordinator.setWorkers(0), "Bad number of workers");
+        assertThrows(IllegalArgumentException.class, () -> coordinator.setWorkerThreads(-1), "Bad number of threads");
+        assertThrows(IllegalArgumentException.class, () -> coordinator.setRowsPerTask(0), "Bad number of rows");
+    }
+
+    /**
+     * Asserts that two images have the same pixels
+     *
+     * @param expected the expected image
+     * @param actual   the actual image
+     */
+    private static void assertSameImage(ImageWriter expected, ImageWriter actual) {
+        for (int i = 0; i < NY; i++)
+            for (int j = 0; j < NX; j++)
+                assertEquals(expected.getPixel(j, i), actual.getPixel(j, i), "Bad pixel (" + j + "," + i + ")");
+    }
+
+    /**
+     * A ray tracer which kills the first JVM it traces a ray in, leaving a marker file behind,
+     * and traces as {@link RayTracerBasic} in any other JVM
+     */
+    private static class CrashingTracer extends RayTracerBasic {
+        private static final long serialVersionUID = 1L;
+
+        /**
+         * The marker file, created by the JVM which is killed
+         */
+        private final String marker;
+
+        /**
+         * Constructs the ray tracer
+         *
+         * @param scene  the scene
+         * @param marker the marker file
+         */
+        CrashingTracer(Scene scene, Path marker) {
+            super(scene);
+            this.marker = marker.toString();
+        }
+
+        @Override
+        public Color traceRay(Ray ray) {
+            Path file = Path.of(marker);
+            if (!Files.exists(file)) {
+                try {
+                    Files.createFile(file);
+                    Runtime.getRuntime().halt(1);
+                } catch (FileAlreadyExistsException e) {
+                    // another worker crashed first
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }
+            return super.traceRay(ray);
+        }
+    }
+}
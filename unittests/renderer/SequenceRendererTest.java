@@ -0,0 +1,134 @@
+package renderer;
+
+import geometries.BuildStats;
+import geometries.Geometries;
+import geometries.Sphere;
+import geometries.Triangle;
+import lighting.AmbientLight;
+import lighting.PointLight;
+import org.junit.jupiter.api.Test;
+import primitives.*;
+import scene.Scene;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Testing SequenceRenderer Class
+ *
+ * @author Avraham Hassson
+ */
+class SequenceRendererTest {
+    /**
+     * The resolution of the frames, and the number of frames
+     */
+    private static final int NX = 61, NY = 43, FRAMES = 5;
+
+    /**
+     * A camera moving to the right along the x axis, looking at the -z direction
+     */
+    private static final CameraPath PATH = (frame, frames) ->
+            new Camera(new Point(frame * 10, 0, 0), new Vector(0, 0, -1), new Vector(0, 1, 0))
+                    .setVPDistance(100).setVPSize(500, 500);
+
+    /**
+     * Test method for {@link renderer.SequenceRenderer#render(String, int)}.
+     */
+    @Test
+    void testRender() throws IOException {
+        Scene scene = new Scene("Test scene").setAmbientLight(new AmbientLight(new Color(255, 191, 191), 0.2));
+        scene.geometries.setAcceleration(Geometries.Acceleration.BVH);
+        scene.geometries.add(new Sphere(new Point(0, 0, -100), 50d)
+                        .setEmission(new Color(0, 0, 100)).setMaterial(new Material().setKD(0.5).setKS(0.5).setNShininess(30)),
+                new Triangle(new Point(-100, 0, -100), new Point(0, 100, -100), new Point(-100, 100, -100))
+                        .setEmission(new Color(0, 100, 0)));
+        scene.lights.add(new PointLight(new Color(500, 300, 0), new Point(-50, -50, 25)).setKL(0.001));
+        RayTracerBase rayTracer = new RayTracerBasic(scene);
+
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: the frames rendered in parallel are the frames rendered one by one
+        new SequenceRenderer(PATH, rayTracer).setResolution(NX, NY).setMultithreading(3).setFramesInFlight(3)
+                .render("sequence parallel", FRAMES);
+        assertFrames("sequence parallel", rayTracer);
+
+        // TC02: a scene without acceleration is given a flat hierarchy, built once for all the frames
+        Scene plain = new Scene("Plain scene");
+        plain.geometries.add(new Sphere(new Point(0, 0, -100), 50d).setEmission(new Color(0, 0, 100)),
+                new Triangle(new Point(-100, 0, -100), new Point(0, 100, -100), new Point(-100, 100, -100))
+                        .setEmission(new Color(0, 100, 0)));
+        List<BuildStats> stats = new CopyOnWriteArrayList<>();
+        new SequenceRenderer((frame, frames) -> {
+            stats.add(plain.geometries.getBuildStats());
+            return PATH.cameraAt(frame, frames);
+        }, new RayTracerBasic(plain)).setResolution(NX, NY).setMultithreading(2).render("sequence plain", FRAMES);
+        assertEquals(Geometries.Acceleration.FLAT_BVH, plain.geometries.getAcceleration(), "Bad acceleration");
+        BuildStats built = plain.geometries.getBuildStats();
+        assertNotNull(built, "No acceleration structure was built");
+        assertEquals(FRAMES, stats.size(), "Bad number of frames");
+        for (BuildStats frameStats : stats)
+            assertSame(built, frameStats, "The acceleration structure was built again");
+
+        // =============== Boundary Values Tests ==================
+        // TC11: the frames rendered sequentially, one frame in flight
+        new SequenceRenderer(PATH, rayTracer).setResolution(NX, NY).setMultithreading(0).setFramesInFlight(1)
+                .render("sequence sequential", FRAMES);
+        assertFrames("sequence sequential", rayTracer);
+
+        // TC12: a frame failing to render, one frame in flight: no more frames are started, and the failure is rethrown
+        AtomicInteger started = new AtomicInteger();
+        RayTracerBase failing = new RayTracerBase(scene) {
+            @Override
+            public Color traceRay(Ray ray) {
+                throw new IllegalStateException("The render failed");
+            }
+        };
+        assertThrows(IllegalStateException.class, () -> new SequenceRenderer((frame, frames) -> {
+            started.incrementAndGet();
+            return PATH.cameraAt(frame, frames);
+        }, failing).setResolution(NX, NY).setMultithreading(0).setFramesInFlight(1)
+                .render("sequence failed", FRAMES), "The failure was not rethrown");
+        assertTrue(started.get() <= 2, "Frames were started after the failure: " + started.get());
+
+        // TC13: a camera without a view plane
+        assertThrows(UnsupportedOperationException.class, () -> new SequenceRenderer((frame, frames) ->
+                        new Camera(Point.ZERO, new Vector(0, 0, -1), new Vector(0, 1, 0)), rayTracer)
+                .setResolution(NX, NY).render("sequence bad", FRAMES), "A camera without a view plane rendered");
+
+        // TC14: bad settings
+        SequenceRenderer renderer = new SequenceRenderer(PATH, rayTracer);
+        assertThrows(IllegalArgumentException.class, () -> renderer.setResolution(0, NY), "Bad resolution");
+        assertThrows(IllegalArgumentException.class, () -> renderer.setMultithreading(-1), "Bad number of threads");
+        assertThrows(IllegalArgumentException.class, () -> renderer.setFramesInFlight(0), "Bad frames in flight");
+        assertThrows(IllegalArgumentException.class, () -> renderer.setAcceleration(null), "Bad acceleration");
+        assertThrows(IllegalArgumentException.class, () -> renderer.render("sequence bad", 0), "Bad number of frames");
+    }
+
+    /**
+     * Asserts that the files of the frames of an animation hold the frames rendered one by one
+     *
+     * @param name      the name of the animation
+     * @param rayTracer the ray tracer of the scene
+     * @throws IOException if a file cannot be read
+     */
+    private static void assertFrames(String name, RayTracerBase rayTracer) throws IOException {
+        for (int frame = 0; frame < FRAMES; ++frame) {
+            ImageWriter expected = new ImageWriter("sequence reference", NX, NY);
+            PATH.cameraAt(frame, FRAMES).setRayTracer(rayTracer).setImageWriter(expected).renderImage();
+            String file = String.format("%s/images/%s_%04d.png", System.getProperty("user.dir"), name, frame);
+            BufferedImage image = ImageIO.read(new File(file));
+            assertEquals(NX, image.getWidth(), "Bad width");
+            assertEquals(NY, image.getHeight(), "Bad height");
+            for (int i = 0; i < NY; i++)
+                for (int j = 0; j < NX; j++)
+                    assertEquals(expected.getPixel(j, i), image.getRGB(j, i),
+                            "Frame " + frame + ": bad pixel (" + j + "," + i + ")");
+        }
+    }
+}
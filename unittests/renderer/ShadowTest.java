@@ -0,0 +1,44 @@
+package renderer;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+import geometries.Plane;
+import geometries.Sphere;
+import lighting.AmbientLight;
+import lighting.SpotLight;
+import primitives.*;
+import scene.Scene;
+
+/** Testing shadows cast by the geometries
+ * @author Avraham Hassson */
+public class ShadowTest {
+    private final Scene  scene  = new Scene("Test scene")
+            .setAmbientLight(new AmbientLight(new Color(java.awt.Color.WHITE), 0.15));
+    private final Camera camera = new Camera(new Point(0, 0, 1000), new Vector(0, 0, -1), new Vector(0, 1, 0))
+            .setVPSize(200, 200).setVPDistance(1000);
+
+    /** Produce a picture of a sphere casting a shadow on a plane, and check that the
+     * point of the plane right behind the sphere is darker than a lit point */
+    @Test
+    public void sphereOnPlane() {
+        Material material = new Material().setKD(0.5).setKS(0.5).setNShininess(30);
+        scene.geometries.add(
+                new Sphere(new Point(0, 0, -50), 30).setEmission(new Color(java.awt.Color.BLUE)).setMaterial(material),
+                new Plane(new Point(0, 0, -150), new Vector(0, 0, 1)).setMaterial(material));
+        scene.lights.add(new SpotLight(new Color(700, 400, 400), new Point(0, 0, 200), new Vector(0, 0, -1))
+                .setKL(4E-5).setKQ(2E-7));
+
+        ImageWriter imageWriter = new ImageWriter("shadowSphereOnPlane", 400, 400);
+        camera.setImageWriter(imageWriter) //
+                .setRayTracer(new RayTracerBasic(scene)) //
+                .renderImage() //
+                .writeToImage();
+
+        // the plane at the edge of the sphere's shadow, compared with the plane further away
+        java.awt.Color shaded = new java.awt.Color(imageWriter.getPixel(200, 128));
+        java.awt.Color lit = new java.awt.Color(imageWriter.getPixel(200, 60));
+        assertTrue(shaded.getRed() < lit.getRed(), "The point behind the sphere must be in its shadow");
+    }
+}
@@ -0,0 +1,106 @@
+package scene;
+
+import geometries.Mesh;
+import org.junit.jupiter.api.Test;
+import primitives.Color;
+import primitives.Point;
+import primitives.Ray;
+import primitives.Vector;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for scene.ObjLoader class
+ *
+ * @author Avraham Hassson
+ */
+class ObjLoaderTest {
+    /**
+     * Test method for {@link scene.ObjLoader#read(java.io.Reader)}.
+     */
+    @Test
+    void testRead() throws IOException {
+        ObjLoader loader = new ObjLoader().setEmission(new Color(20, 40, 60));
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: a quad and a triangle in two groups, with comments, normals and texture coordinates
+        List<Mesh> meshes = loader.read(new StringReader("""
+                # a unit square and a triangle above it
+                mtllib model.mtl
+                v 0 0 0
+                v 1 0 0
+                v 1 1 0
+                v 0 1 0
+                vt 0 0
+                vn 0 0 1
+                g square
+                usemtl red
+                f 1/1/1 2/1/1 3/1/1 4/1/1
+                g roof # the triangle
+                v 0 0 1
+                v 1 0 1
+                v 0 1 1
+                f -3//1 -2//1 -1//1
+                """));
+        assertEquals(2, meshes.size(), "Wrong number of groups");
+        Mesh square = meshes.get(0), roof = meshes.get(1);
+        assertEquals(2, square.getTrianglesCount(), "The quad isn't split into 2 triangles");
+        assertEquals(1, roof.getTrianglesCount(), "Wrong number of triangles");
+        assertEquals(new Point(0, 0, 1), roof.getVertex(0, 0), "Wrong relative index");
+        assertEquals(new Point(0, 1, 1), roof.getVertex(0, 2), "Wrong relative index");
+        assertEquals(new Color(20, 40, 60).getColor(), square.getEmission().getColor(), "Wrong emission");
+        // both triangles of the quad are there
+        Ray down = new Ray(new Point(0.2, 0.7, 5), new Vector(0, 0, -1));
+        assertEquals(List.of(new Point(0.2, 0.7, 0)), square.findIntersections(down), "Missing the first triangle");
+        down = new Ray(new Point(0.7, 0.2, 5), new Vector(0, 0, -1));
+        assertEquals(List.of(new Point(0.7, 0.2, 0)), square.findIntersections(down), "Missing the second triangle");
+
+        // TC02: faces before any group and a group that comes back
+        meshes = loader.read(new StringReader("""
+                v 0 0 0
+                v 1 0 0
+                v 0 1 0
+                f 1 2 3
+                o a
+                f 1 3 2
+                o default
+                f 2 3 1
+                """));
+        assertEquals(2, meshes.size(), "Wrong number of groups");
+        assertEquals(2, meshes.get(0).getTrianglesCount(), "A group that comes back isn't merged");
+
+        // TC03: a face referring to a missing vertex
+        assertThrows(IllegalArgumentException.class, () -> loader.read(new StringReader("""
+                v 0 0 0
+                v 1 0 0
+                v 0 1 0
+                f 1 2 4
+                """)), "Read a face with a missing vertex");
+        // TC04: a bad coordinate
+        assertThrows(IllegalArgumentException.class, () -> loader.read(new StringReader("v 0 x 0\n")),
+                "Read a bad coordinate");
+
+        // =============== Boundary Values Tests ==================
+        // TC11: no faces
+        assertTrue(loader.read(new StringReader("v 0 0 0\n")).isEmpty(), "Read a mesh without faces");
+        // TC12: a face with 2 vertices
+        assertThrows(IllegalArgumentException.class, () -> loader.read(new StringReader("""
+                v 0 0 0
+                v 1 0 0
+                f 1 2
+                """)), "Read a face with 2 vertices");
+        // TC13: a zero index
+        assertThrows(IllegalArgumentException.class, () -> loader.read(new StringReader("""
+                v 0 0 0
+                v 1 0 0
+                v 0 1 0
+                f 0 1 2
+                """)), "Read a face with a zero index");
+        // TC14: a statement continued on the next line
+        meshes = loader.read(new StringReader("v 0 0 0\nv 1 0 0\nv 0 1 0\nf 1 2 \\\n 3\n"));
+        assertEquals(1, meshes.get(0).getTrianglesCount(), "A continued statement isn't read");
+    }
+}